@@ -17,13 +17,13 @@ import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.adapters.AttractionGridAdapter;
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.data.FilterPipeline;
 import com.example.luxevista.models.Attraction;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.textfield.TextInputEditText;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -40,19 +40,16 @@ public class AttractionsFragment extends Fragment implements AttractionGridAdapt
     private ChipGroup chipGroupDistance;
     private TextView tvEmptyState;
 
-    private FirebaseFirestore db;
     private AttractionGridAdapter adapter;
+    private FilterPipeline<Attraction> filterPipeline;
 
     private List<Attraction> allAttractions = new ArrayList<>();
-    private List<Attraction> filteredAttractions = new ArrayList<>();
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_attractions, container, false);
 
-        db = FirebaseFirestore.getInstance();
-
         toolbar = view.findViewById(R.id.toolbar);
         loadingOverlay = view.findViewById(R.id.loadingOverlay);
         recyclerView = view.findViewById(R.id.recyclerAttractionsGrid);
@@ -79,68 +76,62 @@ public class AttractionsFragment extends Fragment implements AttractionGridAdapt
         adapter = new AttractionGridAdapter(this);
         recyclerView.setLayoutManager(new GridLayoutManager(getContext(), 2));
         recyclerView.setAdapter(adapter);
+        filterPipeline = new FilterPipeline<>(this::createQuery, Attraction::getAttractionId, (attractions, diff) -> {
+            tvEmptyState.setVisibility(attractions.isEmpty() ? View.VISIBLE : View.GONE);
+            adapter.submitFiltered(attractions, diff);
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        filterPipeline.cancel();
     }
 
     private void setupSearchAndFilters() {
         etSearch.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-            @Override public void onTextChanged(CharSequence s, int start, int before, int count) { applyFilters(); }
+            @Override public void onTextChanged(CharSequence s, int start, int before, int count) { filterPipeline.refresh(); }
             @Override public void afterTextChanged(Editable s) {}
         });
 
-        chipGroupDistance.setOnCheckedChangeListener((group, checkedId) -> applyFilters());
+        chipGroupDistance.setOnCheckedChangeListener((group, checkedId) -> filterPipeline.refreshNow());
     }
 
     private void loadAttractions() {
         showLoading(true);
-        db.collection("attractions")
-                .whereEqualTo("visible", true)
-                .get()
-                .addOnSuccessListener(snap -> {
+        // Renders cached attractions immediately; called again only if the server copy differs
+        Catalog.attractions().loadCacheFirst(attractions -> {
+                    if (!isAdded()) return;
+                    // Catalog keeps attractions sorted by distanceKM
                     allAttractions.clear();
-                    for (DocumentSnapshot doc : snap) {
-                        try {
-                            Attraction a = doc.toObject(Attraction.class);
-                            if (a != null && a.isVisible()) {
-                                allAttractions.add(a);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing attraction doc: " + doc.getId(), e);
-                        }
-                    }
-                    allAttractions.sort((a1, a2) -> Double.compare(a1.getDistanceKM(), a2.getDistanceKM()));
-                    applyFilters();
+                    allAttractions.addAll(attractions);
+                    filterPipeline.refreshNow();
                     showLoading(false);
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Failed to load attractions", e);
+                    if (!isAdded()) return;
                     showLoading(false);
                 });
     }
 
-    private void applyFilters() {
+    private FilterPipeline.Query<Attraction> createQuery() {
         String query = etSearch.getText() != null ? etSearch.getText().toString().trim().toLowerCase(Locale.getDefault()) : "";
         int checkedId = chipGroupDistance.getCheckedChipId();
-
-        filteredAttractions.clear();
-        for (Attraction a : allAttractions) {
-            if (!matchesSearch(a, query)) continue;
-            if (!matchesDistance(a, checkedId)) continue;
-            filteredAttractions.add(a);
-        }
-
-        tvEmptyState.setVisibility(filteredAttractions.isEmpty() ? View.VISIBLE : View.GONE);
-        adapter.updateAttractions(filteredAttractions);
+        List<Attraction> source = new ArrayList<>(allAttractions);
+        return cancellation -> FilterPipeline.where(source,
+                a -> matchesSearch(a, query) && matchesDistance(a, checkedId), cancellation);
     }
 
-    private boolean matchesSearch(Attraction a, String query) {
+    private static boolean matchesSearch(Attraction a, String query) {
         if (query.isEmpty()) return true;
         String name = a.getName() != null ? a.getName().toLowerCase(Locale.getDefault()) : "";
         String desc = a.getDescription() != null ? a.getDescription().toLowerCase(Locale.getDefault()) : "";
         return name.contains(query) || desc.contains(query);
     }
 
-    private boolean matchesDistance(Attraction a, int checkedId) {
+    private static boolean matchesDistance(Attraction a, int checkedId) {
         double d = a.getDistanceKM();
         if (checkedId == View.NO_ID) return true; // All
         if (checkedId == R.id.chipUnder1) {
@@ -1,119 +1,377 @@
 package com.example.luxevista;
 
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
 import com.google.firebase.Timestamp;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * The stay being booked.
+ *
+ * Selections are immutable and indexed: rooms by id, services by (service, time), so picking the
+ * same service slot twice adds to one line instead of creating a second one. Every change runs
+ * under the cart's lock, updates running subtotals in minor units and publishes a new immutable
+ * {@link Priced} snapshot before the lock is released; readers on any thread (adapters, the
+ * confirmation transaction) use {@link #getPriced()} without locking, and observers get each
+ * snapshot on the main thread. A snapshot copies only the rooms or services side that changed and
+ * shares the other with the previous one.
+ */
 public class BookingCart {
-    public static class RoomSelection {
-        public String roomId;
-        public String name;
-        public double pricePerNight;
-        public int quantity;
+    public static final class RoomSelection {
+        public final String roomId;
+        public final String name;
+        public final double pricePerNight;
+        public final long pricePerNightMinor;
+        public final int quantity;
         public RoomSelection(String roomId, String name, double pricePerNight, int quantity) {
             this.roomId = roomId;
             this.name = name;
             this.pricePerNight = pricePerNight;
+            this.pricePerNightMinor = Money.toMinor(pricePerNight);
             this.quantity = quantity;
         }
+
+        public RoomSelection withQuantity(int quantity) {
+            return new RoomSelection(roomId, name, pricePerNight, quantity);
+        }
+
+        long nightlyMinor() {
+            return pricePerNightMinor * quantity;
+        }
     }
 
-    public static class ServiceSelection {
-        public String serviceId;
-        public String name;
-        public double price;
-        public int quantity;
-        public Timestamp scheduledAt; // precise time chosen
+    public static final class ServiceSelection {
+        public final String serviceId;
+        public final String name;
+        public final double price;
+        public final long priceMinor;
+        public final int quantity;
+        public final Timestamp scheduledAt; // precise time chosen
         public ServiceSelection(String serviceId, String name, double price, int quantity, Timestamp scheduledAt) {
             this.serviceId = serviceId;
             this.name = name;
             this.price = price;
+            this.priceMinor = Money.toMinor(price);
             this.quantity = quantity;
             this.scheduledAt = scheduledAt;
         }
+
+        public ServiceSelection withQuantity(int quantity) {
+            return new ServiceSelection(serviceId, name, price, quantity, scheduledAt);
+        }
+
+        /** One line per service and time; the same slot picked again merges into it. */
+        String slotKey() {
+            return serviceId + "@" + (scheduledAt != null ? scheduledAt.toDate().getTime() : 0L);
+        }
+
+        long subtotalMinor() {
+            return priceMinor * quantity;
+        }
     }
 
+    /** Immutable, fully priced view of the cart at one point in time. */
+    public static final class Priced {
+        /** Increases with every change, so observers can skip snapshots they have already shown. */
+        public final long version;
+        public final Timestamp checkIn;
+        public final Timestamp checkOut;
+        public final String currency;
+        public final int nights;
+        public final List<RoomSelection> rooms;
+        public final List<ServiceSelection> services;
+        public final long roomsSubtotalMinor;
+        public final long servicesSubtotalMinor;
+        public final long totalMinor;
+        private final Map<String, RoomSelection> roomsById;
+        private final Map<String, List<ServiceSelection>> servicesById;
+        private final Map<String, Integer> serviceQuantities;
+
+        /** Called under the cart's lock; sides not in {@code changed} are taken from {@code previous}. */
+        private Priced(BookingCart cart, long version, @Nullable Priced previous, int changed) {
+            this.version = version;
+            checkIn = cart.checkIn;
+            checkOut = cart.checkOut;
+            currency = cart.currency;
+            nights = cart.getNights();
+            if (previous == null || (changed & ROOMS) != 0) {
+                rooms = Collections.unmodifiableList(new ArrayList<>(cart.rooms.values()));
+                roomsById = Collections.unmodifiableMap(new HashMap<>(cart.rooms));
+            } else {
+                rooms = previous.rooms;
+                roomsById = previous.roomsById;
+            }
+            if (previous == null || (changed & SERVICES) != 0) {
+                services = Collections.unmodifiableList(new ArrayList<>(cart.services.values()));
+                Map<String, List<ServiceSelection>> byId = new HashMap<>();
+                for (Map.Entry<String, List<ServiceSelection>> entry : cart.servicesById.entrySet()) {
+                    byId.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+                }
+                servicesById = Collections.unmodifiableMap(byId);
+                serviceQuantities = Collections.unmodifiableMap(new HashMap<>(cart.serviceQuantities));
+            } else {
+                services = previous.services;
+                servicesById = previous.servicesById;
+                serviceQuantities = previous.serviceQuantities;
+            }
+            roomsSubtotalMinor = cart.roomsNightlyMinor * nights;
+            servicesSubtotalMinor = cart.servicesMinor;
+            totalMinor = roomsSubtotalMinor + servicesSubtotalMinor;
+        }
+
+        public long subtotalMinor(RoomSelection room) {
+            return room.nightlyMinor() * nights;
+        }
+
+        public long subtotalMinor(ServiceSelection service) {
+            return service.subtotalMinor();
+        }
+
+        public boolean isEmpty() {
+            return rooms.isEmpty() && services.isEmpty();
+        }
+
+        public int roomQuantity(String roomId) {
+            RoomSelection selection = roomsById.get(roomId);
+            return selection != null ? selection.quantity : 0;
+        }
+
+        /** Total booked across every time picked for the service. */
+        public int serviceQuantity(String serviceId) {
+            Integer quantity = serviceQuantities.get(serviceId);
+            return quantity != null ? quantity : 0;
+        }
+
+        public List<ServiceSelection> servicesFor(String serviceId) {
+            List<ServiceSelection> selections = servicesById.get(serviceId);
+            return selections != null ? selections : Collections.<ServiceSelection>emptyList();
+        }
+    }
+
+    public interface Listener {
+        void onCartChanged(Priced cart);
+    }
+
+    // Which sides of the cart a change touched, so a snapshot copies only those
+    private static final int DATES = 0;
+    private static final int ROOMS = 1;
+    private static final int SERVICES = 2;
+
     private static BookingCart instance;
 
-    public static BookingCart getInstance() {
+    public static synchronized BookingCart getInstance() {
         if (instance == null) instance = new BookingCart();
         return instance;
     }
 
-    private BookingCart() {}
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
-    public Timestamp checkIn;
-    public Timestamp checkOut;
-    public String currency = "USD";
+    // Guarded by this
+    private Timestamp checkIn;
+    private Timestamp checkOut;
+    private String currency = "USD";
+    private final Map<String, RoomSelection> rooms = new LinkedHashMap<>();
+    private final Map<String, ServiceSelection> services = new LinkedHashMap<>(); // by slot key
+    private final Map<String, List<ServiceSelection>> servicesById = new HashMap<>();
+    private final Map<String, Integer> serviceQuantities = new HashMap<>();
+    // Running totals: rooms per night (nights applied when priced) and services
+    private long roomsNightlyMinor;
+    private long servicesMinor;
+    private long version;
 
-    public final Map<String, RoomSelection> roomSelections = new HashMap<>();
-    public final List<ServiceSelection> serviceSelections = new ArrayList<>();
+    private volatile Priced priced;
 
-    public void clear() {
-        checkIn = null;
-        checkOut = null;
-        roomSelections.clear();
-        serviceSelections.clear();
+    private BookingCart() {
+        priced = new Priced(this, 0L, null, ROOMS | SERVICES);
     }
 
-    public int getNights() {
-        if (checkIn == null || checkOut == null) return 0;
-        long ms = checkOut.toDate().getTime() - checkIn.toDate().getTime();
-        return (int) Math.max(0, Math.round(ms / (1000.0 * 60 * 60 * 24)));
+    /** The current cart, priced. Safe from any thread; the snapshot never changes. */
+    public Priced getPriced() {
+        return priced;
     }
 
-    public double getRoomsSubtotal() {
-        int nights = getNights();
-        double total = 0;
-        for (RoomSelection r : roomSelections.values()) {
-            total += r.pricePerNight * nights * r.quantity;
+    /** Starts delivering snapshots on the main thread; the current one is delivered right away. */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        listener.onCartChanged(priced);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setDates(Timestamp checkIn, Timestamp checkOut) {
+        Priced snapshot;
+        synchronized (this) {
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            snapshot = publishLocked(DATES);
+        }
+        deliver(snapshot);
+    }
+
+    public void setCurrency(String currency) {
+        Priced snapshot;
+        synchronized (this) {
+            this.currency = currency;
+            snapshot = publishLocked(DATES);
+        }
+        deliver(snapshot);
+    }
+
+    /** Adds the room, replacing any earlier selection of the same room. */
+    public void putRoom(RoomSelection selection) {
+        Priced snapshot;
+        synchronized (this) {
+            replaceRoom(rooms.get(selection.roomId), selection);
+            snapshot = publishLocked(ROOMS);
         }
-        return total;
+        deliver(snapshot);
     }
 
-    public double getServicesSubtotal() {
-        double total = 0;
-        for (ServiceSelection s : serviceSelections) {
-            total += s.price * s.quantity;
+    public void setRoomQuantity(String roomId, int quantity) {
+        Priced snapshot;
+        synchronized (this) {
+            RoomSelection current = rooms.get(roomId);
+            if (current == null) return;
+            replaceRoom(current, quantity > 0 ? current.withQuantity(quantity) : null);
+            snapshot = publishLocked(ROOMS);
         }
-        return total;
+        deliver(snapshot);
     }
 
-    public double getTotal() { return getRoomsSubtotal() + getServicesSubtotal(); }
+    public void removeRoom(String roomId) {
+        Priced snapshot;
+        synchronized (this) {
+            RoomSelection removed = rooms.get(roomId);
+            if (removed == null) return;
+            replaceRoom(removed, null);
+            snapshot = publishLocked(ROOMS);
+        }
+        deliver(snapshot);
+    }
 
-    public double calculateTotalPrice() {
-        double total = 0.0;
-        
-        // Add room costs
-        for (RoomSelection roomSel : roomSelections.values()) {
-            total += roomSel.quantity * roomSel.pricePerNight * getNights();
+    /** Adds the service; a slot already in the cart gets the extra quantity instead of a new line. */
+    public void addService(ServiceSelection selection) {
+        Priced snapshot;
+        synchronized (this) {
+            ServiceSelection existing = services.get(selection.slotKey());
+            if (existing != null) {
+                replaceService(existing, existing.withQuantity(existing.quantity + selection.quantity));
+            } else {
+                replaceService(null, selection);
+            }
+            snapshot = publishLocked(SERVICES);
         }
-        
-        // Add service costs
-        for (ServiceSelection selection : serviceSelections) {
-            total += selection.quantity * selection.price;
+        deliver(snapshot);
+    }
+
+    public void removeService(ServiceSelection selection) {
+        Priced snapshot;
+        synchronized (this) {
+            ServiceSelection existing = services.get(selection.slotKey());
+            if (existing == null) return;
+            replaceService(existing, null);
+            snapshot = publishLocked(SERVICES);
         }
-        
-        return total;
+        deliver(snapshot);
     }
 
-    public int getRoomQuantity(String roomId) {
-        RoomSelection selection = roomSelections.get(roomId);
-        return selection != null ? selection.quantity : 0;
+    private void replaceRoom(RoomSelection previous, RoomSelection next) {
+        if (previous != null) {
+            // Replacing keeps the room's position
+            if (next == null) rooms.remove(previous.roomId);
+            roomsNightlyMinor -= previous.nightlyMinor();
+        }
+        if (next != null) {
+            rooms.put(next.roomId, next);
+            roomsNightlyMinor += next.nightlyMinor();
+        }
     }
 
-    public int getServiceQuantity(String serviceId) {
-        int total = 0;
-        for (ServiceSelection selection : serviceSelections) {
-            if (selection.serviceId.equals(serviceId)) {
-                total += selection.quantity;
+    private void replaceService(ServiceSelection previous, ServiceSelection next) {
+        if (previous != null) {
+            // A merge puts the new line under the same key, keeping its position
+            if (next == null) services.remove(previous.slotKey());
+            List<ServiceSelection> sameService = servicesById.get(previous.serviceId);
+            sameService.remove(previous);
+            if (sameService.isEmpty()) servicesById.remove(previous.serviceId);
+            servicesMinor -= previous.subtotalMinor();
+            adjustServiceQuantity(previous.serviceId, -previous.quantity);
+        }
+        if (next != null) {
+            services.put(next.slotKey(), next);
+            List<ServiceSelection> sameService = servicesById.get(next.serviceId);
+            if (sameService == null) {
+                sameService = new ArrayList<>();
+                servicesById.put(next.serviceId, sameService);
             }
+            sameService.add(next);
+            servicesMinor += next.subtotalMinor();
+            adjustServiceQuantity(next.serviceId, next.quantity);
         }
-        return total;
     }
-}
 
+    private void adjustServiceQuantity(String serviceId, int delta) {
+        Integer current = serviceQuantities.get(serviceId);
+        int updated = (current != null ? current : 0) + delta;
+        if (updated > 0) serviceQuantities.put(serviceId, updated);
+        else serviceQuantities.remove(serviceId);
+    }
+
+    public void clear() {
+        Priced snapshot;
+        synchronized (this) {
+            checkIn = null;
+            checkOut = null;
+            rooms.clear();
+            services.clear();
+            servicesById.clear();
+            serviceQuantities.clear();
+            roomsNightlyMinor = 0L;
+            servicesMinor = 0L;
+            snapshot = publishLocked(ROOMS | SERVICES);
+        }
+        deliver(snapshot);
+    }
+
+    private synchronized int getNights() {
+        if (checkIn == null || checkOut == null) return 0;
+        long ms = checkOut.toDate().getTime() - checkIn.toDate().getTime();
+        return (int) Math.max(0, Math.round(ms / (1000.0 * 60 * 60 * 24)));
+    }
+
+    /** Swaps in a snapshot of the new state; call under the lock, in the same block as the change. */
+    private Priced publishLocked(int changed) {
+        Priced snapshot = new Priced(this, ++version, priced, changed);
+        priced = snapshot;
+        return snapshot;
+    }
 
+    /** Tells observers about a published snapshot on the main thread; call outside the lock. */
+    private void deliver(Priced snapshot) {
+        if (listeners.isEmpty()) return;
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            notifyListeners(snapshot);
+        } else {
+            mainHandler.post(() -> notifyListeners(snapshot));
+        }
+    }
+
+    private void notifyListeners(Priced snapshot) {
+        // A later change may already be queued; only the newest snapshot is worth rendering
+        if (snapshot != priced) return;
+        for (Listener listener : listeners) listener.onCartChanged(snapshot);
+    }
+}
@@ -17,13 +17,14 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
+import com.example.luxevista.data.AvailabilityStore;
+import com.example.luxevista.models.DateKeys;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.SetOptions;
 
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -72,34 +73,35 @@ public class BookingConfirmationFragment extends Fragment {
     }
 
     private void bindCart() {
-        BookingCart cart = BookingCart.getInstance();
+        BookingCart.Priced cart = BookingCart.getInstance().getPriced();
         String dates = DateFormat.format("MMM d, yyyy 2:00 PM", cart.checkIn != null ? cart.checkIn.toDate() : new java.util.Date())
                 + "  -  " + DateFormat.format("MMM d, yyyy 11:00 AM", cart.checkOut != null ? cart.checkOut.toDate() : new java.util.Date());
         tvDates.setText(dates);
-        tvTotal.setText(String.format(Locale.US, "$%.2f", cart.getTotal()));
+        tvTotal.setText(Money.format(cart.totalMinor));
         ((ModernBreakdownAdapter) recyclerBreakdown.getAdapter()).setData(cart);
     }
 
     private List<String> getNightsKeys(Timestamp checkIn, Timestamp checkOut) {
-        java.text.SimpleDateFormat api = new java.text.SimpleDateFormat("yyyy-MM-dd", Locale.US);
         List<String> days = new ArrayList<>();
+        int night = DateKeys.epochDay(checkIn.toDate());
         Calendar c = Calendar.getInstance();
         c.setTime(checkIn.toDate());
         while (c.getTime().before(checkOut.toDate())) {
-            days.add(api.format(c.getTime()));
+            days.add(DateKeys.dateKey(night++));
             c.add(Calendar.DATE, 1);
         }
         return days;
     }
 
     private void finalizeBooking() {
-        BookingCart cart = BookingCart.getInstance();
+        // Price and book one immutable snapshot, even if the cart changes while the transaction runs
+        BookingCart.Priced cart = BookingCart.getInstance().getPriced();
         if (cart.checkIn == null || cart.checkOut == null) {
             Snackbar.make(requireView(), "Please select dates first", Snackbar.LENGTH_LONG).show();
             return;
         }
         // Require at least one room (services alone are not allowed)
-        if (cart.roomSelections.isEmpty()) {
+        if (cart.rooms.isEmpty()) {
             Snackbar.make(requireView(), "Please select at least one room", Snackbar.LENGTH_LONG).show();
             return;
         }
@@ -111,26 +113,31 @@ public class BookingConfirmationFragment extends Fragment {
         booking.put("endDate", cart.checkOut);
         booking.put("status", "confirmed");
         booking.put("currency", cart.currency);
-        booking.put("totalPrice", cart.getTotal());
+        booking.put("totalPrice", Money.toMajor(cart.totalMinor));
         booking.put("createdAt", Timestamp.now());
 
+        // Line items carry their display name and thumbnail so the bookings screens need no follow-up reads
         List<Map<String, Object>> rooms = new ArrayList<>();
-        int nights = cart.getNights();
-        for (BookingCart.RoomSelection r : cart.roomSelections.values()) {
+        Map<String, Map<String, Object>> roomRows = new HashMap<>();
+        int nights = cart.nights;
+        for (BookingCart.RoomSelection r : cart.rooms) {
             Map<String, Object> row = new HashMap<>();
             row.put("roomId", r.roomId);
+            row.put("roomName", r.name);
             row.put("quantity", r.quantity);
             row.put("pricePerNight", r.pricePerNight);
             row.put("nights", nights);
-            row.put("subTotal", r.pricePerNight * nights * r.quantity);
+            row.put("subTotal", Money.toMajor(cart.subtotalMinor(r)));
             rooms.add(row);
+            roomRows.put(r.roomId, row);
         }
         booking.put("rooms", rooms);
 
         List<Map<String, Object>> services = new ArrayList<>();
-        for (BookingCart.ServiceSelection s : cart.serviceSelections) {
+        for (BookingCart.ServiceSelection s : cart.services) {
             Map<String, Object> row = new HashMap<>();
             row.put("serviceId", s.serviceId);
+            row.put("serviceName", s.name);
             row.put("date", s.scheduledAt);
             row.put("price", s.price);
             row.put("quantity", s.quantity);
@@ -144,78 +151,66 @@ public class BookingConfirmationFragment extends Fragment {
         List<DocumentReference> roomRefs = new ArrayList<>();
         List<DocumentReference> serviceRefs = new ArrayList<>();
         
-        for (BookingCart.RoomSelection r : cart.roomSelections.values()) {
+        for (BookingCart.RoomSelection r : cart.rooms) {
             roomRefs.add(db.collection("rooms").document(r.roomId));
         }
         
-        for (BookingCart.ServiceSelection s : cart.serviceSelections) {
+        for (BookingCart.ServiceSelection s : cart.services) {
             serviceRefs.add(db.collection("services").document(s.serviceId));
         }
 
         // Read all documents first
         db.runTransaction(trx -> {
-            // READ PHASE: Read all room documents
+            AvailabilityStore.ShardWriter shards = new AvailabilityStore.ShardWriter(db, trx);
+
+            // READ PHASE: Read all room documents and the booking counters for the stay
             Map<String, DocumentSnapshot> roomSnapshots = new HashMap<>();
             for (DocumentReference roomRef : roomRefs) {
                 roomSnapshots.put(roomRef.getId(), trx.get(roomRef));
+                shards.readRoom(roomRef.getId(), nightsKeys);
             }
             
-            // READ PHASE: Read all service documents
+            // READ PHASE: Read all service documents and the booking counter for each service slot
             Map<String, DocumentSnapshot> serviceSnapshots = new HashMap<>();
-            for (DocumentReference serviceRef : serviceRefs) {
-                serviceSnapshots.put(serviceRef.getId(), trx.get(serviceRef));
+            for (int i = 0; i < serviceRefs.size(); i++) {
+                DocumentReference serviceRef = serviceRefs.get(i);
+                if (!serviceSnapshots.containsKey(serviceRef.getId())) {
+                    serviceSnapshots.put(serviceRef.getId(), trx.get(serviceRef));
+                }
+                java.util.Date scheduledAt = cart.services.get(i).scheduledAt.toDate();
+                shards.readServiceSlot(serviceRef.getId(), DateKeys.dateKey(scheduledAt), DateKeys.timeKey(scheduledAt));
             }
             
-            // WRITE PHASE: Update all room availability
-            for (BookingCart.RoomSelection r : cart.roomSelections.values()) {
-                DocumentReference roomRef = db.collection("rooms").document(r.roomId);
+            // VALIDATE + WRITE PHASE: Book every night of the stay, within capacity
+            for (BookingCart.RoomSelection r : cart.rooms) {
                 DocumentSnapshot snap = roomSnapshots.get(r.roomId);
-                Map<String, Object> data = snap.getData();
-                if (data == null) data = new HashMap<>();
-                Map<String, Object> avail = (Map<String, Object>) data.get("availability");
-                if (avail == null) avail = new HashMap<>();
+                roomRows.get(r.roomId).put("imageUrl", firstImageUrl(snap));
+                // Legacy per-document map only seeds nights neither counter nor shard has seen yet
+                Map<String, Object> legacy = (Map<String, Object>) snap.get("availability");
+                long capacity = AvailabilityStore.roomCapacity(snap);
                 for (String d : nightsKeys) {
-                    long booked = 0L;
-                    Object raw = avail.get(d);
-                    if (raw instanceof Number) booked = ((Number) raw).longValue();
-                    avail.put(d, booked + r.quantity);
+                    long legacyBooked = 0L;
+                    Object raw = legacy != null ? legacy.get(d) : null;
+                    if (raw instanceof Number) legacyBooked = ((Number) raw).longValue();
+                    shards.bookRoomNight(r.roomId, d, r.quantity, legacyBooked, capacity);
                 }
-                data.put("availability", avail);
-                trx.set(roomRef, data, SetOptions.merge());
             }
 
-            // WRITE PHASE: Update all service availability (nested date -> time -> booked count)
-            for (BookingCart.ServiceSelection s : cart.serviceSelections) {
-                DocumentReference sRef = db.collection("services").document(s.serviceId);
+            // VALIDATE + WRITE PHASE: Book each service slot (date -> time -> booked count), within capacity
+            for (int i = 0; i < cart.services.size(); i++) {
+                BookingCart.ServiceSelection s = cart.services.get(i);
                 DocumentSnapshot snap = serviceSnapshots.get(s.serviceId);
-                Map<String, Object> data = snap.getData();
-                if (data == null) data = new HashMap<>();
-                Map<String, Object> avail = (Map<String, Object>) data.get("availability");
-                if (avail == null) avail = new HashMap<>();
-
-                java.text.SimpleDateFormat apiDay = new java.text.SimpleDateFormat("yyyy-MM-dd", Locale.US);
-                java.text.SimpleDateFormat apiTime = new java.text.SimpleDateFormat("HH:mm", Locale.US);
-                String dayKey = apiDay.format(s.scheduledAt.toDate());
-                String timeKey = apiTime.format(s.scheduledAt.toDate());
-
-                // Get nested map for the day
-                Object dayRaw = avail.get(dayKey);
-                Map<String, Object> timesMap;
-                if (dayRaw instanceof Map) {
-                    timesMap = (Map<String, Object>) dayRaw;
-                } else {
-                    timesMap = new HashMap<>();
-                }
-
-                long booked = 0L;
-                Object raw = timesMap.get(timeKey);
-                if (raw instanceof Number) booked = ((Number) raw).longValue();
-                timesMap.put(timeKey, booked + s.quantity);
-
-                avail.put(dayKey, timesMap);
-                data.put("availability", avail);
-                trx.set(sRef, data, SetOptions.merge());
+                services.get(i).put("imageUrl", firstImageUrl(snap));
+
+                String dayKey = DateKeys.dateKey(s.scheduledAt.toDate());
+                String timeKey = DateKeys.timeKey(s.scheduledAt.toDate());
+                Map<String, Object> legacy = (Map<String, Object>) snap.get("availability");
+                Object legacyDay = legacy != null ? legacy.get(dayKey) : null;
+                shards.bookServiceSlot(s.serviceId, dayKey, timeKey, s.quantity,
+                        legacyDay instanceof Map ? (Map<?, ?>) legacyDay : null,
+                        AvailabilityStore.slotCapacity(snap, timeKey));
             }
+            shards.write();
 
             // WRITE PHASE: Create the booking document
             DocumentReference bookingRef = db.collection("bookings").document();
@@ -230,10 +225,25 @@ public class BookingConfirmationFragment extends Fragment {
             androidx.navigation.NavController nav = androidx.navigation.Navigation.findNavController(requireView());
             nav.navigate(R.id.action_bookingConfirmation_to_bookingsFragment);
         }).addOnFailureListener(e -> {
+            if (e instanceof AvailabilityStore.SoldOutException) {
+                Snackbar.make(requireView(), "Sorry, part of your selection was just booked by someone else. "
+                        + "Please review your dates and try again.", Snackbar.LENGTH_LONG).show();
+                return;
+            }
             Snackbar.make(requireView(), "Failed: " + e.getMessage(), Snackbar.LENGTH_LONG).show();
         });
     }
 
+    @Nullable
+    private static String firstImageUrl(DocumentSnapshot snap) {
+        Object raw = snap.get("imageUrls");
+        if (raw instanceof List && !((List<?>) raw).isEmpty()) {
+            Object first = ((List<?>) raw).get(0);
+            if (first instanceof String) return (String) first;
+        }
+        return null;
+    }
+
     /** Modern breakdown adapter with custom layout showing rooms and services with images, dates, and prices */
     static class ModernBreakdownAdapter extends RecyclerView.Adapter<ModernBreakdownAdapter.ViewHolder> {
         private final List<BreakdownItem> items = new ArrayList<>();
@@ -242,15 +252,15 @@ public class BookingConfirmationFragment extends Fragment {
             String name;
             String details;
             String dateTime;
-            double price;
+            long priceMinor;
             String imageUrl;
             String type; // "room" or "service"
 
-            BreakdownItem(String name, String details, String dateTime, double price, String imageUrl, String type) {
+            BreakdownItem(String name, String details, String dateTime, long priceMinor, String imageUrl, String type) {
                 this.name = name;
                 this.details = details;
                 this.dateTime = dateTime;
-                this.price = price;
+                this.priceMinor = priceMinor;
                 this.imageUrl = imageUrl;
                 this.type = type;
             }
@@ -287,7 +297,7 @@ public class BookingConfirmationFragment extends Fragment {
             holder.tvItemName.setText(item.name);
             holder.tvItemDetails.setText(item.details);
             holder.tvItemDate.setText(item.dateTime);
-            holder.tvItemPrice.setText(String.format(Locale.US, "$%.2f", item.price));
+            holder.tvItemPrice.setText(Money.format(item.priceMinor));
 
             // Load image if available, otherwise use type-specific placeholder with tint
             if (item.imageUrl != null && !item.imageUrl.isEmpty()) {
@@ -303,15 +313,15 @@ public class BookingConfirmationFragment extends Fragment {
         @Override
         public int getItemCount() { return items.size(); }
 
-        void setData(BookingCart cart) {
+        void setData(BookingCart.Priced cart) {
             items.clear();
-            int nights = cart.getNights();
+            int nights = cart.nights;
             
             // Rooms
-            for (BookingCart.RoomSelection r : cart.roomSelections.values()) {
-                double sub = r.pricePerNight * nights * r.quantity;
+            for (BookingCart.RoomSelection r : cart.rooms) {
+                long sub = cart.subtotalMinor(r);
                 String details = String.format(Locale.US, "Quantity: %d × %d nights", r.quantity, nights);
-                String dateTime = String.format(Locale.US, "%d nights @ $%.2f/night", nights, r.pricePerNight);
+                String dateTime = String.format(Locale.US, "%d nights @ %s/night", nights, Money.format(r.pricePerNightMinor));
                 
                 // Get room image from Firestore if available
                 String imageUrl = null; // Will be populated if we have room data
@@ -321,8 +331,8 @@ public class BookingConfirmationFragment extends Fragment {
             
             // Services
             java.text.SimpleDateFormat fmt = new java.text.SimpleDateFormat("MMM d, yyyy HH:mm", Locale.US);
-            for (BookingCart.ServiceSelection s : cart.serviceSelections) {
-                double sub = s.price * s.quantity;
+            for (BookingCart.ServiceSelection s : cart.services) {
+                long sub = cart.subtotalMinor(s);
                 String details = String.format(Locale.US, "Quantity: %d", s.quantity);
                 String when = s.scheduledAt != null ? fmt.format(s.scheduledAt.toDate()) : "";
                 
@@ -19,6 +19,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
+import com.example.luxevista.data.ItemNameResolver;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentSnapshot;
@@ -26,6 +27,7 @@ import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -165,51 +167,13 @@ public class BookingDetailsFragment extends Fragment {
     private void fetchItemNames() {
         if (booking == null) return;
         
-        // Fetch room names
-        if (booking.getRooms() != null) {
-            for (NewBooking.RoomBooking room : booking.getRooms()) {
-                db.collection("rooms")
-                        .document(room.getRoomId())
-                        .get()
-                        .addOnSuccessListener(documentSnapshot -> {
-                            if (documentSnapshot.exists()) {
-                                String roomName = documentSnapshot.getString("name");
-                                if (roomName != null && !roomName.isEmpty()) {
-                                    room.setRoomName(roomName);
-                                }
-                            }
-                            displayRooms();
-                        })
-                        .addOnFailureListener(e -> {
-                            displayRooms();
-                        });
-            }
-        } else {
-            displayRooms();
-        }
-        
-        // Fetch service names
-        if (booking.getServices() != null) {
-            for (NewBooking.ServiceBooking service : booking.getServices()) {
-                db.collection("services")
-                        .document(service.getServiceId())
-                        .get()
-                        .addOnSuccessListener(documentSnapshot -> {
-                            if (documentSnapshot.exists()) {
-                                String serviceName = documentSnapshot.getString("name");
-                                if (serviceName != null && !serviceName.isEmpty()) {
-                                    service.setServiceName(serviceName);
-                                }
-                            }
-                            displayServices();
-                        })
-                        .addOnFailureListener(e -> {
-                            displayServices();
-                        });
-            }
-        } else {
-            displayServices();
-        }
+        // Names already resolved by the bookings list come straight from the shared cache
+        ItemNameResolver.resolveBookingNames(Collections.singletonList(booking))
+                .addOnCompleteListener(task -> {
+                    if (!isAdded()) return;
+                    displayRooms();
+                    displayServices();
+                });
     }
     
     private void displayRooms() {
@@ -250,8 +214,8 @@ public class BookingDetailsFragment extends Fragment {
         TextView tvRoomDetails = roomView.findViewById(R.id.tvRoomDetails);
         TextView tvRoomPrice = roomView.findViewById(R.id.tvRoomPrice);
         
-        // Set room image (placeholder for now)
-        ivRoomImage.setImageResource(R.drawable.ic_rooms);
+        // Set room image (denormalized on the booking; placeholder for older bookings)
+        ImageUtils.loadItemImageWithFallback(ivRoomImage, room.getImageUrl(), "room");
         
         // Set room name
         String roomName = room.getRoomName();
@@ -278,8 +242,8 @@ public class BookingDetailsFragment extends Fragment {
         TextView tvServiceDetails = serviceView.findViewById(R.id.tvServiceDetails);
         TextView tvServicePrice = serviceView.findViewById(R.id.tvServicePrice);
         
-        // Set service image (placeholder for now)
-        ivServiceImage.setImageResource(R.drawable.ic_services);
+        // Set service image (denormalized on the booking; placeholder for older bookings)
+        ImageUtils.loadItemImageWithFallback(ivServiceImage, service.getImageUrl(), "service");
         
         // Set service name
         String serviceName = service.getServiceName();
@@ -22,14 +22,21 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.BookingRoomsAdapter;
 import com.example.luxevista.BookingServicesAdapter;
+import com.example.luxevista.data.AvailabilityStore;
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.data.FlexibleDateSearch;
+import com.example.luxevista.data.LiveCollection;
+import com.example.luxevista.data.RoomAllocator;
+import com.example.luxevista.models.Amenity;
+import com.example.luxevista.models.DateKeys;
 import com.example.luxevista.models.Room;
 import com.example.luxevista.models.Service;
 import com.google.android.material.datepicker.CalendarConstraints;
 import com.google.android.material.datepicker.MaterialDatePicker;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.example.luxevista.ImageUtils;
 
@@ -43,7 +50,7 @@ import java.util.Locale;
 public class BookingFlowFragment extends Fragment {
 
     private TextView tvCheckIn, tvCheckOut, tvServiceDate;
-    private Button btnSelectDates, btnConfirm, btnSelectServiceDate;
+    private Button btnSelectDates, btnConfirm, btnSelectServiceDate, btnSuggestRooms;
     private RecyclerView recyclerRooms, recyclerServices;
     private LinearLayout selectedItemsSection, selectedRoomsContainer, selectedServicesContainer;
     private LinearLayout selectedRoomsList, selectedServicesList;
@@ -51,6 +58,8 @@ public class BookingFlowFragment extends Fragment {
 
     private BookingRoomsAdapter roomsAdapter;
     private BookingServicesAdapter servicesAdapter;
+    private final BookingCart.Listener cartListener = this::onCartChanged;
+    private long flexibleDatesOfferedFor = -1L;
 
     private FirebaseFirestore db;
     private FirebaseAuth auth;
@@ -59,7 +68,16 @@ public class BookingFlowFragment extends Fragment {
     private Date checkOutDate;
     private Date selectedServiceDate; // optional pre-selection used in service dialog default
 
-    private final SimpleDateFormat apiDate = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+    // Selected stay as an epoch-day range, derived from checkInDate/checkOutDate
+    private Date stayFrom, stayTo;
+    private int stayFirstNight, stayNights;
+
+    // Realtime availability; subscribed when dates are first chosen, released with the view
+    private LiveCollection<Room> liveRooms;
+    private LiveCollection<Service> liveServices;
+    // Booked counts live in per-month shards; only the months of the current stay are watched
+    private final AvailabilityStore.Watcher roomShards = new AvailabilityStore.Watcher(AvailabilityStore.KIND_ROOM);
+    private final AvailabilityStore.Watcher serviceShards = new AvailabilityStore.Watcher(AvailabilityStore.KIND_SERVICE);
 
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
@@ -87,15 +105,15 @@ public class BookingFlowFragment extends Fragment {
         // Only show placeholders initially
         togglePlaceholders(true);
         
-        updateSelectedItemsSection();
+        BookingCart.getInstance().addListener(cartListener);
 
         return view;
     }
     
     private void checkForPrefilledData() {
-        BookingCart cart = BookingCart.getInstance();
+        BookingCart.Priced cart = BookingCart.getInstance().getPriced();
         Log.d("BookingFlow", "Checking for pre-filled data. Cart has dates: " + (cart.checkIn != null && cart.checkOut != null));
-        Log.d("BookingFlow", "Cart has rooms: " + cart.roomSelections.size() + ", services: " + cart.serviceSelections.size());
+        Log.d("BookingFlow", "Cart has rooms: " + cart.rooms.size() + ", services: " + cart.services.size());
         
         // Check if we have pre-filled dates
         if (cart.checkIn != null && cart.checkOut != null) {
@@ -121,35 +139,37 @@ public class BookingFlowFragment extends Fragment {
         }
         
         // Check if we have pre-filled items
-        if (!cart.roomSelections.isEmpty() || !cart.serviceSelections.isEmpty()) {
-            Log.d("BookingFlow", "Updating selected items section for pre-filled items");
-            // Update the selected items section
-            updateSelectedItemsSection();
-            
-            // Update adapters to show selected items
-            updateAdaptersForPrefilledItems();
+        if (!cart.isEmpty()) {
+            Log.d("BookingFlow", "Updating adapters for pre-filled items");
+            updateAdaptersForPrefilledItems(cart);
         }
     }
     
-    private void updateAdaptersForPrefilledItems() {
-        BookingCart cart = BookingCart.getInstance();
-        
+    private void updateAdaptersForPrefilledItems(BookingCart.Priced cart) {
         // Update room adapter selections
-        for (String roomId : cart.roomSelections.keySet()) {
-            roomsAdapter.setSelectedRoom(roomId);
+        for (BookingCart.RoomSelection roomSel : cart.rooms) {
+            roomsAdapter.setSelectedRoom(roomSel.roomId);
         }
         
         // Update service adapter selections
-        for (BookingCart.ServiceSelection serviceSel : cart.serviceSelections) {
+        for (BookingCart.ServiceSelection serviceSel : cart.services) {
             servicesAdapter.setSelectedService(serviceSel.serviceId);
         }
     }
 
+    /** Re-renders whatever depends on the cart; called on the main thread for every change. */
+    private void onCartChanged(BookingCart.Priced cart) {
+        updateSelectedItemsSection(cart);
+        roomsAdapter.setCart(cart);
+        servicesAdapter.setCart(cart);
+    }
+
     private void initViews(View view) {
         tvCheckIn = view.findViewById(R.id.tvCheckIn);
         tvCheckOut = view.findViewById(R.id.tvCheckOut);
         btnSelectDates = view.findViewById(R.id.btnSelectDates);
         btnConfirm = view.findViewById(R.id.btnConfirm);
+        btnSuggestRooms = view.findViewById(R.id.btnSuggestRooms);
         recyclerRooms = view.findViewById(R.id.recyclerRooms);
         recyclerServices = view.findViewById(R.id.recyclerServices);
     // Service date selector
@@ -180,8 +200,7 @@ public class BookingFlowFragment extends Fragment {
         recyclerServices.setLayoutManager(new GridLayoutManager(getContext(), 2));
 
         roomsAdapter = new BookingRoomsAdapter(room -> {
-            List<String> nights = getNightsInclusive();
-            int maxQty = getMinRemaining(room, nights);
+            int maxQty = getMinRemaining(room);
             showRoomDetailsDialog(room, Math.max(0, maxQty));
         });
         recyclerRooms.setAdapter(roomsAdapter);
@@ -196,8 +215,7 @@ public class BookingFlowFragment extends Fragment {
             new BookingServicesAdapter.OnServiceClickListener() {
                 @Override
                 public void onServiceClick(Service service) {
-                    List<String> nights = getNightsInclusive();
-                    int maxQty = getMinRemaining(service, nights);
+                    int maxQty = getMinRemaining(service);
                     showServiceDetailsDialog(service, Math.max(0, maxQty));
                 }
             }
@@ -208,6 +226,7 @@ public class BookingFlowFragment extends Fragment {
     private void setupClickListeners() {
         btnSelectDates.setOnClickListener(v -> openDateRangePicker());
         btnConfirm.setOnClickListener(v -> goToConfirmation());
+        btnSuggestRooms.setOnClickListener(v -> askPartySize());
         if (btnSelectServiceDate != null) {
             btnSelectServiceDate.setOnClickListener(v -> openServiceDatePicker());
         }
@@ -228,84 +247,229 @@ public class BookingFlowFragment extends Fragment {
             calIn.set(Calendar.HOUR_OF_DAY, 14); // 2 PM check-in
             calIn.set(Calendar.MINUTE, 0);
             calIn.set(Calendar.SECOND, 0);
-            checkInDate = calIn.getTime();
 
             Calendar calOut = Calendar.getInstance();
             calOut.setTimeInMillis(range.second);
             calOut.set(Calendar.HOUR_OF_DAY, 11); // 11 AM checkout per requirement
             calOut.set(Calendar.MINUTE, 0);
             calOut.set(Calendar.SECOND, 0);
-            checkOutDate = calOut.getTime();
-
-            tvCheckIn.setText("Check-in: " + DateFormat.format("MMM d, yyyy 2:00 PM", checkInDate));
-            tvCheckOut.setText("Check-out: " + DateFormat.format("MMM d, yyyy 11:00 AM", checkOutDate));
-            reloadListsForDates();
+            applyStayDates(calIn.getTime(), calOut.getTime());
         });
         picker.show(getParentFragmentManager(), "date_range");
     }
 
-    private List<String> getNightsInclusive() {
-        List<String> days = new ArrayList<>();
-        if (checkInDate == null || checkOutDate == null) return days;
+    private void applyStayDates(Date checkIn, Date checkOut) {
+        checkInDate = checkIn;
+        checkOutDate = checkOut;
+        // Room subtotals depend on the number of nights
+        BookingCart.getInstance().setDates(new Timestamp(checkInDate), new Timestamp(checkOutDate));
+
+        tvCheckIn.setText("Check-in: " + DateFormat.format("MMM d, yyyy 2:00 PM", checkInDate));
+        tvCheckOut.setText("Check-out: " + DateFormat.format("MMM d, yyyy 11:00 AM", checkOutDate));
+        reloadListsForDates();
+    }
+
+    /** Recomputes the stay as an epoch-day range whenever the selected dates change. */
+    private void updateStayDays() {
+        if (checkInDate == stayFrom && checkOutDate == stayTo) return;
+        stayFrom = checkInDate;
+        stayTo = checkOutDate;
+        stayNights = 0;
+        if (checkInDate == null || checkOutDate == null) return;
 
         Calendar c = Calendar.getInstance();
         c.setTime(checkInDate);
+        stayFirstNight = DateKeys.epochDay(checkInDate);
         while (c.getTime().before(checkOutDate)) { // exclude checkout date
-            days.add(apiDate.format(c.getTime()));
+            stayNights++;
             c.add(Calendar.DATE, 1);
         }
+    }
+
+    private List<String> getNightsInclusive() {
+        updateStayDays();
+        List<String> days = new ArrayList<>(stayNights);
+        for (int i = 0; i < stayNights; i++) days.add(DateKeys.dateKey(stayFirstNight + i));
         return days;
     }
 
-    private int getMinRemaining(Room room, List<String> nights) {
-        int minRemaining = Integer.MAX_VALUE;
-        for (String d : nights) minRemaining = Math.min(minRemaining, room.getRemainingForDate(d));
-        if (minRemaining == Integer.MAX_VALUE) minRemaining = 0;
-        return minRemaining;
+    private int getMinRemaining(Room room) {
+        updateStayDays();
+        return room.getCalendar().minRemaining(stayFirstNight, stayNights);
     }
 
-    private int getMinRemaining(Service service, List<String> nights) {
-        int minRemaining = Integer.MAX_VALUE;
-        for (String d : nights) minRemaining = Math.min(minRemaining, service.getRemainingForDate(d));
-        if (minRemaining == Integer.MAX_VALUE) minRemaining = 0;
-        return minRemaining;
+    private int getMinRemaining(Service service) {
+        updateStayDays();
+        return service.getCalendar().minRemaining(stayFirstNight, stayNights);
     }
 
     private void reloadListsForDates() {
         List<String> nights = getNightsInclusive();
         Log.d("BookingFlow", "Reloading lists for " + nights.size() + " nights: " + nights);
         
-        roomsAdapter.setNightsKeys(nights);
-        servicesAdapter.setNightsKeys(nights);
+        roomsAdapter.setStay(stayFirstNight, stayNights);
+        servicesAdapter.setStay(stayFirstNight, stayNights);
         togglePlaceholders(false);
 
-    db.collection("rooms").whereEqualTo("visible", true).get().addOnSuccessListener(snap -> {
-            List<Room> list = new ArrayList<>();
-            for (DocumentSnapshot doc : snap.getDocuments()) {
-                Room r = doc.toObject(Room.class);
-                if (r == null) continue;
-                boolean ok = true;
-                for (String d : nights) { if (r.getRemainingForDate(d) <= 0) { ok = false; break; } }
-                if (ok) list.add(r);
-            }
-            Log.d("BookingFlow", "Found " + list.size() + " available rooms for selected dates");
-            roomsAdapter.setRooms(list);
-        });
+        // Subscribe once; later date changes only re-filter the in-memory model
+        if (liveRooms == null) {
+            liveRooms = Catalog.watchRooms();
+            liveRooms.start(rooms -> {
+                if (isAdded()) showAvailableRooms(rooms);
+            });
+        } else if (liveRooms.isReady()) {
+            showAvailableRooms(liveRooms.items());
+        }
 
-        db.collection("services").get().addOnSuccessListener(snap -> {
-            List<Service> list = new ArrayList<>();
-            for (DocumentSnapshot doc : snap.getDocuments()) {
-                Service s = doc.toObject(Service.class);
-                if (s == null) continue;
-                boolean ok = false; // at least one day within stay has a free slot
-                for (String d : nights) { if (s.getRemainingForDate(d) > 0) { ok = true; break; } }
-                if (ok) list.add(s);
-            }
-            Log.d("BookingFlow", "Found " + list.size() + " available services for selected dates");
-            servicesAdapter.setServices(list);
+        if (liveServices == null) {
+            liveServices = Catalog.watchServices();
+            liveServices.start(services -> {
+                if (isAdded()) showAvailableServices(services);
+            });
+        } else if (liveServices.isReady()) {
+            showAvailableServices(liveServices.items());
+        }
+
+        roomShards.watch(nights, () -> {
+            if (isAdded() && liveRooms != null && liveRooms.isReady()) showAvailableRooms(liveRooms.items());
+        });
+        serviceShards.watch(nights, () -> {
+            if (isAdded() && liveServices != null && liveServices.isReady()) showAvailableServices(liveServices.items());
         });
     }
 
+    private void showAvailableRooms(List<Room> rooms) {
+        AvailabilityStore.applyToRooms(rooms, roomShards.shards());
+        updateStayDays();
+        List<Room> list = new ArrayList<>();
+        for (Room r : rooms) {
+            // Every night of the stay needs a free room
+            if (r.getCalendar().minRemaining(stayFirstNight, stayNights) > 0) list.add(r);
+        }
+        Log.d("BookingFlow", "Found " + list.size() + " available rooms for selected dates");
+        roomsAdapter.setRooms(list);
+        if (list.isEmpty() && !rooms.isEmpty()) offerFlexibleDates();
+    }
+
+    private void askPartySize() {
+        updateStayDays();
+        if (stayNights <= 0) {
+            Snackbar.make(requireView(), "Select stay dates first", Snackbar.LENGTH_LONG).show();
+            return;
+        }
+        if (liveRooms == null || !liveRooms.isReady()) return;
+        android.widget.NumberPicker picker = new android.widget.NumberPicker(requireContext());
+        picker.setMinValue(1);
+        picker.setMaxValue(RoomAllocator.MAX_GUESTS);
+        picker.setValue(2);
+        new MaterialAlertDialogBuilder(requireContext())
+                .setTitle("How many guests?")
+                .setView(picker)
+                .setPositiveButton("Suggest", (dialog, which) -> suggestRooms(picker.getValue()))
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    /** Fills the cart's rooms with the cheapest free combination that sleeps the whole party. */
+    private void suggestRooms(int guests) {
+        RoomAllocator.Allocation allocation =
+                RoomAllocator.suggest(liveRooms.items(), guests, stayFirstNight, stayNights);
+        if (allocation == null) {
+            Snackbar.make(requireView(), "No combination of free rooms fits " + guests + " guests for these dates",
+                    Snackbar.LENGTH_LONG).show();
+            return;
+        }
+        BookingCart cart = BookingCart.getInstance();
+        for (BookingCart.RoomSelection previous : cart.getPriced().rooms) cart.removeRoom(previous.roomId);
+        for (RoomAllocator.Pick pick : allocation.picks) {
+            cart.putRoom(new BookingCart.RoomSelection(
+                    pick.room.getRoomId(), pick.room.getName(), pick.room.getPricePerNight(), pick.quantity));
+        }
+        Snackbar.make(requireView(), "Rooms for " + guests + " guests: " + Money.format(allocation.totalMinor),
+                Snackbar.LENGTH_LONG).show();
+    }
+
+    /** Sold-out stay: offer the flexible-dates search once per stay rather than on every update. */
+    private void offerFlexibleDates() {
+        long stay = ((long) stayFirstNight << 32) | stayNights;
+        if (stayNights <= 0 || stay == flexibleDatesOfferedFor) return;
+        flexibleDatesOfferedFor = stay;
+        Snackbar.make(requireView(), "No rooms left for these dates", Snackbar.LENGTH_LONG)
+                .setAction("Other dates", v -> findFlexibleDates())
+                .show();
+    }
+
+    private void findFlexibleDates() {
+        if (liveRooms == null || !liveRooms.isReady()) return;
+        int today = DateKeys.epochDay(new Date());
+        int nights = stayNights;
+        FlexibleDateSearch.find(liveRooms.items(), today, FlexibleDateSearch.DEFAULT_HORIZON_DAYS, nights, 1)
+                .addOnCompleteListener(task -> {
+                    if (!isAdded()) return;
+                    if (!task.isSuccessful() || task.getResult().isEmpty()) {
+                        Snackbar.make(requireView(), "No " + nights + "-night stays available in the next "
+                                + FlexibleDateSearch.DEFAULT_HORIZON_DAYS + " days", Snackbar.LENGTH_LONG).show();
+                        return;
+                    }
+                    showFlexibleDates(task.getResult().ranked(), today);
+                });
+    }
+
+    private void showFlexibleDates(List<FlexibleDateSearch.Option> options, int today) {
+        SimpleDateFormat pretty = new SimpleDateFormat("EEE, MMM d", Locale.US);
+        String[] labels = new String[options.size()];
+        for (int i = 0; i < options.size(); i++) {
+            FlexibleDateSearch.Option option = options.get(i);
+            labels[i] = pretty.format(stayDate(option.firstNight, today, 14)) + " – "
+                    + pretty.format(stayDate(option.firstNight + option.nights, today, 11)) + "\n"
+                    + option.room.getName() + " · " + Money.format(option.totalMinor);
+        }
+        new MaterialAlertDialogBuilder(requireContext())
+                .setTitle("Available " + stayNights + "-night stays")
+                .setItems(labels, (dialog, which) -> {
+                    FlexibleDateSearch.Option option = options.get(which);
+                    applyStayDates(stayDate(option.firstNight, today, 14),
+                            stayDate(option.firstNight + option.nights, today, 11));
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    /** Local date-time of an epoch day at the given hour (check-in 14:00, checkout 11:00). */
+    private static Date stayDate(int epochDay, int today, int hourOfDay) {
+        Calendar c = Calendar.getInstance();
+        c.set(Calendar.HOUR_OF_DAY, hourOfDay);
+        c.set(Calendar.MINUTE, 0);
+        c.set(Calendar.SECOND, 0);
+        c.set(Calendar.MILLISECOND, 0);
+        c.add(Calendar.DATE, epochDay - today);
+        return c.getTime();
+    }
+
+    private void showAvailableServices(List<Service> services) {
+        AvailabilityStore.applyToServices(services, serviceShards.shards());
+        updateStayDays();
+        List<Service> list = new ArrayList<>();
+        for (Service s : services) {
+            // At least one day within the stay has a free slot
+            if (s.getCalendar().maxRemaining(stayFirstNight, stayNights) > 0) list.add(s);
+        }
+        Log.d("BookingFlow", "Found " + list.size() + " available services for selected dates");
+        servicesAdapter.setServices(list);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        BookingCart.getInstance().removeListener(cartListener);
+        if (liveRooms != null) liveRooms.stop();
+        if (liveServices != null) liveServices.stop();
+        roomShards.stop();
+        serviceShards.stop();
+        liveRooms = null;
+        liveServices = null;
+    }
+
     private void openServiceDatePicker() {
         List<String> nights = getNightsInclusive();
         if (nights.isEmpty()) {
@@ -411,7 +575,7 @@ public class BookingFlowFragment extends Fragment {
         content.findViewById(R.id.btnApply).setOnClickListener(v -> {
             int qty = (Integer) spnQty.getSelectedItem();
             if (qty > 0) {
-                BookingCart.getInstance().roomSelections.put(room.getRoomId(), new BookingCart.RoomSelection(
+                BookingCart.getInstance().putRoom(new BookingCart.RoomSelection(
                         room.getRoomId(), room.getName(), room.getPricePerNight(), qty
                 ));
                 
@@ -419,7 +583,6 @@ public class BookingFlowFragment extends Fragment {
                 roomsAdapter.setSelectedRoom(room.getRoomId());
                 
                 Snackbar.make(requireView(), "Added " + room.getName() + " to booking", Snackbar.LENGTH_SHORT).show();
-                updateSelectedItemsSection();
             }
             ((android.app.AlertDialog) v.getTag()).dismiss();
         });
@@ -461,7 +624,6 @@ public class BookingFlowFragment extends Fragment {
         List<String> nightKeys = getNightsInclusive();
         List<Date> nightDates = new ArrayList<>();
         List<String> dateLabels = new ArrayList<>();
-        SimpleDateFormat api = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
         SimpleDateFormat pretty = new SimpleDateFormat("EEE, MMM d", Locale.US);
         Calendar c = Calendar.getInstance();
         c.setTime(checkInDate != null ? checkInDate : new Date());
@@ -482,7 +644,7 @@ public class BookingFlowFragment extends Fragment {
         int preSel = 0;
         if (selectedServiceDate != null) {
             for (int i = 0; i < nightDates.size(); i++) {
-                if (api.format(nightDates.get(i)).equals(api.format(selectedServiceDate))) { preSel = i; break; }
+                if (DateKeys.epochDay(nightDates.get(i)) == DateKeys.epochDay(selectedServiceDate)) { preSel = i; break; }
             }
         }
         if (!nightDates.isEmpty()) spnDate.setSelection(preSel);
@@ -492,7 +654,7 @@ public class BookingFlowFragment extends Fragment {
         Runnable refreshTimes = () -> {
             int idx = spnDate.getSelectedItemPosition();
             if (idx < 0 || idx >= nightDates.size()) return;
-            String dateKey = api.format(nightDates.get(idx));
+            String dateKey = DateKeys.dateKey(nightDates.get(idx));
             List<String> times = service.getAvailableTimesForDate(dateKey);
             spnTime.setAdapter(new ArrayAdapter<>(getContext(), android.R.layout.simple_spinner_dropdown_item, times));
             // Trigger qty refresh
@@ -501,7 +663,7 @@ public class BookingFlowFragment extends Fragment {
         refreshQty[0] = () -> {
             int idx = spnDate.getSelectedItemPosition();
             if (idx < 0 || idx >= nightDates.size()) return;
-            String dateKey = api.format(nightDates.get(idx));
+            String dateKey = DateKeys.dateKey(nightDates.get(idx));
             String time = spnTime.getSelectedItem() != null ? spnTime.getSelectedItem().toString() : null;
             List<Integer> qtyOptions = new ArrayList<>();
             int remaining = 0;
@@ -537,7 +699,7 @@ public class BookingFlowFragment extends Fragment {
                 cSel.set(Calendar.HOUR_OF_DAY, Integer.parseInt(hh[0]));
                 cSel.set(Calendar.MINUTE, 0);
                 cSel.set(Calendar.SECOND, 0);
-                BookingCart.getInstance().serviceSelections.add(new BookingCart.ServiceSelection(
+                BookingCart.getInstance().addService(new BookingCart.ServiceSelection(
                         service.getServiceId(), service.getName(), service.getPrice(), qty, new Timestamp(cSel.getTime())
                 ));
                 
@@ -545,7 +707,6 @@ public class BookingFlowFragment extends Fragment {
                 servicesAdapter.setSelectedService(service.getServiceId());
                 
                 Snackbar.make(requireView(), "Added " + service.getName() + " to booking", Snackbar.LENGTH_SHORT).show();
-                updateSelectedItemsSection();
             }
             ((android.app.AlertDialog) v.getTag()).dismiss();
         });
@@ -557,14 +718,8 @@ public class BookingFlowFragment extends Fragment {
 
     private void displayRoomAmenities(LinearLayout container, Room room) {
         container.removeAllViews();
-        if (room.getAmenities() == null) return;
-        
-        String[] amenityKeys = {"wifi", "airConditioning", "television", "roomService", "nonSmoking", 
-                               "wheelchairAccessible", "balcony", "oceanView", "kingBed", "coffeeMaker", 
-                               "miniBar", "safe", "jacuzzi"};
-        String[] amenityNames = {"WiFi", "Air Conditioning", "TV", "Room Service", "Non-Smoking", 
-                                "Wheelchair Accessible", "Balcony", "Ocean View", "King Bed", "Coffee Maker", 
-                                "Mini Bar", "Safe", "Jacuzzi"};
+        long mask = room.getAmenityMask();
+        if (mask == 0L) return;
         
         LinearLayout row = new LinearLayout(getContext());
         row.setOrientation(LinearLayout.HORIZONTAL);
@@ -573,8 +728,8 @@ public class BookingFlowFragment extends Fragment {
         int itemsPerRow = 2;
         int count = 0;
         
-        for (int i = 0; i < amenityKeys.length; i++) {
-            if (room.hasAmenity(amenityKeys[i])) {
+        for (Amenity item : Amenity.ALL) {
+            if (item.isIn(mask)) {
                 if (count > 0 && count % itemsPerRow == 0) {
                     container.addView(row);
                     row = new LinearLayout(getContext());
@@ -583,7 +738,7 @@ public class BookingFlowFragment extends Fragment {
                 }
                 
                 TextView amenity = new TextView(getContext());
-                amenity.setText("• " + amenityNames[i]);
+                amenity.setText("• " + item.label);
                 amenity.setTextColor(getResources().getColor(R.color.text_primary));
                 amenity.setTextSize(12);
                 amenity.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
@@ -597,10 +752,9 @@ public class BookingFlowFragment extends Fragment {
         }
     }
 
-    private void updateSelectedItemsSection() {
-        BookingCart cart = BookingCart.getInstance();
-        boolean hasRooms = !cart.roomSelections.isEmpty();
-        boolean hasServices = !cart.serviceSelections.isEmpty();
+    private void updateSelectedItemsSection(BookingCart.Priced priced) {
+        boolean hasRooms = !priced.rooms.isEmpty();
+        boolean hasServices = !priced.services.isEmpty();
         
         if (hasRooms || hasServices) {
             selectedItemsSection.setVisibility(View.VISIBLE);
@@ -608,7 +762,7 @@ public class BookingFlowFragment extends Fragment {
             // Update rooms section
             if (hasRooms) {
                 selectedRoomsContainer.setVisibility(View.VISIBLE);
-                updateSelectedRoomsList();
+                updateSelectedRoomsList(priced);
             } else {
                 selectedRoomsContainer.setVisibility(View.GONE);
             }
@@ -616,39 +770,34 @@ public class BookingFlowFragment extends Fragment {
             // Update services section
             if (hasServices) {
                 selectedServicesContainer.setVisibility(View.VISIBLE);
-                updateSelectedServicesList();
+                updateSelectedServicesList(priced);
             } else {
                 selectedServicesContainer.setVisibility(View.GONE);
             }
             
-            // Update total
-            updateEstimatedTotal();
+            tvEstimatedTotal.setText(Money.format(priced.totalMinor));
         } else {
             selectedItemsSection.setVisibility(View.GONE);
         }
     }
 
-    private void updateSelectedRoomsList() {
+    private void updateSelectedRoomsList(BookingCart.Priced priced) {
         selectedRoomsList.removeAllViews();
-        BookingCart cart = BookingCart.getInstance();
-        
-        for (BookingCart.RoomSelection roomSel : cart.roomSelections.values()) {
-            View roomItem = createRoomItemView(roomSel);
+        for (BookingCart.RoomSelection roomSel : priced.rooms) {
+            View roomItem = createRoomItemView(priced, roomSel);
             selectedRoomsList.addView(roomItem);
         }
     }
 
-    private void updateSelectedServicesList() {
+    private void updateSelectedServicesList(BookingCart.Priced priced) {
         selectedServicesList.removeAllViews();
-        BookingCart cart = BookingCart.getInstance();
-        
-        for (BookingCart.ServiceSelection serviceSel : cart.serviceSelections) {
-            View serviceItem = createServiceItemView(serviceSel);
+        for (BookingCart.ServiceSelection serviceSel : priced.services) {
+            View serviceItem = createServiceItemView(priced, serviceSel);
             selectedServicesList.addView(serviceItem);
         }
     }
 
-    private View createRoomItemView(BookingCart.RoomSelection roomSel) {
+    private View createRoomItemView(BookingCart.Priced priced, BookingCart.RoomSelection roomSel) {
         View itemView = LayoutInflater.from(getContext()).inflate(R.layout.item_selected_item, null);
         
         // Set room icon with proper tint
@@ -660,26 +809,22 @@ public class BookingFlowFragment extends Fragment {
         TextView tvItemName = itemView.findViewById(R.id.tvItemName);
         TextView tvItemPrice = itemView.findViewById(R.id.tvItemPrice);
         
-        int nights = getNumberOfNights();
-        double subtotal = roomSel.quantity * roomSel.pricePerNight * nights;
-        
-        tvItemName.setText(roomSel.name + " × " + roomSel.quantity + " (" + nights + " nights)");
-        tvItemPrice.setText(String.format(Locale.US, "$%.2f", subtotal));
+        tvItemName.setText(roomSel.name + " × " + roomSel.quantity + " (" + priced.nights + " nights)");
+        tvItemPrice.setText(Money.format(priced.subtotalMinor(roomSel)));
         
         // Setup remove button
         Button btnRemove = itemView.findViewById(R.id.btnRemove);
         btnRemove.setOnClickListener(v -> {
-            BookingCart.getInstance().roomSelections.remove(roomSel.roomId);
+            BookingCart.getInstance().removeRoom(roomSel.roomId);
             // Clear the room selection in the adapter
             roomsAdapter.clearSelection();
-            updateSelectedItemsSection();
             Snackbar.make(requireView(), "Removed " + roomSel.name, Snackbar.LENGTH_SHORT).show();
         });
         
         return itemView;
     }
 
-    private View createServiceItemView(BookingCart.ServiceSelection serviceSel) {
+    private View createServiceItemView(BookingCart.Priced priced, BookingCart.ServiceSelection serviceSel) {
         View itemView = LayoutInflater.from(getContext()).inflate(R.layout.item_selected_item, null);
         
         // Set service icon with proper tint
@@ -691,55 +836,23 @@ public class BookingFlowFragment extends Fragment {
         TextView tvItemName = itemView.findViewById(R.id.tvItemName);
         TextView tvItemPrice = itemView.findViewById(R.id.tvItemPrice);
         
-        double subtotal = serviceSel.quantity * serviceSel.price;
         String timeStr = DateFormat.format("MMM d, h:mm a", serviceSel.scheduledAt.toDate()).toString();
         
         tvItemName.setText(serviceSel.name + " × " + serviceSel.quantity + " @ " + timeStr);
-        tvItemPrice.setText(String.format(Locale.US, "$%.2f", subtotal));
+        tvItemPrice.setText(Money.format(priced.subtotalMinor(serviceSel)));
         
         // Setup remove button
         Button btnRemove = itemView.findViewById(R.id.btnRemove);
         btnRemove.setOnClickListener(v -> {
-            BookingCart.getInstance().serviceSelections.remove(serviceSel);
+            BookingCart.getInstance().removeService(serviceSel);
             // Clear the service selection in the adapter
             servicesAdapter.clearSelection();
-            updateSelectedItemsSection();
             Snackbar.make(requireView(), "Removed " + serviceSel.name, Snackbar.LENGTH_SHORT).show();
         });
         
         return itemView;
     }
 
-    private void updateEstimatedTotal() {
-        BookingCart cart = BookingCart.getInstance();
-        double total = 0.0;
-        
-        // Calculate rooms total
-        int nights = getNumberOfNights();
-        for (BookingCart.RoomSelection roomSel : cart.roomSelections.values()) {
-            total += roomSel.quantity * roomSel.pricePerNight * nights;
-        }
-        
-        // Calculate services total
-        for (BookingCart.ServiceSelection serviceSel : cart.serviceSelections) {
-            total += serviceSel.quantity * serviceSel.price;
-        }
-        
-        tvEstimatedTotal.setText(String.format(Locale.US, "$%.2f", total));
-    }
-
-    private int getNumberOfNights() {
-        if (checkInDate == null || checkOutDate == null) return 0;
-        Calendar c = Calendar.getInstance();
-        c.setTime(checkInDate);
-        int nights = 0;
-        while (c.getTime().before(checkOutDate)) {
-            nights++;
-            c.add(Calendar.DATE, 1);
-        }
-        return nights;
-    }
-
     private void goToConfirmation() {
         if (checkInDate == null || checkOutDate == null) {
             Snackbar.make(requireView(), "Select dates first", Snackbar.LENGTH_LONG).show();
@@ -749,11 +862,10 @@ public class BookingFlowFragment extends Fragment {
         BookingCart cart = BookingCart.getInstance();
         
         // Update cart with current dates if they've changed
-        cart.checkIn = new Timestamp(checkInDate);
-        cart.checkOut = new Timestamp(checkOutDate);
+        cart.setDates(new Timestamp(checkInDate), new Timestamp(checkOutDate));
         
         // Require at least one room before proceeding
-        if (cart.roomSelections.isEmpty()) {
+        if (cart.getPriced().rooms.isEmpty()) {
             Snackbar.make(requireView(), "Please select at least one room", Snackbar.LENGTH_LONG).show();
             return;
         }
@@ -20,7 +20,12 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.luxevista.data.BookingBackfill;
+import com.example.luxevista.data.FilterPipeline;
+import com.example.luxevista.data.IdentityResolver;
+import com.example.luxevista.data.ItemNameResolver;
 import com.google.android.material.button.MaterialButton;
+import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentSnapshot;
@@ -29,15 +34,12 @@ import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBookingClickListener {
 
     private static final String TAG = "BookingsFragment";
+    private static final int PAGE_SIZE = 20;
     
     // Views
     private EditText searchEditText;
@@ -55,9 +57,16 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
     
     // Data
     private NewBookingAdapter adapter;
+    private FilterPipeline<NewBooking> filterPipeline;
     private List<NewBooking> allBookings = new ArrayList<>();
     private String currentFilter = "All";
     private String currentSearchQuery = "";
+    
+    // Pagination
+    private DocumentSnapshot lastVisible;
+    private boolean hasMorePages = true;
+    private boolean loadingPage = false;
+    private int queryGeneration = 0;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -103,8 +112,19 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
     
     private void setupRecyclerView() {
         adapter = new NewBookingAdapter(this);
+        adapter.setOnNearEndListener(this::loadNextPage);
         recyclerViewBookings.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerViewBookings.setAdapter(adapter);
+        filterPipeline = new FilterPipeline<>(this::createQuery, NewBooking::getBookingId, (bookings, diff) -> {
+            adapter.submitFiltered(bookings, diff);
+            if (loadingLayout.getVisibility() != View.VISIBLE) updateEmptyState();
+        });
+    }
+    
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        filterPipeline.cancel();
     }
     
     private void setupSearchAndFilters() {
@@ -116,7 +136,7 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 currentSearchQuery = s.toString().trim();
-                applyFilters();
+                filterPipeline.refresh();
             }
             
             @Override
@@ -134,9 +154,13 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
     }
     
     private void setFilter(String filter) {
+        if (filter.equals(currentFilter)) return;
         currentFilter = filter;
         updateFilterButtons();
-        applyFilters();
+        // Status filters are server-side queries, so switching reloads from the first page
+        if (currentUserId != null) {
+            loadBookingsWithUserId();
+        }
     }
     
     private void updateFilterButtons() {
@@ -174,11 +198,12 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
         button.setTextColor(Color.parseColor("#007AFF"));
     }
     
-    private void applyFilters() {
-        if (adapter != null) {
-            adapter.filter(currentSearchQuery, currentFilter);
-            updateEmptyState();
-        }
+    private FilterPipeline.Query<NewBooking> createQuery() {
+        String query = currentSearchQuery;
+        String filter = currentFilter;
+        List<NewBooking> source = new ArrayList<>(allBookings);
+        return cancellation -> FilterPipeline.where(source,
+                booking -> NewBookingAdapter.matches(booking, query, filter), cancellation);
     }
     
     private void loadBookings() {
@@ -189,159 +214,116 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
         
         showLoading(true);
         
-        // First, find the custom user ID from the users collection using the current user's email
+        // Custom user ID comes from the local identity cache; only the first visit hits the users collection
         FirebaseUser currentUser = auth.getCurrentUser();
-        if (currentUser == null || currentUser.getEmail() == null) {
-            showError("User email not available");
-            return;
-        }
-        
-        // Look up user by email to get custom user ID
-        String userEmail = currentUser.getEmail();
-        Log.d(TAG, "Looking up user with email: " + userEmail);
-        
-        db.collection("users")
-                .whereEqualTo("email", userEmail)
-                .limit(1)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    Log.d(TAG, "User lookup query returned " + querySnapshot.size() + " documents");
-                    
-                    if (!querySnapshot.isEmpty()) {
-                        // Found user document, let's examine its contents
-                        DocumentSnapshot userDoc = querySnapshot.getDocuments().get(0);
-                        Log.d(TAG, "User document ID: " + userDoc.getId());
-                        Log.d(TAG, "User document data: " + userDoc.getData());
-                        
-                        // Try different field names for the custom user ID
-                        String customUserId = userDoc.getString("uid");
-                        if (customUserId == null) {
-                            customUserId = userDoc.getString("userId");
-                        }
-                        if (customUserId == null) {
-                            customUserId = userDoc.getId(); // Use document ID as fallback
-                        }
-                        
-                        if (customUserId != null) {
-                            currentUserId = customUserId;
-                            Log.d(TAG, "Found custom user ID: " + customUserId + " for email: " + userEmail);
-                            // Now load bookings with the custom user ID
-                            loadBookingsWithUserId();
-                        } else {
-                            Log.e(TAG, "No uid, userId field found in user document, and document ID is null");
-                            showError("User ID not found in profile. Please contact support.");
-                        }
-                    } else {
-                        Log.e(TAG, "No user document found for email: " + userEmail);
-                        // Try alternative approach - look for user document with ID "user01", "user02", etc.
-                        tryDirectUserLookup(userEmail);
-                    }
+        IdentityResolver.get(requireContext()).resolve(currentUser)
+                .addOnSuccessListener(customUserId -> {
+                    if (!isAdded()) return;
+                    currentUserId = customUserId;
+                    loadBookingsWithUserId();
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error looking up user", e);
-                    showError("Failed to load user profile");
-                });
-    }
-    
-    private void tryDirectUserLookup(String userEmail) {
-        Log.d(TAG, "Trying direct user lookup approach for email: " + userEmail);
-        
-        // Extract potential user ID from email (user01@example.com -> user01)
-        String potentialUserId = userEmail.split("@")[0];
-        Log.d(TAG, "Trying direct document lookup with ID: " + potentialUserId);
-        
-        // Try to get document directly by ID
-        db.collection("users")
-                .document(potentialUserId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        Log.d(TAG, "Found user document with direct ID lookup: " + potentialUserId);
-                        Log.d(TAG, "Document data: " + documentSnapshot.getData());
-                        
-                        // Check if email matches
-                        String docEmail = documentSnapshot.getString("email");
-                        if (userEmail.equals(docEmail)) {
-                            currentUserId = potentialUserId;
-                            Log.d(TAG, "Email matches! Using user ID: " + potentialUserId);
-                            loadBookingsWithUserId();
-                        } else {
-                            Log.e(TAG, "Email mismatch. Document email: " + docEmail + ", Expected: " + userEmail);
-                            showError("User profile email mismatch. Please contact support.");
-                        }
+                    if (!isAdded()) return;
+                    if (e instanceof IdentityResolver.ProfileNotFoundException) {
+                        showError(e.getMessage());
                     } else {
-                        Log.e(TAG, "No user document found with ID: " + potentialUserId);
-                        showError("User profile not found in database. Please contact support.");
+                        showError("Failed to load user profile");
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error in direct user lookup", e);
-                    showError("Failed to load user profile");
                 });
     }
     
     private void loadBookingsWithUserId() {
         Log.d(TAG, "Loading bookings for custom user ID: " + currentUserId);
         
-        db.collection("bookings")
-                .whereEqualTo("userId", currentUserId)
+        // Start over from the first page; responses from an earlier filter are dropped
+        queryGeneration++;
+        allBookings.clear();
+        lastVisible = null;
+        hasMorePages = true;
+        loadingPage = false;
+        showLoading(true);
+        loadNextPage();
+    }
+    
+    /** Server-side ordering and status filtering so only one page of history is ever downloaded. */
+    private Query buildBookingsQuery() {
+        Query query = db.collection("bookings").whereEqualTo("userId", currentUserId);
+        Timestamp now = Timestamp.now();
+        switch (currentFilter) {
+            case "Active":
+                // Firestore requires the inequality field to be ordered first
+                return query.whereEqualTo("status", "confirmed")
+                        .whereGreaterThan("endDate", now)
+                        .orderBy("endDate", Query.Direction.ASCENDING);
+            case "Completed":
+                return query.whereEqualTo("status", "confirmed")
+                        .whereLessThan("endDate", now)
+                        .orderBy("endDate", Query.Direction.DESCENDING);
+            case "Cancelled":
+                return query.whereEqualTo("status", "cancelled")
+                        .orderBy("createdAt", Query.Direction.DESCENDING);
+            default:
+                return query.orderBy("createdAt", Query.Direction.DESCENDING);
+        }
+    }
+    
+    private void loadNextPage() {
+        if (loadingPage || !hasMorePages || currentUserId == null) return;
+        loadingPage = true;
+        int generation = queryGeneration;
+        boolean firstPage = lastVisible == null;
+        
+        Query query = buildBookingsQuery();
+        if (lastVisible != null) {
+            query = query.startAfter(lastVisible);
+        }
+        query.limit(PAGE_SIZE)
                 .get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
-                    allBookings.clear();
-                    
-                    Log.d(TAG, "Found " + queryDocumentSnapshots.size() + " bookings for user: " + currentUserId);
+                    if (!isAdded() || generation != queryGeneration) return;
                     
-                    if (queryDocumentSnapshots.isEmpty()) {
-                        Log.d(TAG, "No bookings found for user: " + currentUserId);
-                        showLoading(false);
-                        updateEmptyState();
-                        return;
+                    Log.d(TAG, "Loaded page of " + queryDocumentSnapshots.size() + " bookings for user: " + currentUserId);
+                    hasMorePages = queryDocumentSnapshots.size() == PAGE_SIZE;
+                    if (!queryDocumentSnapshots.isEmpty()) {
+                        lastVisible = queryDocumentSnapshots.getDocuments().get(queryDocumentSnapshots.size() - 1);
                     }
                     
-                    // Counter to track completion of item name fetching
-                    AtomicInteger pendingRequests = new AtomicInteger(queryDocumentSnapshots.size());
-                    
+                    List<NewBooking> page = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         try {
                             NewBooking booking = document.toObject(NewBooking.class);
                             if (booking != null) {
                                 // Set the booking ID from the document ID
                                 booking.setBookingId(document.getId());
-                                
-                                // Fetch item names for rooms and services
-                                fetchItemNames(booking, () -> {
-                                    allBookings.add(booking);
-                                    
-                                    // Check if all requests are completed
-                                    if (pendingRequests.decrementAndGet() == 0) {
-                                        showLoading(false);
-                                        // Sort bookings by creation date (newest first)
-                                        sortBookingsByDate();
-                                        adapter.updateBookings(allBookings);
-                                        applyFilters();
-                                    }
-                                });
-                            } else {
-                                if (pendingRequests.decrementAndGet() == 0) {
-                                    showLoading(false);
-                                    sortBookingsByDate();
-                                    adapter.updateBookings(allBookings);
-                                    applyFilters();
-                                }
+                                page.add(booking);
                             }
                         } catch (Exception e) {
                             Log.e(TAG, "Error parsing booking document", e);
-                            if (pendingRequests.decrementAndGet() == 0) {
-                                showLoading(false);
-                                sortBookingsByDate();
-                                adapter.updateBookings(allBookings);
-                                applyFilters();
-                            }
                         }
                     }
+                    
+                    // Resolve room and service names for the page in one batched pass
+                    ItemNameResolver.resolveBookingNames(page)
+                            .addOnCompleteListener(task -> {
+                                if (!isAdded() || generation != queryGeneration) return;
+                                loadingPage = false;
+                                allBookings.addAll(page);
+                                if (firstPage) {
+                                    showLoading(false);
+                                    backfillLineItems();
+                                }
+                                // A later page diffs to insertions at the end of the list
+                                filterPipeline.refreshNow();
+                            });
                 })
                 .addOnFailureListener(e -> {
+                    if (!isAdded() || generation != queryGeneration) return;
                     Log.e(TAG, "Error loading bookings", e);
+                    loadingPage = false;
+                    if (!firstPage) {
+                        // Keep what is already on screen; the next scroll retries
+                        return;
+                    }
                     showLoading(false);
                     
                     String errorMessage;
@@ -359,89 +341,13 @@ public class BookingsFragment extends Fragment implements NewBookingAdapter.OnBo
                 });
     }
     
-    private void fetchItemNames(NewBooking booking, Runnable onComplete) {
-        AtomicInteger pendingRequests = new AtomicInteger(0);
-        
-        // Count total pending requests
-        if (booking.getRooms() != null) pendingRequests.addAndGet(booking.getRooms().size());
-        if (booking.getServices() != null) pendingRequests.addAndGet(booking.getServices().size());
-        
-        if (pendingRequests.get() == 0) {
-            onComplete.run();
-            return;
-        }
-        
-        // Fetch room names
-        if (booking.getRooms() != null) {
-            for (NewBooking.RoomBooking room : booking.getRooms()) {
-                db.collection("rooms")
-                        .document(room.getRoomId())
-                        .get()
-                        .addOnSuccessListener(documentSnapshot -> {
-                            if (documentSnapshot.exists()) {
-                                String roomName = documentSnapshot.getString("name");
-                                if (roomName != null && !roomName.isEmpty()) {
-                                    room.setRoomName(roomName);
-                                }
-                            }
-                            
-                            if (pendingRequests.decrementAndGet() == 0) {
-                                onComplete.run();
-                            }
-                        })
-                        .addOnFailureListener(e -> {
-                            Log.e(TAG, "Error fetching room name for " + room.getRoomId(), e);
-                            if (pendingRequests.decrementAndGet() == 0) {
-                                onComplete.run();
-                            }
-                        });
-            }
-        }
-        
-        // Fetch service names
-        if (booking.getServices() != null) {
-            for (NewBooking.ServiceBooking service : booking.getServices()) {
-                db.collection("services")
-                        .document(service.getServiceId())
-                        .get()
-                        .addOnSuccessListener(documentSnapshot -> {
-                            if (documentSnapshot.exists()) {
-                                String serviceName = documentSnapshot.getString("name");
-                                if (serviceName != null && !serviceName.isEmpty()) {
-                                    service.setServiceName(serviceName);
-                                }
-                            }
-                            
-                            if (pendingRequests.decrementAndGet() == 0) {
-                                onComplete.run();
-                            }
-                        })
-                        .addOnFailureListener(e -> {
-                            Log.e(TAG, "Error fetching service name for " + service.getServiceId(), e);
-                            if (pendingRequests.decrementAndGet() == 0) {
-                                onComplete.run();
-                            }
-                        });
-            }
-        }
-    }
-    
-    private void sortBookingsByDate() {
-        // Sort bookings by creation date (newest first)
-        Collections.sort(allBookings, new Comparator<NewBooking>() {
-            @Override
-            public int compare(NewBooking booking1, NewBooking booking2) {
-                Date date1 = booking1.getCreatedAtAsDate();
-                Date date2 = booking2.getCreatedAtAsDate();
-
-                if (date1 == null && date2 == null) return 0;
-                if (date1 == null) return 1;
-                if (date2 == null) return -1;
-
-                // Descending order (newest first)
-                return date2.compareTo(date1);
-            }
-        });
+    /** Writes names and thumbnails into this user's older bookings once, so later loads need no lookups. */
+    private void backfillLineItems() {
+        BookingBackfill backfill = new BookingBackfill(requireContext(), currentUserId);
+        if (backfill.isDone()) return;
+        backfill.run()
+                .addOnSuccessListener(updated -> Log.d(TAG, "Backfilled " + updated + " bookings"))
+                .addOnFailureListener(e -> Log.w(TAG, "Booking backfill interrupted, will resume next time", e));
     }
     
     private void showLoading(boolean show) {
@@ -9,6 +9,7 @@ import android.widget.Toast;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.luxevista.data.Catalog;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
@@ -137,10 +138,10 @@ public class EditProfileActivity extends AppCompatActivity {
     }
 
     private void loadRoomTypes() {
-        firestore.collection("rooms").get().addOnSuccessListener(snap -> {
+        Catalog.rooms().load().addOnSuccessListener(this, rooms -> {
             java.util.List<String> names = new java.util.ArrayList<>();
-            for (com.google.firebase.firestore.DocumentSnapshot d : snap) {
-                String name = d.getString("name");
+            for (com.example.luxevista.models.Room r : rooms) {
+                String name = r.getName();
                 if (!TextUtils.isEmpty(name)) names.add(name);
             }
             android.widget.ArrayAdapter<String> adapter = new android.widget.ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, names);
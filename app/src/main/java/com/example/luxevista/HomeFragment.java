@@ -30,6 +30,9 @@ import com.example.luxevista.adapters.FeaturedRoomAdapter;
 import com.example.luxevista.adapters.FeaturedServiceAdapter;
 import com.example.luxevista.adapters.PromotionAdapter;
 import com.example.luxevista.adapters.TestimonialAdapter;
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.data.HomeFeed;
+import com.example.luxevista.data.UserProfileResolver;
 import com.example.luxevista.models.Attraction;
 import com.example.luxevista.models.Promotion;
 import com.example.luxevista.models.Room;
@@ -37,18 +40,11 @@ import com.example.luxevista.models.Service;
 import com.example.luxevista.models.Testimonial;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class HomeFragment extends Fragment implements 
@@ -71,7 +67,6 @@ public class HomeFragment extends Fragment implements
     private com.google.android.material.floatingactionbutton.FloatingActionButton fabStartBooking;
 
     // Firebase
-    private FirebaseFirestore db;
     private FirebaseAuth auth;
 
     // Adapters
@@ -103,7 +98,6 @@ public class HomeFragment extends Fragment implements
         setExitTransition(new Fade());
 
         // Initialize Firebase
-        db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
     }
 
@@ -268,43 +262,44 @@ public class HomeFragment extends Fragment implements
     private void loadAllData() {
         showLoading(true);
 
-        // Use AtomicInteger to track completion of all async operations
-        AtomicInteger pendingOperations = new AtomicInteger(5);
-
-        // Load promotions
-        loadPromotions(() -> {
-            if (pendingOperations.decrementAndGet() == 0) {
-                showLoading(false);
-            }
-        });
-
-        // Load attractions
-        loadAttractions(() -> {
-            if (pendingOperations.decrementAndGet() == 0) {
-                showLoading(false);
-            }
-        });
+        // One read of the precomputed home feed; fall back to the five catalog queries if it is missing
+        AtomicBoolean shown = new AtomicBoolean();
+        HomeFeed.load(feed -> {
+                    if (!isAdded()) return;
+                    showPromotions(feed.promotions);
+                    showAttractions(feed.attractions);
+                    showFeaturedRooms(feed.rooms);
+                    showFeaturedServices(feed.services);
+                    showTestimonials(feed.testimonials);
+                    shown.set(true);
+                    showLoading(false);
+                })
+                .addOnFailureListener(e -> {
+                    if (!isAdded() || shown.get()) return;
+                    Log.w(TAG, "Home feed unavailable, loading sections individually", e);
+                    loadSections();
+                });
+    }
 
-        // Load featured rooms
-        loadFeaturedRooms(() -> {
-            if (pendingOperations.decrementAndGet() == 0) {
-                showLoading(false);
-            }
-        });
+    private void loadSections() {
+        // Use AtomicInteger to track completion of all async operations. Sections render from cache
+        // first and may render again after the server refresh, so each one only counts once.
+        AtomicInteger pendingOperations = new AtomicInteger(5);
 
-        // Load featured services
-        loadFeaturedServices(() -> {
-            if (pendingOperations.decrementAndGet() == 0) {
-                showLoading(false);
-            }
-        });
+        loadPromotions(sectionLoaded(pendingOperations));
+        loadAttractions(sectionLoaded(pendingOperations));
+        loadFeaturedRooms(sectionLoaded(pendingOperations));
+        loadFeaturedServices(sectionLoaded(pendingOperations));
+        loadTestimonials(sectionLoaded(pendingOperations));
+    }
 
-        // Load testimonials
-        loadTestimonials(() -> {
-            if (pendingOperations.decrementAndGet() == 0) {
+    private Runnable sectionLoaded(AtomicInteger pendingOperations) {
+        AtomicBoolean reported = new AtomicBoolean();
+        return () -> {
+            if (reported.compareAndSet(false, true) && pendingOperations.decrementAndGet() == 0) {
                 showLoading(false);
             }
-        });
+        };
     }
 
     private void setupCarousel() {
@@ -379,60 +374,10 @@ public class HomeFragment extends Fragment implements
     }
 
     private void loadPromotions(Runnable onComplete) {
-        Log.d(TAG, "Loading promotions from Firestore...");
-        db.collection("promotions")
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    Log.d(TAG, "Promotions query successful, documents found: " + queryDocumentSnapshots.size());
-                    allPromotions.clear();
-
-                    Date now = new Date();
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Log.d(TAG, "Processing promotion document: " + document.getId());
-                            // Build Promotion manually to avoid type mismatches on startAt/endAt
-                            Promotion p = new Promotion();
-                            p.setPromotionId(document.getString("promotionId"));
-                            p.setTitle(document.getString("title"));
-                            p.setDescription(document.getString("description"));
-                            // handle both imageURL and imageUrl
-                            String imageUrl = document.getString("imageUrl");
-                            if (imageUrl == null) imageUrl = document.getString("imageURL");
-                            if (imageUrl != null) p.setImageUrl(imageUrl);
-                            p.setPromoCode(document.getString("promoCode"));
-                            Object discountRaw = document.get("discountPercent");
-                            if (discountRaw instanceof Number) {
-                                p.setDiscountPercent(((Number) discountRaw).intValue());
-                            } else if (discountRaw instanceof String) {
-                                try { p.setDiscountPercent(Integer.parseInt((String) discountRaw)); } catch (Exception ignored) {}
-                            }
-                            Object targetRaw = document.get("target");
-                            if (targetRaw instanceof java.util.Map) {
-                                //noinspection unchecked
-                                p.setTarget((java.util.Map<String, Object>) targetRaw);
-                            }
-
-                            // Parse dates flexibly
-                            Object startRaw = document.get("startAt");
-                            Object endRaw = document.get("endAt");
-                            Date startDate = parseDateFlexible(startRaw);
-                            Date endDate = parseDateFlexible(endRaw);
-
-                            boolean isActive;
-                            if (startDate != null && endDate != null) {
-                                isActive = !now.before(startDate) && !now.after(endDate);
-                            } else {
-                                isActive = p.isActive();
-                            }
-
-                            if (isActive) { allPromotions.add(p); }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing promotion document: " + document.getId(), e);
-                        }
-                    }
-
-                    promotionAdapter.updatePromotions(allPromotions);
-                    Log.d(TAG, "Loaded " + allPromotions.size() + " active promotions");
+        Log.d(TAG, "Loading promotions from catalog...");
+        Catalog.promotions().loadCacheFirst(promotions -> {
+                    if (!isAdded()) return;
+                    showPromotions(promotions);
                     onComplete.run();
                 })
                 .addOnFailureListener(e -> {
@@ -441,111 +386,23 @@ public class HomeFragment extends Fragment implements
                 });
     }
 
-    private Date parseDateFlexible(Object raw) {
-        if (raw == null) return null;
-        if (raw instanceof com.google.firebase.Timestamp) {
-            return ((com.google.firebase.Timestamp) raw).toDate();
-        }
-        if (raw instanceof String) {
-            String s = (String) raw;
-            String[] patterns = new String[] {
-                    "yyyy-MM-dd'T'HH:mm:ss'Z'",
-                    "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'",
-                    "yyyy-MM-dd'T'HH:mm:ssXXX",
-                    "yyyy-MM-dd'T'HH:mm:ss.SSSXXX"
-            };
-            for (String pattern : patterns) {
-                try {
-                    SimpleDateFormat sdf = new SimpleDateFormat(pattern, Locale.US);
-                    sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-                    return sdf.parse(s);
-                } catch (ParseException ignored) {}
-            }
-        }
-        return null;
-    }
-
     private void loadAttractions(Runnable onComplete) {
-        Log.d(TAG, "Loading attractions from Firestore...");
-        db.collection("attractions")
-                .whereEqualTo("visible", true)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    Log.d(TAG, "Attractions query successful, documents found: " + queryDocumentSnapshots.size());
-                    allAttractions.clear();
-
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            String docId = document.getId();
-                            String attractionId = document.getString("attractionId");
-                            Log.d(TAG, "Processing attraction document: " + docId + ", attractionId field: " + attractionId);
-                            Log.d(TAG, "Document data: " + document.getData());
-
-                            Attraction attraction = document.toObject(Attraction.class);
-                            if (attraction != null) {
-                                // Enhanced debug details
-                                String firstImage = (attraction.getImageUrls() != null && !attraction.getImageUrls().isEmpty()) ? attraction.getImageUrls().get(0) : null;
-                                Log.d(TAG, "Attraction parsed: name=" + attraction.getName()
-                                        + ", visible=" + attraction.isVisible()
-                                        + ", distanceKM=" + attraction.getDistanceKM()
-                                        + ", firstImageUrl=" + firstImage);
-                                if (attraction.isVisible()) {
-                                    allAttractions.add(attraction);
-                                }
-                            } else {
-                                Log.w(TAG, "Attraction object is null for document: " + docId);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing attraction document: " + document.getId(), e);
-                        }
-                    }
-
-                    // Client-side sort by distanceKM ascending to avoid Firestore composite index requirement
-                    allAttractions.sort((a1, a2) -> Double.compare(a1.getDistanceKM(), a2.getDistanceKM()));
-                    // Limit to 10 after sorting if needed
-                    if (allAttractions.size() > 10) {
-                        allAttractions = new ArrayList<>(allAttractions.subList(0, 10));
-                    }
-
-                    attractionAdapter.updateAttractions(allAttractions);
-                    Log.d(TAG, "Loaded " + allAttractions.size() + " attractions (sorted by distanceKM)");
+        Log.d(TAG, "Loading attractions from catalog...");
+        Catalog.attractions().loadCacheFirst(attractions -> {
+                    if (!isAdded()) return;
+                    showAttractions(attractions);
                     onComplete.run();
                 })
                 .addOnFailureListener(e -> {
-                    String message = e.getMessage();
-                    if (message != null && message.contains("FAILED_PRECONDITION")) {
-                        Log.e(TAG, "Attractions query requires an index. Consider client-side sorting (implemented) or create a composite index.");
-                    }
                     Log.e(TAG, "Error loading attractions", e);
                     onComplete.run();
                 });
     }
 
     private void loadFeaturedRooms(Runnable onComplete) {
-        db.collection("rooms")
-                .whereEqualTo("visible", true)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    allRooms.clear();
-
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Room room = document.toObject(Room.class);
-                            if (room != null && room.isVisible()) {
-                                allRooms.add(room);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing room document", e);
-                        }
-                    }
-
-                    // Sort client-side by price
-                    allRooms.sort((r1, r2) -> Double.compare(r1.getPricePerNight(), r2.getPricePerNight()));
-                    // Limit to top 5
-                    List<Room> featured = allRooms.size() > 5 ? new ArrayList<>(allRooms.subList(0, 5)) : new ArrayList<>(allRooms);
-
-                    featuredRoomAdapter.updateRooms(featured);
-                    Log.d(TAG, "Loaded " + featured.size() + " featured rooms");
+        Catalog.rooms().loadCacheFirst(rooms -> {
+                    if (!isAdded()) return;
+                    showFeaturedRooms(rooms);
                     onComplete.run();
                 })
                 .addOnFailureListener(e -> {
@@ -555,26 +412,9 @@ public class HomeFragment extends Fragment implements
     }
 
     private void loadFeaturedServices(Runnable onComplete) {
-        db.collection("services")
-                .orderBy("price", Query.Direction.ASCENDING)
-                .limit(5)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    allServices.clear();
-
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Service service = document.toObject(Service.class);
-                            if (service != null) {
-                                allServices.add(service);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing service document", e);
-                        }
-                    }
-
-                    featuredServiceAdapter.updateServices(allServices);
-                    Log.d(TAG, "Loaded " + allServices.size() + " featured services");
+        Catalog.services().loadCacheFirst(services -> {
+                    if (!isAdded()) return;
+                    showFeaturedServices(services);
                     onComplete.run();
                 })
                 .addOnFailureListener(e -> {
@@ -584,92 +424,11 @@ public class HomeFragment extends Fragment implements
     }
 
     private void loadTestimonials(Runnable onComplete) {
-        Log.d(TAG, "Loading testimonials from Firestore...");
-        db.collection("testimonials")
-                .whereEqualTo("rating", 5)
-                .limit(4)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    Log.d(TAG, "Testimonials query successful, documents found: " + queryDocumentSnapshots.size());
-                    allTestimonials.clear();
-
-                    if (queryDocumentSnapshots.isEmpty()) {
-                        Log.d(TAG, "No testimonials found with rating 5");
-                        onComplete.run();
-                        return;
-                    }
-
-                    AtomicInteger pendingUserLookups = new AtomicInteger(queryDocumentSnapshots.size());
-
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Testimonial testimonial = document.toObject(Testimonial.class);
-                            if (testimonial != null) {
-                                Log.d(TAG, "Processing testimonial: " + testimonial.getComment());
-                                
-                                // Fetch user name from users collection
-                                String userId = testimonial.getUserId();
-                                if (userId != null) {
-                                    db.collection("users").document(userId)
-                                            .get()
-                                            .addOnSuccessListener(userDoc -> {
-                                                if (userDoc.exists()) {
-                                                    String userName = userDoc.getString("name");
-                                                    if (userName != null) {
-                                                        testimonial.setUserName(userName);
-                                                    } else {
-                                                        testimonial.setUserName("Guest User");
-                                                    }
-                                                } else {
-                                                    testimonial.setUserName("Guest User");
-                                                }
-                                                
-                                                allTestimonials.add(testimonial);
-                                                
-                                                if (pendingUserLookups.decrementAndGet() == 0) {
-                                                    testimonialAdapter.updateTestimonials(allTestimonials);
-                                                    Log.d(TAG, "Loaded " + allTestimonials.size() + " testimonials with user names");
-                                                    onComplete.run();
-                                                }
-                                            })
-                                            .addOnFailureListener(e -> {
-                                                Log.e(TAG, "Error fetching user name for userId: " + userId, e);
-                                                testimonial.setUserName("Guest User");
-                                                allTestimonials.add(testimonial);
-                                                
-                                                if (pendingUserLookups.decrementAndGet() == 0) {
-                                                    testimonialAdapter.updateTestimonials(allTestimonials);
-                                                    Log.d(TAG, "Loaded " + allTestimonials.size() + " testimonials");
-                                                    onComplete.run();
-                                                }
-                                            });
-                                } else {
-                                    // No userId, set default name
-                                    testimonial.setUserName("Guest User");
-                                    allTestimonials.add(testimonial);
-                                    
-                                    if (pendingUserLookups.decrementAndGet() == 0) {
-                                        testimonialAdapter.updateTestimonials(allTestimonials);
-                                        Log.d(TAG, "Loaded " + allTestimonials.size() + " testimonials");
-                                        onComplete.run();
-                                    }
-                                }
-                            } else {
-                                if (pendingUserLookups.decrementAndGet() == 0) {
-                                    testimonialAdapter.updateTestimonials(allTestimonials);
-                                    Log.d(TAG, "Loaded " + allTestimonials.size() + " testimonials");
-                                    onComplete.run();
-                                }
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing testimonial document", e);
-                            if (pendingUserLookups.decrementAndGet() == 0) {
-                                testimonialAdapter.updateTestimonials(allTestimonials);
-                                Log.d(TAG, "Loaded " + allTestimonials.size() + " testimonials");
-                                onComplete.run();
-                            }
-                        }
-                    }
+        Log.d(TAG, "Loading testimonials from catalog...");
+        Catalog.testimonials().loadCacheFirst(testimonials -> {
+                    if (!isAdded()) return;
+                    showTestimonials(testimonials);
+                    onComplete.run();
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading testimonials", e);
@@ -677,6 +436,80 @@ public class HomeFragment extends Fragment implements
                 });
     }
 
+    private void showPromotions(List<Promotion> promotions) {
+        allPromotions.clear();
+        for (Promotion p : promotions) {
+            if (p.isActive()) allPromotions.add(p);
+        }
+
+        promotionAdapter.updatePromotions(allPromotions);
+        Log.d(TAG, "Loaded " + allPromotions.size() + " active promotions");
+    }
+
+    private void showAttractions(List<Attraction> attractions) {
+        // Attractions arrive sorted by distanceKM; limit to 10
+        allAttractions = new ArrayList<>(attractions.size() > 10 ? attractions.subList(0, 10) : attractions);
+
+        attractionAdapter.updateAttractions(allAttractions);
+        Log.d(TAG, "Loaded " + allAttractions.size() + " attractions (sorted by distanceKM)");
+    }
+
+    private void showFeaturedRooms(List<Room> rooms) {
+        allRooms = new ArrayList<>(rooms);
+
+        // Rooms arrive sorted by price; limit to top 5
+        List<Room> featured = allRooms.size() > 5 ? new ArrayList<>(allRooms.subList(0, 5)) : new ArrayList<>(allRooms);
+
+        featuredRoomAdapter.updateRooms(featured);
+        Log.d(TAG, "Loaded " + featured.size() + " featured rooms");
+    }
+
+    private void showFeaturedServices(List<Service> services) {
+        // Services arrive ordered by price; limit to top 5
+        allServices = new ArrayList<>(services.size() > 5 ? services.subList(0, 5) : services);
+
+        featuredServiceAdapter.updateServices(allServices);
+        Log.d(TAG, "Loaded " + allServices.size() + " featured services");
+    }
+
+    private void showTestimonials(List<Testimonial> testimonials) {
+        allTestimonials.clear();
+
+        List<Testimonial> topRated = new ArrayList<>();
+        for (Testimonial t : testimonials) {
+            if (t.getRating() == 5) topRated.add(t);
+            if (topRated.size() == 4) break;
+        }
+
+        if (topRated.isEmpty()) {
+            Log.d(TAG, "No testimonials found with rating 5");
+            return;
+        }
+
+        // Render right away; names fill in as the batched user lookup returns
+        List<String> userIds = new ArrayList<>();
+        UserProfileResolver resolver = UserProfileResolver.getInstance();
+        for (Testimonial testimonial : topRated) {
+            // The home feed already carries reviewer names
+            if (testimonial.getUserName() == null) {
+                testimonial.setUserName(resolver.peek(testimonial.getUserId()));
+            }
+            if (testimonial.getUserName() == null) userIds.add(testimonial.getUserId());
+            allTestimonials.add(testimonial);
+        }
+        testimonialAdapter.updateTestimonials(allTestimonials);
+        Log.d(TAG, "Loaded " + allTestimonials.size() + " testimonials");
+        if (userIds.isEmpty()) return;
+
+        resolver.resolve(userIds, names -> {
+            if (!isAdded()) return;
+            testimonialAdapter.applyUserNames(names);
+        }).addOnCompleteListener(task -> {
+            if (!isAdded()) return;
+            testimonialAdapter.fillMissingUserNames("Guest User");
+        });
+    }
+
     private void showLoading(boolean show) {
         if (loadingOverlay != null && mainContent != null) {
             loadingOverlay.setVisibility(show ? View.VISIBLE : View.GONE);
@@ -732,6 +565,7 @@ public class HomeFragment extends Fragment implements
         intent.putExtra("currency", room.getCurrency());
         intent.putExtra("description", room.getDescription());
         intent.putExtra("maxGuests", room.getMaxGuests());
+        intent.putExtra("amenities", room.getAmenityMask());
         if (room.getImageUrls() != null) {
             String[] imageUrls = room.getImageUrls().toArray(new String[0]);
             intent.putExtra("imageUrls", imageUrls);
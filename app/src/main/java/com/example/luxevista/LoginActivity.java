@@ -10,6 +10,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.luxevista.data.IdentityResolver;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseAuthInvalidCredentialsException;
@@ -74,6 +75,8 @@ public class LoginActivity extends AppCompatActivity {
             .addOnCompleteListener(task -> {
                 if (task.isSuccessful()) {
                     Toast.makeText(LoginActivity.this, "Login Successful", Toast.LENGTH_SHORT).show();
+                    // Warm the custom user ID mapping so Bookings opens with a single query
+                    IdentityResolver.get(LoginActivity.this).resolve(mAuth.getCurrentUser());
                     // Navigate to MainActivity
                     startActivity(new Intent(LoginActivity.this, MainActivity.class));
                     finish();
@@ -0,0 +1,26 @@
+package com.example.luxevista;
+
+import android.app.Application;
+
+import com.example.luxevista.data.Catalog;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+
+public class LuxeVistaApp extends Application {
+
+    // On-disk Firestore cache budget; the catalog and recent bookings fit comfortably
+    private static final long FIRESTORE_CACHE_BYTES = 100L * 1024 * 1024;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Must run before anything else touches Firestore
+        FirebaseFirestore.getInstance().setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                        .setSizeBytes(FIRESTORE_CACHE_BYTES)
+                        .build())
+                .build());
+        Catalog.init(this);
+    }
+}
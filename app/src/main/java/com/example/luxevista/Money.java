@@ -0,0 +1,30 @@
+package com.example.luxevista;
+
+import java.util.Locale;
+
+/**
+ * Prices as {@code long} minor units (cents), so sums and per-night multiplications are exact.
+ * Catalog prices arrive from Firestore as doubles and are rounded once, on the way in.
+ */
+public final class Money {
+
+    private static final int MINOR_PER_MAJOR = 100;
+
+    private Money() {}
+
+    public static long toMinor(double amount) {
+        return Math.round(amount * MINOR_PER_MAJOR);
+    }
+
+    /** For Firestore fields that have always been stored as doubles. */
+    public static double toMajor(long minor) {
+        return minor / (double) MINOR_PER_MAJOR;
+    }
+
+    /** "$1234.50"-style text, as shown across the booking screens, without going through floating point. */
+    public static String format(long minor) {
+        String sign = minor < 0 ? "-" : "";
+        long abs = Math.abs(minor);
+        return String.format(Locale.US, "%s$%d.%02d", sign, abs / MINOR_PER_MAJOR, abs % MINOR_PER_MAJOR);
+    }
+}
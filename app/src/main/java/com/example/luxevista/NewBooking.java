@@ -207,7 +207,8 @@ public class NewBooking {
         private double pricePerNight;
         private int nights;
         private double subTotal;
-        private String roomName; // Will be fetched from Firestore
+        private String roomName; // Denormalized at write time; resolved on read for older bookings
+        private String imageUrl; // First room image, denormalized at write time
         
         public RoomBooking() {}
         
@@ -238,6 +239,9 @@ public class NewBooking {
         public String getRoomName() { return roomName; }
         public void setRoomName(String roomName) { this.roomName = roomName; }
         
+        public String getImageUrl() { return imageUrl; }
+        public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+        
         // Get formatted price
         public String getFormattedPrice() {
             return String.format("$%.2f", subTotal);
@@ -258,7 +262,8 @@ public class NewBooking {
         private Timestamp date;
         private double price;
         private int quantity; // Added missing quantity field
-        private String serviceName; // Will be fetched from Firestore
+        private String serviceName; // Denormalized at write time; resolved on read for older bookings
+        private String imageUrl; // First service image, denormalized at write time
         
         public ServiceBooking() {}
         
@@ -285,6 +290,9 @@ public class NewBooking {
         public String getServiceName() { return serviceName; }
         public void setServiceName(String serviceName) { this.serviceName = serviceName; }
         
+        public String getImageUrl() { return imageUrl; }
+        public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+        
         // Get formatted price
         public String getFormattedPrice() {
             return String.format("$%.2f", price * quantity);
@@ -9,6 +9,7 @@ import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -18,9 +19,12 @@ import java.util.Locale;
 
 public class NewBookingAdapter extends RecyclerView.Adapter<NewBookingAdapter.BookingViewHolder> {
     
-    private List<NewBooking> bookings = new ArrayList<>();
-    private List<NewBooking> filteredBookings = new ArrayList<>();
+    private final List<NewBooking> filteredBookings = new ArrayList<>();
     private OnBookingClickListener listener;
+    private Runnable onNearEndListener;
+    
+    // Start fetching the next page this many rows before the end of the list
+    private static final int PREFETCH_DISTANCE = 5;
     
     public interface OnBookingClickListener {
         void onBookingClick(NewBooking booking);
@@ -31,6 +35,11 @@ public class NewBookingAdapter extends RecyclerView.Adapter<NewBookingAdapter.Bo
         this.listener = listener;
     }
     
+    /** Called when a row near the end of the list is bound, so the next page can be prefetched. */
+    public void setOnNearEndListener(Runnable onNearEndListener) {
+        this.onNearEndListener = onNearEndListener;
+    }
+    
     @NonNull
     @Override
     public BookingViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -43,6 +52,10 @@ public class NewBookingAdapter extends RecyclerView.Adapter<NewBookingAdapter.Bo
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
         NewBooking booking = filteredBookings.get(position);
         holder.bind(booking, listener);
+        
+        if (onNearEndListener != null && position >= getItemCount() - PREFETCH_DISTANCE) {
+            onNearEndListener.run();
+        }
     }
     
     @Override
@@ -50,33 +63,25 @@ public class NewBookingAdapter extends RecyclerView.Adapter<NewBookingAdapter.Bo
         return filteredBookings.size();
     }
     
-    public void updateBookings(List<NewBooking> newBookings) {
-        this.bookings.clear();
-        this.bookings.addAll(newBookings);
-        this.filteredBookings.clear();
-        this.filteredBookings.addAll(newBookings);
-        notifyDataSetChanged();
+    /** Shows a filtered list; {@code diff} runs from the list shown before to this one. */
+    public void submitFiltered(List<NewBooking> bookings, DiffUtil.DiffResult diff) {
+        filteredBookings.clear();
+        filteredBookings.addAll(bookings);
+        diff.dispatchUpdatesTo(this);
     }
     
-    public void filter(String query, String filterType) {
-        filteredBookings.clear();
+    /** Search and status filter; safe off the main thread, as the booking's text is fixed once loaded. */
+    static boolean matches(NewBooking booking, String query, String filterType) {
+        boolean matchesQuery = query.isEmpty() || 
+                booking.getDisplayName().toLowerCase().contains(query.toLowerCase()) ||
+                booking.getSummaryText().toLowerCase().contains(query.toLowerCase());
         
-        for (NewBooking booking : bookings) {
-            boolean matchesQuery = query.isEmpty() || 
-                    booking.getDisplayName().toLowerCase().contains(query.toLowerCase()) ||
-                    booking.getSummaryText().toLowerCase().contains(query.toLowerCase());
-            
-            boolean matchesFilter = filterType.equals("All") ||
-                    (filterType.equals("Active") && booking.isActive()) ||
-                    (filterType.equals("Completed") && booking.isCompleted()) ||
-                    (filterType.equals("Cancelled") && booking.isCancelled());
-            
-            if (matchesQuery && matchesFilter) {
-                filteredBookings.add(booking);
-            }
-        }
+        boolean matchesFilter = filterType.equals("All") ||
+                (filterType.equals("Active") && booking.isActive()) ||
+                (filterType.equals("Completed") && booking.isCompleted()) ||
+                (filterType.equals("Cancelled") && booking.isCancelled());
         
-        notifyDataSetChanged();
+        return matchesQuery && matchesFilter;
     }
     
     static class BookingViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,71 @@
+package com.example.luxevista;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Bars above a filter dialog's price slider, one per price bucket, showing how many items each
+ * bucket holds. Buckets inside the selected range use the slider's active colour.
+ */
+public class PriceHistogramView extends View {
+
+    private final Paint inRangePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint outOfRangePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private int[] counts = new int[0];
+    private float selectedFrom = 0f;
+    private float selectedTo = 1f;
+
+    public PriceHistogramView(Context context) {
+        this(context, null);
+    }
+
+    public PriceHistogramView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        inRangePaint.setColor(Color.parseColor("#007AFF"));
+        outOfRangePaint.setColor(Color.parseColor("#E3F2FD"));
+    }
+
+    /** Item counts per bucket, lowest price first. The array is copied. */
+    public void setCounts(int[] counts) {
+        this.counts = counts.clone();
+        invalidate();
+    }
+
+    /** The selected range as fractions of the slider's span. */
+    public void setSelection(float from, float to) {
+        selectedFrom = from;
+        selectedTo = to;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (counts.length == 0) return;
+        int highest = 0;
+        for (int count : counts) highest = Math.max(highest, count);
+        if (highest == 0) return;
+
+        float left = getPaddingLeft();
+        float bottom = getHeight() - getPaddingBottom();
+        float width = getWidth() - left - getPaddingRight();
+        float height = bottom - getPaddingTop();
+        float slot = width / counts.length;
+        float gap = Math.min(slot * 0.2f, 2f * getResources().getDisplayMetrics().density);
+
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] == 0) continue;
+            float barTop = bottom - height * counts[bucket] / highest;
+            float center = (bucket + 0.5f) / counts.length;
+            Paint paint = center >= selectedFrom && center <= selectedTo ? inRangePaint : outOfRangePaint;
+            canvas.drawRect(left + bucket * slot + gap / 2, barTop, left + (bucket + 1) * slot - gap / 2, bottom, paint);
+        }
+    }
+}
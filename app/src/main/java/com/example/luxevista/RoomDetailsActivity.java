@@ -20,6 +20,7 @@ import androidx.viewpager2.widget.ViewPager2;
 
 import com.example.luxevista.adapters.AmenityAdapter;
 import com.example.luxevista.adapters.RoomImageAdapter;
+import com.example.luxevista.models.Amenity;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
@@ -65,7 +66,7 @@ public class RoomDetailsActivity extends AppCompatActivity {
     private double pricePerNight;
     private int maxGuests;
     private String[] imageUrls;
-    private List<AmenityItem> amenities = new ArrayList<>();
+    private long amenityMask; // Amenity bits
 
     // Booking data
     private Calendar checkInCalendar, checkOutCalendar;
@@ -131,8 +132,12 @@ public class RoomDetailsActivity extends AppCompatActivity {
         maxGuests = intent.getIntExtra("maxGuests", 1);
         imageUrls = intent.getStringArrayExtra("imageUrls");
 
-        // Load amenities from room data (you might want to pass this as well or fetch from Firestore)
-        loadAmenitiesFromFirestore();
+        // Lists pass the room's amenity mask; fetch the document only when opened without it
+        if (intent.hasExtra("amenities")) {
+            amenityMask = intent.getLongExtra("amenities", 0L);
+        } else {
+            loadAmenitiesFromFirestore();
+        }
     }
 
     private void setupToolbar() {
@@ -240,13 +245,7 @@ public class RoomDetailsActivity extends AppCompatActivity {
         amenityAdapter = new AmenityAdapter();
         recyclerAmenities.setLayoutManager(new LinearLayoutManager(this));
         recyclerAmenities.setAdapter(amenityAdapter);
-        
-        // Convert AmenityItem list to String list
-        List<String> amenityKeys = new ArrayList<>();
-        for (AmenityItem item : amenities) {
-            amenityKeys.add(item.getKey());
-        }
-        amenityAdapter.updateAmenities(amenityKeys);
+        amenityAdapter.updateAmenities(amenityMask);
     }
 
     private void setupDatePickers() {
@@ -277,12 +276,11 @@ public class RoomDetailsActivity extends AppCompatActivity {
         // Pre-fill the booking cart
         BookingCart cart = BookingCart.getInstance();
         cart.clear(); // Clear any existing selections
-        cart.checkIn = new Timestamp(checkInCalendar.getTime());
-        cart.checkOut = new Timestamp(checkOutCalendar.getTime());
-        cart.currency = currency != null ? currency : "USD";
+        cart.setDates(new Timestamp(checkInCalendar.getTime()), new Timestamp(checkOutCalendar.getTime()));
+        cart.setCurrency(currency != null ? currency : "USD");
         
         // Add the selected room
-        cart.roomSelections.put(roomId, new BookingCart.RoomSelection(
+        cart.putRoom(new BookingCart.RoomSelection(
             roomId, roomName, pricePerNight, 1
         ));
         
@@ -350,26 +348,15 @@ public class RoomDetailsActivity extends AppCompatActivity {
                         return;
                     }
                     Map<String, Object> amenityMap = (Map<String, Object>) documentSnapshot.get("amenities");
-                    if (amenityMap == null) {
-                        // No amenities field
-                        amenityAdapter.updateAmenities(new ArrayList<>());
-                        return;
-                    }
-
-                    amenities.clear();
-                    for (Map.Entry<String, Object> entry : amenityMap.entrySet()) {
-                        if (isTruthy(entry.getValue())) {
-                            String key = entry.getKey();
-                            amenities.add(new AmenityItem(key, getAmenityDisplayName(key)));
+                    long mask = 0L;
+                    if (amenityMap != null) {
+                        for (Map.Entry<String, Object> entry : amenityMap.entrySet()) {
+                            Amenity amenity = Amenity.forKey(entry.getKey());
+                            if (amenity != null && isTruthy(entry.getValue())) mask |= amenity.bit;
                         }
                     }
-
-                    // Push the updated amenity keys into the adapter
-                    List<String> amenityKeys = new ArrayList<>();
-                    for (AmenityItem item : amenities) {
-                        amenityKeys.add(item.getKey());
-                    }
-                    amenityAdapter.updateAmenities(amenityKeys);
+                    amenityMask = mask;
+                    amenityAdapter.updateAmenities(amenityMask);
                 })
                 .addOnFailureListener(e -> Log.e(TAG, "Error loading amenities", e));
     }
@@ -385,25 +372,6 @@ public class RoomDetailsActivity extends AppCompatActivity {
         return false;
     }
 
-    private String getAmenityDisplayName(String amenityKey) {
-        switch (amenityKey) {
-            case "wifi": return "WiFi";
-            case "airConditioning": return "Air Conditioning";
-            case "television": return "Television";
-            case "roomService": return "Room Service";
-            case "nonSmoking": return "Non-Smoking";
-            case "wheelchairAccessible": return "Wheelchair Accessible";
-            case "balcony": return "Balcony";
-            case "oceanView": return "Ocean View";
-            case "kingBed": return "King Bed";
-            case "coffeeMaker": return "Coffee Maker";
-            case "miniBar": return "Mini Bar";
-            case "safe": return "Safe";
-            case "jacuzzi": return "Jacuzzi";
-            default: return amenityKey;
-        }
-    }
-
     private void showCheckInDatePicker() {
         Calendar minDate = Calendar.getInstance();
         
@@ -482,17 +450,4 @@ public class RoomDetailsActivity extends AppCompatActivity {
         
         return true;
     }
-
-    public static class AmenityItem {
-        private final String key;
-        private final String displayName;
-
-        public AmenityItem(String key, String displayName) {
-            this.key = key;
-            this.displayName = displayName;
-        }
-
-        public String getKey() { return key; }
-        public String getDisplayName() { return displayName; }
-    }
 }
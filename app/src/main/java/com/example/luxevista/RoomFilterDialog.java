@@ -1,7 +1,7 @@
 package com.example.luxevista;
 
-import android.app.Dialog;
 import android.content.Context;
+import android.content.DialogInterface;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,13 +9,17 @@ import android.widget.CheckBox;
 import android.widget.LinearLayout;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 
+import com.example.luxevista.data.FacetIndex;
+import com.example.luxevista.models.Amenity;
+import com.example.luxevista.models.Room;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.slider.RangeSlider;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public class RoomFilterDialog {
@@ -30,32 +34,30 @@ public class RoomFilterDialog {
     private List<String> currentSelectedAmenities;
     private final OnFilterAppliedListener listener;
 
+    private static final float MAX_SLIDER_PRICE = 1000f;
+    private static final int HISTOGRAM_BUCKETS = 20;
+
+    // Null when no rooms are known yet; the dialog then shows no counts
+    @Nullable private final FacetIndex facets;
+    private final int[] amenityCounts = new int[Amenity.ALL.size()];
+    private final int[] bucketCounts = new int[HISTOGRAM_BUCKETS];
+
+    private AlertDialog dialog;
     private RangeSlider priceRangeSlider;
+    private PriceHistogramView priceHistogram;
     private LinearLayout amenitiesContainer;
+    private final List<CheckBox> amenityCheckBoxes = new ArrayList<>();
     private final List<String> tempSelectedAmenities = new ArrayList<>();
 
-    private static final List<AmenityItem> AMENITY_ITEMS = Arrays.asList(
-        new AmenityItem("wifi", "WiFi"),
-        new AmenityItem("airConditioning", "Air Conditioning"),
-        new AmenityItem("television", "Television"),
-        new AmenityItem("roomService", "Room Service"),
-        new AmenityItem("nonSmoking", "Non-Smoking"),
-        new AmenityItem("wheelchairAccessible", "Wheelchair Accessible"),
-        new AmenityItem("balcony", "Balcony"),
-        new AmenityItem("oceanView", "Ocean View"),
-        new AmenityItem("kingBed", "King Bed"),
-        new AmenityItem("coffeeMaker", "Coffee Maker"),
-        new AmenityItem("miniBar", "Mini Bar"),
-        new AmenityItem("safe", "Safe"),
-        new AmenityItem("jacuzzi", "Jacuzzi")
-    );
-
+    /** {@code rooms} are counted for the live facet counts; pass null if none are loaded. */
     public RoomFilterDialog(Context context, double minPrice, double maxPrice, 
-                           List<String> selectedAmenities, OnFilterAppliedListener listener) {
+                           List<String> selectedAmenities, @Nullable List<Room> rooms,
+                           OnFilterAppliedListener listener) {
         this.context = context;
         this.currentMinPrice = minPrice;
         this.currentMaxPrice = maxPrice;
         this.currentSelectedAmenities = new ArrayList<>(selectedAmenities);
+        this.facets = rooms != null && !rooms.isEmpty() ? FacetIndex.forRooms(rooms) : null;
         this.listener = listener;
     }
 
@@ -66,7 +68,7 @@ public class RoomFilterDialog {
         setupPriceRange();
         setupAmenities();
 
-        Dialog dialog = new MaterialAlertDialogBuilder(context)
+        dialog = new MaterialAlertDialogBuilder(context)
                 .setTitle("Filter Rooms")
                 .setView(dialogView)
                 .setPositiveButton("Apply", (d, which) -> applyFilters())
@@ -75,31 +77,38 @@ public class RoomFilterDialog {
                 .create();
 
         dialog.show();
+        updateCounts();
     }
 
     private void initViews(View view) {
         priceRangeSlider = view.findViewById(R.id.priceRangeSlider);
+        priceHistogram = view.findViewById(R.id.priceHistogram);
         amenitiesContainer = view.findViewById(R.id.amenitiesContainer);
     }
 
     private void setupPriceRange() {
         priceRangeSlider.setValueFrom(0f);
-        priceRangeSlider.setValueTo(1000f);
+        priceRangeSlider.setValueTo(MAX_SLIDER_PRICE);
         priceRangeSlider.setStepSize(10f);
         
         // Set current values
         float minVal = currentMinPrice > 0 ? (float) currentMinPrice : 0f;
-        float maxVal = currentMaxPrice < Double.MAX_VALUE ? (float) currentMaxPrice : 1000f;
+        float maxVal = currentMaxPrice < Double.MAX_VALUE ? (float) currentMaxPrice : MAX_SLIDER_PRICE;
         priceRangeSlider.setValues(minVal, maxVal);
+
+        if (facets != null) {
+            priceHistogram.setVisibility(View.VISIBLE);
+            priceRangeSlider.addOnChangeListener((slider, value, fromUser) -> updateCounts());
+        }
     }
 
     private void setupAmenities() {
         tempSelectedAmenities.clear();
         tempSelectedAmenities.addAll(currentSelectedAmenities);
 
-        for (AmenityItem amenity : AMENITY_ITEMS) {
+        for (Amenity amenity : Amenity.ALL) {
             CheckBox checkBox = new CheckBox(context);
-            checkBox.setText(amenity.displayName);
+            checkBox.setText(amenity.label);
             checkBox.setChecked(currentSelectedAmenities.contains(amenity.key));
             checkBox.setTextSize(14f);
             checkBox.setPadding(16, 8, 16, 8);
@@ -112,9 +121,11 @@ public class RoomFilterDialog {
                 } else {
                     tempSelectedAmenities.remove(amenity.key);
                 }
+                updateCounts();
             });
 
             amenitiesContainer.addView(checkBox);
+            amenityCheckBoxes.add(checkBox);
         }
     }
 
@@ -124,7 +135,7 @@ public class RoomFilterDialog {
         double maxPrice = values.get(1).doubleValue();
         
         // Convert max price back to Double.MAX_VALUE if it's at the slider maximum
-        if (maxPrice >= 1000) {
+        if (maxPrice >= MAX_SLIDER_PRICE) {
             maxPrice = Double.MAX_VALUE;
         }
 
@@ -133,19 +144,42 @@ public class RoomFilterDialog {
         }
     }
 
-    private void clearAllFilters() {
-        if (listener != null) {
-            listener.onFilterApplied(0, Double.MAX_VALUE, new ArrayList<>());
+    /**
+     * Refreshes the per-amenity counts for the chosen price range, the histogram for the chosen
+     * amenities, and the number of rooms the Apply button leads to.
+     */
+    private void updateCounts() {
+        if (facets == null) return;
+        List<Float> values = priceRangeSlider.getValues();
+        float from = values.get(0);
+        float to = values.get(1);
+        long minMinor = Money.toMinor(from);
+        long maxMinor = to >= MAX_SLIDER_PRICE ? Long.MAX_VALUE : Money.toMinor(to);
+        long selection = Amenity.maskOf(tempSelectedAmenities);
+
+        facets.countValues(minMinor, maxMinor, amenityCounts);
+        for (Amenity amenity : Amenity.ALL) {
+            CheckBox checkBox = amenityCheckBoxes.get(amenity.index);
+            int count = amenityCounts[amenity.index];
+            checkBox.setText(amenity.label + " (" + count + ")");
+            // Keep checked boxes enabled so a dead-end selection can still be undone
+            checkBox.setEnabled(count > 0 || checkBox.isChecked());
         }
-    }
 
-    private static class AmenityItem {
-        final String key;
-        final String displayName;
+        facets.histogram(selection, 0L, Money.toMinor(MAX_SLIDER_PRICE / HISTOGRAM_BUCKETS), bucketCounts);
+        priceHistogram.setCounts(bucketCounts);
+        priceHistogram.setSelection(from / MAX_SLIDER_PRICE, to / MAX_SLIDER_PRICE);
+
+        if (dialog != null && dialog.isShowing()) {
+            int matching = facets.countMatching(minMinor, maxMinor, selection);
+            dialog.getButton(DialogInterface.BUTTON_POSITIVE)
+                    .setText("Show " + matching + (matching == 1 ? " room" : " rooms"));
+        }
+    }
 
-        AmenityItem(String key, String displayName) {
-            this.key = key;
-            this.displayName = displayName;
+    private void clearAllFilters() {
+        if (listener != null) {
+            listener.onFilterApplied(0, Double.MAX_VALUE, new ArrayList<>());
         }
     }
 }
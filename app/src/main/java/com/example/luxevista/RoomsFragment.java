@@ -20,17 +20,17 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.adapters.RoomAdapter;
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.data.FilterPipeline;
+import com.example.luxevista.models.Amenity;
 import com.example.luxevista.models.Room;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickListener {
 
@@ -44,27 +44,27 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
     private RecyclerView recyclerRooms;
     private LinearLayout loadingLayout, contentLayout, emptyStateLayout;
 
-    // Firebase
-    private FirebaseFirestore db;
-
     // Data and Adapter
     private RoomAdapter roomAdapter;
+    private FilterPipeline<Room> filterPipeline;
     private List<Room> allRooms = new ArrayList<>();
+    // The rooms Firestore returned for the price/amenity filters, by id in price order; null when none are set
+    @Nullable private Map<String, Room> filteredRooms;
 
     // Filter state
-    private String currentSearchQuery = "";
+    // The search box text; each filter pass copies it once, since the pass runs off the main thread
+    private CharSequence currentSearchQuery = "";
     private double minPrice = 0;
     private double maxPrice = Double.MAX_VALUE;
     private List<String> selectedAmenities = new ArrayList<>();
+    // Bumped on every filter change so a slow, superseded query cannot overwrite newer results
+    private int queryGeneration;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setEnterTransition(new Fade());
         setExitTransition(new Fade());
-
-        // Initialize Firebase
-        db = FirebaseFirestore.getInstance();
     }
 
     @Nullable
@@ -98,6 +98,16 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
         roomAdapter = new RoomAdapter(this);
         recyclerRooms.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerRooms.setAdapter(roomAdapter);
+        filterPipeline = new FilterPipeline<>(this::createQuery, Room::getRoomId, (rooms, diff) -> {
+            roomAdapter.submitFiltered(rooms, diff);
+            updateEmptyState();
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        filterPipeline.cancel();
     }
 
     private void setupSearchFunctionality() {
@@ -107,8 +117,8 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                currentSearchQuery = s.toString().trim();
-                applyFilters();
+                currentSearchQuery = s;
+                filterPipeline.refresh();
                 
                 // Show/hide clear button
                 btnClearSearch.setVisibility(s.length() > 0 ? View.VISIBLE : View.GONE);
@@ -121,7 +131,7 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
         btnClearSearch.setOnClickListener(v -> {
             etSearch.setText("");
             currentSearchQuery = "";
-            applyFilters();
+            filterPipeline.refreshNow();
         });
     }
 
@@ -151,22 +161,49 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
             minPrice,
             maxPrice,
             selectedAmenities,
+            roomsForFacets(),
             (newMinPrice, newMaxPrice, newSelectedAmenities) -> {
                 minPrice = newMinPrice;
                 maxPrice = newMaxPrice;
                 selectedAmenities = newSelectedAmenities;
-                applyFilters();
+                loadRooms();
                 updateFilterChips();
             }
         );
         dialog.show();
     }
 
-    private void applyFilters() {
-        if (roomAdapter != null) {
-            roomAdapter.filter(currentSearchQuery, minPrice, maxPrice, selectedAmenities);
-            updateEmptyState();
-        }
+    /**
+     * Price and amenity filters run in Firestore; only the free-text search runs on-device, over the
+     * catalog-wide index. With filters set, its hits are narrowed to the rooms Firestore returned.
+     */
+    private FilterPipeline.Query<Room> createQuery() {
+        String query = currentSearchQuery.toString();
+        Map<String, Room> filtered = filteredRooms;
+        return cancellation -> {
+            if (filtered != null && query.trim().isEmpty()) return new ArrayList<>(filtered.values());
+            List<Room> matches = new ArrayList<>();
+            Catalog.roomSearch().search(query, matches);
+            if (filtered == null) return matches;
+            List<Room> narrowed = FilterPipeline.where(matches,
+                    room -> filtered.containsKey(room.getRoomId()), cancellation);
+            if (narrowed == null) return null;
+            // Show the copies Firestore just returned, not the catalog's
+            for (int i = 0; i < narrowed.size(); i++) narrowed.set(i, filtered.get(narrowed.get(i).getRoomId()));
+            return narrowed;
+        };
+    }
+
+    /** The whole catalog when cached, else the loaded list if it is unfiltered; null if neither. */
+    @Nullable
+    private List<Room> roomsForFacets() {
+        List<Room> catalog = Catalog.rooms().peek();
+        if (catalog != null) return catalog;
+        return hasServerFilters() || allRooms.isEmpty() ? null : allRooms;
+    }
+
+    private boolean hasServerFilters() {
+        return minPrice > 0 || maxPrice < Double.MAX_VALUE || !selectedAmenities.isEmpty();
     }
 
     private void updateFilterChips() {
@@ -180,7 +217,7 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
             addFilterChip("Price: " + priceText, () -> {
                 minPrice = 0;
                 maxPrice = Double.MAX_VALUE;
-                applyFilters();
+                loadRooms();
                 updateFilterChips();
             });
             hasFilters = true;
@@ -188,9 +225,9 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
 
         // Add amenity chips
         for (String amenity : selectedAmenities) {
-            addFilterChip(getAmenityDisplayName(amenity), () -> {
+            addFilterChip(Amenity.shortLabelOf(amenity), () -> {
                 selectedAmenities.remove(amenity);
-                applyFilters();
+                loadRooms();
                 updateFilterChips();
             });
             hasFilters = true;
@@ -208,79 +245,62 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
         chipGroupFilters.addView(chip);
     }
 
-    private String getAmenityDisplayName(String amenityKey) {
-        switch (amenityKey) {
-            case "wifi": return "WiFi";
-            case "airConditioning": return "AC";
-            case "television": return "TV";
-            case "roomService": return "Room Service";
-            case "nonSmoking": return "Non-Smoking";
-            case "wheelchairAccessible": return "Accessible";
-            case "balcony": return "Balcony";
-            case "oceanView": return "Ocean View";
-            case "kingBed": return "King Bed";
-            case "coffeeMaker": return "Coffee Maker";
-            case "miniBar": return "Mini Bar";
-            case "safe": return "Safe";
-            case "jacuzzi": return "Jacuzzi";
-            default: return amenityKey;
-        }
-    }
-
     private void loadRooms() {
         showLoading(true);
-        Log.d(TAG, "Starting to load rooms from Firestore...");
-
-        db.collection("rooms")
-                .whereEqualTo("visible", true)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    Log.d(TAG, "Firestore query successful, documents found: " + queryDocumentSnapshots.size());
-                    allRooms.clear();
-                    
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Log.d(TAG, "Processing document: " + document.getId());
-                            Room room = document.toObject(Room.class);
-                            if (room != null) {
-                                Log.d(TAG, "Room parsed: " + room.getName() + ", visible: " + room.isVisible());
-                                if (room.isVisible()) {
-                                    allRooms.add(room);
-                                    Log.d(TAG, "Added room: " + room.getName());
-                                }
-                            } else {
-                                Log.w(TAG, "Room object is null for document: " + document.getId());
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing room document: " + document.getId(), e);
-                            Log.e(TAG, "Document data: " + document.getData());
-                        }
-                    }
-                    
-                    Log.d(TAG, "Total rooms added to list: " + allRooms.size());
-                    
-                    // Sort by price client-side
-                    sortRoomsByPrice();
-                    
-                    roomAdapter.updateRooms(allRooms);
-                    applyFilters();
-                    showLoading(false);
-                    Log.d(TAG, "Loaded " + allRooms.size() + " rooms");
+        int generation = ++queryGeneration;
+
+        if (hasServerFilters()) {
+            // Let Firestore narrow the set so memory scales with the matches, not the catalog
+            Log.d(TAG, "Querying rooms: $" + minPrice + "-" + maxPrice + ", amenities " + selectedAmenities);
+            // The search index follows the full catalog, so make sure it has been loaded
+            if (Catalog.rooms().peek() == null) {
+                Catalog.rooms().load().addOnCompleteListener(loaded -> {
+                    if (isAdded() && generation == queryGeneration) filterPipeline.refreshNow();
+                });
+            }
+            Catalog.findRooms(minPrice, maxPrice, selectedAmenities)
+                    .addOnSuccessListener(rooms -> {
+                        if (!isAdded() || generation != queryGeneration) return;
+                        showRooms(rooms, true);
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Error querying rooms", e);
+                        if (!isAdded() || generation != queryGeneration) return;
+                        showLoading(false);
+                        showEmptyState(true);
+                    });
+            return;
+        }
+
+        Log.d(TAG, "Starting to load rooms from catalog...");
+        // Renders cached rooms immediately; called again only if the server copy differs
+        Catalog.rooms().loadCacheFirst(rooms -> {
+                    if (!isAdded() || generation != queryGeneration) return;
+                    // Catalog only returns visible rooms, already sorted by price
+                    showRooms(rooms, false);
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading rooms", e);
+                    if (!isAdded() || generation != queryGeneration) return;
                     showLoading(false);
                     showEmptyState(true);
                 });
     }
 
-    private void sortRoomsByPrice() {
-        Collections.sort(allRooms, new Comparator<Room>() {
-            @Override
-            public int compare(Room room1, Room room2) {
-                return Double.compare(room1.getPricePerNight(), room2.getPricePerNight());
-            }
-        });
+    /** {@code filtered}: the rooms came from a Firestore-filtered query, not the whole catalog. */
+    private void showRooms(List<Room> rooms, boolean filtered) {
+        allRooms.clear();
+        allRooms.addAll(rooms);
+
+        if (filtered) {
+            filteredRooms = new LinkedHashMap<>();
+            for (Room room : rooms) filteredRooms.put(room.getRoomId(), room);
+        } else {
+            filteredRooms = null;
+        }
+        filterPipeline.refreshNow();
+        showLoading(false);
+        Log.d(TAG, "Loaded " + allRooms.size() + " rooms");
     }
 
     private void showLoading(boolean show) {
@@ -320,6 +340,7 @@ public class RoomsFragment extends Fragment implements RoomAdapter.OnRoomClickLi
         intent.putExtra("currency", room.getCurrency());
         intent.putExtra("description", room.getDescription());
         intent.putExtra("maxGuests", room.getMaxGuests());
+        intent.putExtra("amenities", room.getAmenityMask());
         
         // Convert image URLs to array
         if (room.getImageUrls() != null) {
@@ -17,6 +17,8 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.example.luxevista.adapters.RoomImageAdapter;
+import com.example.luxevista.data.AvailabilityStore;
+import com.example.luxevista.models.DateKeys;
 import com.example.luxevista.models.Service;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
@@ -28,17 +30,17 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 public class ServiceBookingActivity extends AppCompatActivity {
 
@@ -378,10 +380,13 @@ public class ServiceBookingActivity extends AppCompatActivity {
     private void loadAvailableTimeSlots() {
         if (service == null || selectedDateTime == null) return;
         
-        String dateKey = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(selectedDateTime.getTime());
-        List<String> availableTimes = service.getAvailableTimesForDate(dateKey);
-        
-        displayTimeSlots(availableTimes);
+        String dateKey = DateKeys.dateKey(selectedDateTime.getTime());
+        // Booked counts live in the month's availability shard, not on the service document
+        AvailabilityStore.loadForService(service, Collections.singletonList(dateKey))
+            .addOnCompleteListener(this, task -> {
+                List<String> availableTimes = service.getAvailableTimesForDate(dateKey);
+                displayTimeSlots(availableTimes);
+            });
     }
 
     private void displayTimeSlots(List<String> availableTimes) {
@@ -517,6 +522,9 @@ public class ServiceBookingActivity extends AppCompatActivity {
             serviceId, new Timestamp(selectedDateTime.getTime()), price, 1
         );
         serviceBooking.setServiceName(serviceName);
+        if (imageUrls != null && imageUrls.length > 0) {
+            serviceBooking.setImageUrl(imageUrls[0]);
+        }
         
         // Create the main booking
         NewBooking booking = new NewBooking();
@@ -530,50 +538,33 @@ public class ServiceBookingActivity extends AppCompatActivity {
         booking.setCreatedAt(new Timestamp(new Date()));
         booking.setServices(Arrays.asList(serviceBooking));
         
-        // Save to Firestore
-        db.collection("bookings").document(bookingId).set(booking)
-            .addOnSuccessListener(aVoid -> {
-                // Update service availability
-                updateServiceAvailability();
-                
-                // Show success and navigate
+        // Book the slot and save the booking in one transaction, so a full slot never gets a booking
+        String dateKey = DateKeys.dateKey(selectedDateTime.getTime());
+        DocumentReference bookingRef = db.collection("bookings").document(bookingId);
+        btnConfirmBooking.setEnabled(false);
+        AvailabilityStore.reserveServiceSlot(db, bookingRef, booking, serviceId, dateKey, selectedTimeSlot, 1)
+            .addOnSuccessListener(this, aVoid -> {
+                btnConfirmBooking.setEnabled(true);
                 showBookingSuccess();
             })
-            .addOnFailureListener(e -> {
+            .addOnFailureListener(this, e -> {
+                btnConfirmBooking.setEnabled(true);
+                if (e instanceof AvailabilityStore.SoldOutException) {
+                    showSlotTaken();
+                    return;
+                }
                 Log.e(TAG, "Error creating booking", e);
                 Toast.makeText(this, "Error creating booking. Please try again.", Toast.LENGTH_SHORT).show();
             });
     }
 
-    private void updateServiceAvailability() {
-        if (service == null || selectedDateTime == null || selectedTimeSlot == null) return;
-        
-        String dateKey = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(selectedDateTime.getTime());
-        
-        // Update the availability map
-        Map<String, Map<String, Integer>> availability = service.getAvailability();
-        if (availability == null) {
-            availability = new HashMap<>();
-        }
-        
-        Map<String, Integer> dateAvailability = availability.get(dateKey);
-        if (dateAvailability == null) {
-            dateAvailability = new HashMap<>();
-        }
-        
-        // Increment booked count (availability map stores booked counts)
-        int currentBooked = dateAvailability.getOrDefault(selectedTimeSlot, 0);
-        dateAvailability.put(selectedTimeSlot, currentBooked + 1);
-        availability.put(dateKey, dateAvailability);
-        
-        // Update service in Firestore
-        db.collection("services").document(serviceId).update("availability", availability)
-            .addOnSuccessListener(aVoid -> {
-                Log.d(TAG, "Service availability updated successfully");
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Error updating service availability", e);
-            });
+    /** The chosen slot filled up after it was shown; refresh the slots so the guest can pick another. */
+    private void showSlotTaken() {
+        Toast.makeText(this, "Sorry, " + selectedTimeSlot + " was just taken. Please choose another time.",
+                Toast.LENGTH_LONG).show();
+        selectedTimeSlot = null;
+        updateBookingSummary();
+        loadAvailableTimeSlots();
     }
 
     private void showBookingSuccess() {
@@ -215,10 +215,10 @@ public class ServiceDetailsActivity extends AppCompatActivity {
         // Pre-fill the booking cart
         BookingCart cart = BookingCart.getInstance();
         cart.clear(); // Clear any existing selections
-        cart.currency = currency != null ? currency : "USD";
+        cart.setCurrency(currency != null ? currency : "USD");
         
         // Add the selected service
-        cart.serviceSelections.add(new BookingCart.ServiceSelection(
+        cart.addService(new BookingCart.ServiceSelection(
             serviceId, serviceName, price, 1, new Timestamp(selectedDateTime.getTime())
         ));
         
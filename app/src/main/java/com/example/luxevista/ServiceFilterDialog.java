@@ -1,14 +1,18 @@
 package com.example.luxevista;
 
-import android.app.Dialog;
 import android.content.Context;
+import android.content.DialogInterface;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.CheckBox;
 import android.widget.LinearLayout;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 
+import com.example.luxevista.data.FacetIndex;
+import com.example.luxevista.models.Service;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.slider.RangeSlider;
 
@@ -28,18 +32,33 @@ public class ServiceFilterDialog {
     private final List<String> availableCategories;
     private final OnFilterAppliedListener listener;
 
+    private static final float MAX_SLIDER_PRICE = 500f;
+    private static final int HISTOGRAM_BUCKETS = 20;
+
+    // Null when no services are known yet; the dialog then shows no counts
+    @Nullable private final FacetIndex facets;
+    private final int[] categoryCounts;
+    private final int[] bucketCounts = new int[HISTOGRAM_BUCKETS];
+
+    private AlertDialog dialog;
     private RangeSlider priceRangeSlider;
+    private PriceHistogramView priceHistogram;
     private LinearLayout categoriesContainer;
+    private final List<CheckBox> categoryCheckBoxes = new ArrayList<>();
     private final List<String> tempSelectedCategories = new ArrayList<>();
 
+    /** {@code services} are counted for the live facet counts; pass null if none are loaded. */
     public ServiceFilterDialog(Context context, double minPrice, double maxPrice, 
                               List<String> selectedCategories, List<String> availableCategories,
-                              OnFilterAppliedListener listener) {
+                              @Nullable List<Service> services, OnFilterAppliedListener listener) {
         this.context = context;
         this.currentMinPrice = minPrice;
         this.currentMaxPrice = maxPrice;
         this.currentSelectedCategories = new ArrayList<>(selectedCategories);
         this.availableCategories = availableCategories;
+        this.facets = services != null && !services.isEmpty() && availableCategories.size() <= FacetIndex.MAX_VALUES
+                ? FacetIndex.forServices(services, availableCategories) : null;
+        this.categoryCounts = new int[availableCategories.size()];
         this.listener = listener;
     }
 
@@ -50,7 +69,7 @@ public class ServiceFilterDialog {
         setupPriceRange();
         setupCategories();
 
-        Dialog dialog = new MaterialAlertDialogBuilder(context)
+        dialog = new MaterialAlertDialogBuilder(context)
                 .setTitle("Filter Services")
                 .setView(dialogView)
                 .setPositiveButton("Apply", (d, which) -> applyFilters())
@@ -59,22 +78,29 @@ public class ServiceFilterDialog {
                 .create();
 
         dialog.show();
+        updateCounts();
     }
 
     private void initViews(View view) {
         priceRangeSlider = view.findViewById(R.id.priceRangeSlider);
+        priceHistogram = view.findViewById(R.id.priceHistogram);
         categoriesContainer = view.findViewById(R.id.categoriesContainer);
     }
 
     private void setupPriceRange() {
         priceRangeSlider.setValueFrom(0f);
-        priceRangeSlider.setValueTo(500f);
+        priceRangeSlider.setValueTo(MAX_SLIDER_PRICE);
         priceRangeSlider.setStepSize(5f);
         
         // Set current values
         float minVal = currentMinPrice > 0 ? (float) currentMinPrice : 0f;
-        float maxVal = currentMaxPrice < Double.MAX_VALUE ? (float) currentMaxPrice : 500f;
+        float maxVal = currentMaxPrice < Double.MAX_VALUE ? (float) currentMaxPrice : MAX_SLIDER_PRICE;
         priceRangeSlider.setValues(minVal, maxVal);
+
+        if (facets != null) {
+            priceHistogram.setVisibility(View.VISIBLE);
+            priceRangeSlider.addOnChangeListener((slider, value, fromUser) -> updateCounts());
+        }
     }
 
     private void setupCategories() {
@@ -96,9 +122,11 @@ public class ServiceFilterDialog {
                 } else {
                     tempSelectedCategories.remove(category);
                 }
+                updateCounts();
             });
 
             categoriesContainer.addView(checkBox);
+            categoryCheckBoxes.add(checkBox);
         }
     }
 
@@ -108,7 +136,7 @@ public class ServiceFilterDialog {
         double maxPrice = values.get(1).doubleValue();
         
         // Convert max price back to Double.MAX_VALUE if it's at the slider maximum
-        if (maxPrice >= 500) {
+        if (maxPrice >= MAX_SLIDER_PRICE) {
             maxPrice = Double.MAX_VALUE;
         }
 
@@ -117,6 +145,42 @@ public class ServiceFilterDialog {
         }
     }
 
+    /**
+     * Refreshes the per-category counts for the chosen price range, the histogram for the chosen
+     * categories, and the number of services the Apply button leads to.
+     */
+    private void updateCounts() {
+        if (facets == null) return;
+        List<Float> values = priceRangeSlider.getValues();
+        float from = values.get(0);
+        float to = values.get(1);
+        long minMinor = Money.toMinor(from);
+        long maxMinor = to >= MAX_SLIDER_PRICE ? Long.MAX_VALUE : Money.toMinor(to);
+        long selection = 0L;
+        for (int i = 0; i < availableCategories.size(); i++) {
+            if (tempSelectedCategories.contains(availableCategories.get(i))) selection |= 1L << i;
+        }
+
+        facets.countValues(minMinor, maxMinor, categoryCounts);
+        for (int i = 0; i < availableCategories.size(); i++) {
+            CheckBox checkBox = categoryCheckBoxes.get(i);
+            int count = categoryCounts[i];
+            checkBox.setText(availableCategories.get(i) + " (" + count + ")");
+            // Keep checked boxes enabled so a dead-end selection can still be undone
+            checkBox.setEnabled(count > 0 || checkBox.isChecked());
+        }
+
+        facets.histogram(selection, 0L, Money.toMinor(MAX_SLIDER_PRICE / HISTOGRAM_BUCKETS), bucketCounts);
+        priceHistogram.setCounts(bucketCounts);
+        priceHistogram.setSelection(from / MAX_SLIDER_PRICE, to / MAX_SLIDER_PRICE);
+
+        if (dialog != null && dialog.isShowing()) {
+            int matching = facets.countMatching(minMinor, maxMinor, selection);
+            dialog.getButton(DialogInterface.BUTTON_POSITIVE)
+                    .setText("Show " + matching + (matching == 1 ? " service" : " services"));
+        }
+    }
+
     private void clearAllFilters() {
         if (listener != null) {
             listener.onFilterApplied(0, Double.MAX_VALUE, new ArrayList<>());
@@ -20,12 +20,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.adapters.ServiceAdapter;
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.data.FilterPipeline;
 import com.example.luxevista.models.Service;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -42,15 +41,14 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
     private RecyclerView recyclerServices;
     private LinearLayout loadingLayout, contentLayout, emptyStateLayout;
 
-    // Firebase
-    private FirebaseFirestore db;
-
     // Data and Adapter
     private ServiceAdapter serviceAdapter;
+    private FilterPipeline<Service> filterPipeline;
     private List<Service> allServices = new ArrayList<>();
 
     // Filter state
-    private String currentSearchQuery = "";
+    // The search box text; each filter pass copies it once, since the pass runs off the main thread
+    private CharSequence currentSearchQuery = "";
     private double minPrice = 0;
     private double maxPrice = Double.MAX_VALUE;
     private List<String> selectedCategories = new ArrayList<>();
@@ -60,9 +58,6 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
         super.onCreate(savedInstanceState);
         setEnterTransition(new Fade());
         setExitTransition(new Fade());
-
-        // Initialize Firebase
-        db = FirebaseFirestore.getInstance();
     }
 
     @Nullable
@@ -96,6 +91,16 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
         serviceAdapter = new ServiceAdapter(this);
         recyclerServices.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerServices.setAdapter(serviceAdapter);
+        filterPipeline = new FilterPipeline<>(this::createQuery, Service::getServiceId, (services, diff) -> {
+            serviceAdapter.submitFiltered(services, diff);
+            updateEmptyState();
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        filterPipeline.cancel();
     }
 
     private void setupSearchFunctionality() {
@@ -105,8 +110,8 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                currentSearchQuery = s.toString().trim();
-                applyFilters();
+                currentSearchQuery = s;
+                filterPipeline.refresh();
                 
                 // Show/hide clear button
                 btnClearSearch.setVisibility(s.length() > 0 ? View.VISIBLE : View.GONE);
@@ -150,6 +155,7 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
             maxPrice,
             selectedCategories,
             getAllCategories(),
+            allServices,
             (newMinPrice, newMaxPrice, newSelectedCategories) -> {
                 minPrice = newMinPrice;
                 maxPrice = newMaxPrice;
@@ -172,10 +178,21 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
     }
 
     private void applyFilters() {
-        if (serviceAdapter != null) {
-            serviceAdapter.filter(currentSearchQuery, minPrice, maxPrice, selectedCategories);
-            updateEmptyState();
-        }
+        filterPipeline.refreshNow();
+    }
+
+    private FilterPipeline.Query<Service> createQuery() {
+        String query = currentSearchQuery.toString();
+        double min = minPrice;
+        double max = maxPrice;
+        List<String> categories = new ArrayList<>(selectedCategories);
+        return cancellation -> {
+            List<Service> matches = new ArrayList<>();
+            Catalog.serviceSearch().search(query, matches);
+            return FilterPipeline.where(matches,
+                    service -> service.matchesPriceRange(min, max) && service.matchesCategory(categories),
+                    cancellation);
+        };
     }
 
     private void updateFilterChips() {
@@ -220,29 +237,20 @@ public class ServicesFragment extends Fragment implements ServiceAdapter.OnServi
     private void loadServices() {
         showLoading(true);
 
-        db.collection("services")
-                .orderBy("price", Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        // Renders cached services immediately; called again only if the server copy differs
+        Catalog.services().loadCacheFirst(services -> {
+                    if (!isAdded()) return;
+                    // Catalog keeps services ordered by price
                     allServices.clear();
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Service service = document.toObject(Service.class);
-                            if (service != null) {
-                                allServices.add(service);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing service document", e);
-                        }
-                    }
-                    
-                    serviceAdapter.updateServices(allServices);
+                    allServices.addAll(services);
+                    // Catalog has already fed these services to its search index
                     applyFilters();
                     showLoading(false);
                     Log.d(TAG, "Loaded " + allServices.size() + " services");
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading services", e);
+                    if (!isAdded()) return;
                     showLoading(false);
                     showEmptyState(true);
                 });
@@ -2,6 +2,7 @@ package com.example.luxevista;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
@@ -16,6 +17,8 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
+import com.example.luxevista.data.HomeFeedGenerator;
+import com.example.luxevista.data.IdentityResolver;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.switchmaterial.SwitchMaterial;
@@ -177,6 +180,13 @@ public class SettingsFragment extends Fragment {
 
         // App info
         cardAppVersion.setOnClickListener(v -> showAppVersionInfo());
+        if ((requireContext().getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            // Staff-only: rebuild home_feed/current after editing the catalog
+            cardAppVersion.setOnLongClickListener(v -> {
+                regenerateHomeFeed();
+                return true;
+            });
+        }
         cardTerms.setOnClickListener(v -> openUrl("https://luxevista.com/terms"));
         cardPrivacy.setOnClickListener(v -> openUrl("https://luxevista.com/privacy"));
         cardSupport.setOnClickListener(v -> openSupportEmail());
@@ -312,6 +322,8 @@ public class SettingsFragment extends Fragment {
             return;
         }
 
+        IdentityResolver identity = IdentityResolver.get(requireContext());
+
         // Re-authenticate user
         AuthCredential credential = EmailAuthProvider.getCredential(user.getEmail(), password);
         user.reauthenticate(credential)
@@ -323,6 +335,7 @@ public class SettingsFragment extends Fragment {
                                 // Delete Firebase Auth account
                                 user.delete()
                                         .addOnSuccessListener(aVoid2 -> {
+                                            identity.clear();
                                             Toast.makeText(getContext(), "Account deleted successfully", Toast.LENGTH_SHORT).show();
                                             dialog.dismiss();
                                             // Navigate to login screen
@@ -350,6 +363,15 @@ public class SettingsFragment extends Fragment {
                 .show();
     }
 
+    private void regenerateHomeFeed() {
+        Toast.makeText(getContext(), "Regenerating home feed...", Toast.LENGTH_SHORT).show();
+        HomeFeedGenerator.regenerate()
+                .addOnSuccessListener(unused ->
+                    Toast.makeText(getContext(), "Home feed regenerated", Toast.LENGTH_SHORT).show())
+                .addOnFailureListener(e ->
+                    Toast.makeText(getContext(), "Home feed failed: " + e.getMessage(), Toast.LENGTH_LONG).show());
+    }
+
     private void openUrl(String url) {
         try {
             Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(url));
@@ -15,6 +15,8 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import android.content.Intent;
 
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.models.Room;
 import com.google.android.material.button.MaterialButton;
 import android.widget.Spinner;
 import com.google.android.material.materialswitch.MaterialSwitch;
@@ -168,16 +170,13 @@ public class SignupStep2Fragment extends Fragment {
     }
 
     private void loadRoomTypesFromDatabase() {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        
-        db.collection("rooms")
-            .whereEqualTo("visible", true)
-            .get()
-            .addOnSuccessListener(queryDocumentSnapshots -> {
+        Catalog.rooms().load()
+            .addOnSuccessListener(rooms -> {
+                if (!isAdded()) return;
                 List<String> roomNames = new ArrayList<>();
                 
-                for (var document : queryDocumentSnapshots) {
-                    String roomName = document.getString("name");
+                for (Room room : rooms) {
+                    String roomName = room.getName();
                     if (roomName != null && !roomName.isEmpty()) {
                         roomNames.add(roomName);
                     }
@@ -201,6 +200,7 @@ public class SignupStep2Fragment extends Fragment {
                 }
             })
             .addOnFailureListener(e -> {
+                if (!isAdded()) return;
                 // Fallback to default room types if database fails
                 String[] defaultRoomTypes = {"Standard Room", "Deluxe Room", "Suite"};
                 ArrayAdapter<String> fallbackAdapter = new ArrayAdapter<>(
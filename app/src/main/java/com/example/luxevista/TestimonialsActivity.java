@@ -16,9 +16,9 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
 import com.example.luxevista.adapters.TestimonialAdapter;
+import com.example.luxevista.data.Catalog;
+import com.example.luxevista.data.UserProfileResolver;
 import com.example.luxevista.models.Testimonial;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,7 +30,6 @@ public class TestimonialsActivity extends AppCompatActivity {
     private RecyclerView recyclerTestimonials;
     private TestimonialAdapter testimonialAdapter;
     private List<Testimonial> allTestimonials = new ArrayList<>();
-    private FirebaseFirestore db;
     private BottomNavigationView bottomNavigation;
 
     @Override
@@ -38,8 +37,6 @@ public class TestimonialsActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_testimonials);
 
-        db = FirebaseFirestore.getInstance();
-
         setupViews();
         loadAllTestimonials();
     }
@@ -92,86 +89,30 @@ public class TestimonialsActivity extends AppCompatActivity {
     }
 
     private void loadAllTestimonials() {
-        db.collection("testimonials")
-                .orderBy("rating", com.google.firebase.firestore.Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        Catalog.testimonials().load()
+                .addOnSuccessListener(this, testimonials -> {
                     allTestimonials.clear();
 
-                    if (queryDocumentSnapshots.isEmpty()) {
+                    if (testimonials.isEmpty()) {
                         Log.d(TAG, "No testimonials found");
                         return;
                     }
 
-                    java.util.concurrent.atomic.AtomicInteger pendingUserLookups = 
-                            new java.util.concurrent.atomic.AtomicInteger(queryDocumentSnapshots.size());
-
-                    for (DocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Testimonial testimonial = document.toObject(Testimonial.class);
-                            if (testimonial != null) {
-                                Log.d(TAG, "Processing testimonial: " + testimonial.getComment());
-                                
-                                // Fetch user name from users collection
-                                String userId = testimonial.getUserId();
-                                if (userId != null) {
-                                    db.collection("users").document(userId)
-                                            .get()
-                                            .addOnSuccessListener(userDoc -> {
-                                                if (userDoc.exists()) {
-                                                    String userName = userDoc.getString("name");
-                                                    if (userName != null) {
-                                                        testimonial.setUserName(userName);
-                                                    } else {
-                                                        testimonial.setUserName("Guest User");
-                                                    }
-                                                } else {
-                                                    testimonial.setUserName("Guest User");
-                                                }
-                                                
-                                                allTestimonials.add(testimonial);
-                                                
-                                                if (pendingUserLookups.decrementAndGet() == 0) {
-                                                    testimonialAdapter.updateTestimonials(allTestimonials);
-                                                    Log.d(TAG, "Loaded " + allTestimonials.size() + " total testimonials");
-                                                }
-                                            })
-                                            .addOnFailureListener(e -> {
-                                                Log.e(TAG, "Error fetching user name for userId: " + userId, e);
-                                                testimonial.setUserName("Guest User");
-                                                allTestimonials.add(testimonial);
-                                                
-                                                if (pendingUserLookups.decrementAndGet() == 0) {
-                                                    testimonialAdapter.updateTestimonials(allTestimonials);
-                                                    Log.d(TAG, "Loaded " + allTestimonials.size() + " total testimonials");
-                                                }
-                                            });
-                                } else {
-                                    // No userId, set default name
-                                    testimonial.setUserName("Guest User");
-                                    allTestimonials.add(testimonial);
-                                    
-                                    if (pendingUserLookups.decrementAndGet() == 0) {
-                                        testimonialAdapter.updateTestimonials(allTestimonials);
-                                        Log.d(TAG, "Loaded " + allTestimonials.size() + " total testimonials");
-                                    }
-                                }
-                            } else {
-                                if (pendingUserLookups.decrementAndGet() == 0) {
-                                    testimonialAdapter.updateTestimonials(allTestimonials);
-                                    Log.d(TAG, "Loaded " + allTestimonials.size() + " total testimonials");
-                                }
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing testimonial document", e);
-                            if (pendingUserLookups.decrementAndGet() == 0) {
-                                testimonialAdapter.updateTestimonials(allTestimonials);
-                                Log.d(TAG, "Loaded " + allTestimonials.size() + " total testimonials");
-                            }
-                        }
+                    // Render right away; names fill in as each batch of user lookups returns
+                    List<String> userIds = new ArrayList<>();
+                    UserProfileResolver resolver = UserProfileResolver.getInstance();
+                    for (Testimonial testimonial : testimonials) {
+                        testimonial.setUserName(resolver.peek(testimonial.getUserId()));
+                        userIds.add(testimonial.getUserId());
+                        allTestimonials.add(testimonial);
                     }
+                    testimonialAdapter.updateTestimonials(allTestimonials);
+                    Log.d(TAG, "Loaded " + allTestimonials.size() + " total testimonials");
+
+                    resolver.resolve(userIds, testimonialAdapter::applyUserNames)
+                            .addOnCompleteListener(this, task -> testimonialAdapter.fillMissingUserNames("Guest User"));
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(this, e -> {
                     Log.e(TAG, "Error loading all testimonials", e);
                 });
     }
@@ -10,21 +10,22 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.R;
+import com.example.luxevista.models.Amenity;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class AmenityAdapter extends RecyclerView.Adapter<AmenityAdapter.AmenityViewHolder> {
 
-    private List<String> amenities;
+    private List<Amenity> amenities;
 
     public AmenityAdapter() {
         this.amenities = new ArrayList<>();
     }
 
-    public void updateAmenities(List<String> newAmenities) {
-        this.amenities.clear();
-        this.amenities.addAll(newAmenities);
+    /** Shows the amenities in {@code mask}, in registry order. */
+    public void updateAmenities(long mask) {
+        this.amenities = Amenity.listOf(mask);
         notifyDataSetChanged();
     }
 
@@ -38,8 +39,7 @@ public class AmenityAdapter extends RecyclerView.Adapter<AmenityAdapter.AmenityV
 
     @Override
     public void onBindViewHolder(@NonNull AmenityViewHolder holder, int position) {
-        String amenityKey = amenities.get(position);
-        holder.bind(amenityKey);
+        holder.bind(amenities.get(position));
     }
 
     @Override
@@ -57,50 +57,9 @@ public class AmenityAdapter extends RecyclerView.Adapter<AmenityAdapter.AmenityV
             tvAmenityName = itemView.findViewById(R.id.tvAmenityName);
         }
 
-        public void bind(String amenityKey) {
-            tvAmenityName.setText(getAmenityDisplayName(amenityKey));
-            
-            // Set the appropriate icon based on amenity key
-            int iconResId = getAmenityIconResource(amenityKey);
-            ivAmenityIcon.setImageResource(iconResId);
-        }
-
-        private String getAmenityDisplayName(String amenityKey) {
-            switch (amenityKey) {
-                case "wifi": return "Wi-Fi";
-                case "airConditioning": return "AC";
-                case "television": return "TV";
-                case "roomService": return "Room Service";
-                case "nonSmoking": return "Non-Smoking";
-                case "wheelchairAccessible": return "Accessible";
-                case "balcony": return "Balcony";
-                case "oceanView": return "Ocean View";
-                case "kingBed": return "King Bed";
-                case "coffeeMaker": return "Coffee";
-                case "miniBar": return "Mini Bar";
-                case "safe": return "Safe";
-                case "jacuzzi": return "Jacuzzi";
-                default: return amenityKey;
-            }
-        }
-
-        private int getAmenityIconResource(String amenityKey) {
-            switch (amenityKey) {
-                case "wifi": return R.drawable.amenities_wifi;
-                case "airConditioning": return R.drawable.amenities_air_conditioning;
-                case "television": return R.drawable.amenities_television;
-                case "roomService": return R.drawable.amenities_room_service;
-                case "nonSmoking": return R.drawable.amenities_non_smoking;
-                case "wheelchairAccessible": return R.drawable.amenities_wheelchair_accessible;
-                case "balcony": return R.drawable.amenities_balcony;
-                case "oceanView": return R.drawable.amenities_ocean_view;
-                case "kingBed": return R.drawable.amenities_king_bed;
-                case "coffeeMaker": return R.drawable.amenities_coffee_maker;
-                case "miniBar": return R.drawable.amenities_mini_bar;
-                case "safe": return R.drawable.amenities_safe;
-                case "jacuzzi": return R.drawable.amenities_jacuzzi;
-                default: return R.drawable.ic_image_placeholder;
-            }
+        public void bind(Amenity amenity) {
+            tvAmenityName.setText(amenity.shortLabel);
+            ivAmenityIcon.setImageResource(amenity.iconRes);
         }
     }
 }
@@ -7,6 +7,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
@@ -29,10 +30,11 @@ public class AttractionGridAdapter extends RecyclerView.Adapter<AttractionGridAd
         this.listener = listener;
     }
 
-    public void updateAttractions(List<Attraction> newAttractions) {
+    /** Shows a filtered list; {@code diff} runs from the list shown before to this one. */
+    public void submitFiltered(List<Attraction> newAttractions, DiffUtil.DiffResult diff) {
         this.attractions.clear();
-        if (newAttractions != null) this.attractions.addAll(newAttractions);
-        notifyDataSetChanged();
+        this.attractions.addAll(newAttractions);
+        diff.dispatchUpdatesTo(this);
     }
 
     @NonNull
@@ -18,7 +18,11 @@ import java.util.List;
 public class BookingRoomsAdapter extends RecyclerView.Adapter<BookingRoomsAdapter.RoomViewHolder> {
 
     private List<Room> rooms = new ArrayList<>();
-    private List<String> nightsKeys = new ArrayList<>();
+    // Selected stay as an epoch-day range
+    private int firstNight;
+    private int nights;
+    // Cart snapshot for the "Added" badges
+    private BookingCart.Priced cart;
     private OnRoomClickListener listener;
     private int selectedPosition = -1;
 
@@ -36,8 +40,14 @@ public class BookingRoomsAdapter extends RecyclerView.Adapter<BookingRoomsAdapte
         notifyDataSetChanged();
     }
 
-    public void setNightsKeys(List<String> nightsKeys) {
-        this.nightsKeys = nightsKeys;
+    public void setStay(int firstNight, int nights) {
+        this.firstNight = firstNight;
+        this.nights = nights;
+        notifyDataSetChanged();
+    }
+
+    public void setCart(BookingCart.Priced cart) {
+        this.cart = cart;
         notifyDataSetChanged();
     }
 
@@ -110,16 +120,11 @@ public class BookingRoomsAdapter extends RecyclerView.Adapter<BookingRoomsAdapte
             tvMaxGuests.setText("Max " + room.getMaxGuests() + " guests");
 
             // Calculate and show availability
-            int minAvailable = Integer.MAX_VALUE;
-            for (String date : nightsKeys) {
-                int available = room.getRemainingForDate(date);
-                minAvailable = Math.min(minAvailable, available);
-            }
-            if (minAvailable == Integer.MAX_VALUE) minAvailable = 0;
+            int minAvailable = room.getCalendar().minRemaining(firstNight, nights);
             tvAvailable.setText(minAvailable + " available");
 
             // Show added quantity if any
-            int addedQty = BookingCart.getInstance().getRoomQuantity(room.getRoomId());
+            int addedQty = cart != null ? cart.roomQuantity(room.getRoomId()) : 0;
             if (addedQty > 0) {
                 tvAddedQuantity.setText("Added: " + addedQty);
                 tvAddedQuantity.setVisibility(View.VISIBLE);
@@ -18,7 +18,11 @@ import java.util.List;
 public class BookingServicesAdapter extends RecyclerView.Adapter<BookingServicesAdapter.ServiceViewHolder> {
 
     private List<Service> services = new ArrayList<>();
-    private List<String> nightsKeys = new ArrayList<>();
+    // Selected stay as an epoch-day range
+    private int firstNight;
+    private int nights;
+    // Cart snapshot for the "Added" badges
+    private BookingCart.Priced cart;
     private OnServiceSelectedListener selectedListener;
     private OnServiceClickListener clickListener;
     private int selectedPosition = -1;
@@ -42,8 +46,14 @@ public class BookingServicesAdapter extends RecyclerView.Adapter<BookingServices
         notifyDataSetChanged();
     }
 
-    public void setNightsKeys(List<String> nightsKeys) {
-        this.nightsKeys = nightsKeys;
+    public void setStay(int firstNight, int nights) {
+        this.firstNight = firstNight;
+        this.nights = nights;
+        notifyDataSetChanged();
+    }
+
+    public void setCart(BookingCart.Priced cart) {
+        this.cart = cart;
         notifyDataSetChanged();
     }
 
@@ -120,15 +130,11 @@ public class BookingServicesAdapter extends RecyclerView.Adapter<BookingServices
             if (tvDescription != null) tvDescription.setText(service.getDescription() != null ? service.getDescription() : "");
 
             // Calculate and show availability: any-day max helps users see potential slots
-            int anyDayMax = 0;
-            for (String date : nightsKeys) {
-                int available = service.getRemainingForDate(date);
-                anyDayMax = Math.max(anyDayMax, available);
-            }
+            int anyDayMax = service.getCalendar().maxRemaining(firstNight, nights);
             tvAvailable.setText(anyDayMax + " slots");
 
             // Show added quantity if any
-            int addedQty = BookingCart.getInstance().getServiceQuantity(service.getServiceId());
+            int addedQty = cart != null ? cart.serviceQuantity(service.getServiceId()) : 0;
             if (addedQty > 0) {
                 tvAddedQuantity.setText("Added: " + addedQty);
                 tvAddedQuantity.setVisibility(View.VISIBLE);
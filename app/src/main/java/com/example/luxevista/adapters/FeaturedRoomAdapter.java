@@ -11,16 +11,22 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
 import com.example.luxevista.R;
+import com.example.luxevista.models.Amenity;
 import com.example.luxevista.models.Room;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 public class FeaturedRoomAdapter extends RecyclerView.Adapter<FeaturedRoomAdapter.FeaturedRoomViewHolder> {
 
+    // Key amenities to display in order of priority
+    private static final Amenity[] KEY_AMENITIES = {
+            Amenity.WIFI, Amenity.BALCONY, Amenity.OCEAN_VIEW,
+            Amenity.AIR_CONDITIONING, Amenity.TELEVISION, Amenity.ROOM_SERVICE
+    };
+
     private List<Room> rooms;
     private OnRoomClickListener listener;
 
@@ -67,6 +73,7 @@ public class FeaturedRoomAdapter extends RecyclerView.Adapter<FeaturedRoomAdapte
         private final ImageView ivAmenity2;
         private final ImageView ivAmenity3;
         private final TextView tvMoreAmenities;
+        private final ImageView[] amenityViews;
 
         public FeaturedRoomViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -78,6 +85,7 @@ public class FeaturedRoomAdapter extends RecyclerView.Adapter<FeaturedRoomAdapte
             ivAmenity2 = itemView.findViewById(R.id.ivAmenity2);
             ivAmenity3 = itemView.findViewById(R.id.ivAmenity3);
             tvMoreAmenities = itemView.findViewById(R.id.tvMoreAmenities);
+            amenityViews = new ImageView[] {ivAmenity1, ivAmenity2, ivAmenity3};
         }
 
         public void bind(Room room, OnRoomClickListener listener) {
@@ -94,7 +102,7 @@ public class FeaturedRoomAdapter extends RecyclerView.Adapter<FeaturedRoomAdapte
             tvRoomPrice.setText(formattedPrice);
 
             // Display key amenities
-            displayAmenities(room.getAmenities());
+            displayAmenities(room);
 
             // Set click listener
             itemView.setOnClickListener(v -> {
@@ -104,69 +112,33 @@ public class FeaturedRoomAdapter extends RecyclerView.Adapter<FeaturedRoomAdapte
             });
         }
 
-        private void displayAmenities(Map<String, Boolean> amenities) {
+        private void displayAmenities(Room room) {
             // Reset visibility
             ivAmenity1.setVisibility(View.GONE);
             ivAmenity2.setVisibility(View.GONE);
             ivAmenity3.setVisibility(View.GONE);
             tvMoreAmenities.setVisibility(View.GONE);
 
-            if (amenities == null) return;
-
-            // Key amenities to display in order of priority
-            String[] keyAmenities = {"wifi", "balcony", "oceanView", "airConditioning", "television", "roomService"};
-            ImageView[] amenityViews = {ivAmenity1, ivAmenity2, ivAmenity3};
-            
+            long mask = room.getAmenityMask();
             int displayedCount = 0;
-            int totalCount = 0;
-
-            // Count total true amenities
-            for (Boolean value : amenities.values()) {
-                if (Boolean.TRUE.equals(value)) {
-                    totalCount++;
-                }
-            }
 
             // Display up to 3 key amenities
-            for (String amenityKey : keyAmenities) {
-                if (displayedCount >= 3) break;
-                
-                if (Boolean.TRUE.equals(amenities.get(amenityKey))) {
+            for (Amenity amenity : KEY_AMENITIES) {
+                if (displayedCount >= amenityViews.length) break;
+                if (amenity.isIn(mask)) {
                     ImageView amenityView = amenityViews[displayedCount];
-                    int iconRes = getAmenityIconResource(amenityKey);
-                    if (iconRes != 0) {
-                        amenityView.setImageResource(iconRes);
-                        amenityView.setVisibility(View.VISIBLE);
-                        displayedCount++;
-                    }
+                    amenityView.setImageResource(amenity.iconRes);
+                    amenityView.setVisibility(View.VISIBLE);
+                    displayedCount++;
                 }
             }
 
             // Show "more" text if there are additional amenities
-            int remainingCount = totalCount - displayedCount;
+            int remainingCount = room.getAmenityCount() - displayedCount;
             if (remainingCount > 0) {
                 tvMoreAmenities.setText("+" + remainingCount + " more");
                 tvMoreAmenities.setVisibility(View.VISIBLE);
             }
         }
-
-        private int getAmenityIconResource(String amenityKey) {
-            switch (amenityKey) {
-                case "wifi": return R.drawable.amenities_wifi;
-                case "balcony": return R.drawable.amenities_balcony;
-                case "oceanView": return R.drawable.amenities_ocean_view;
-                case "airConditioning": return R.drawable.amenities_air_conditioning;
-                case "television": return R.drawable.amenities_television;
-                case "roomService": return R.drawable.amenities_room_service;
-                case "safe": return R.drawable.amenities_safe;
-                case "miniBar": return R.drawable.amenities_mini_bar;
-                case "kingBed": return R.drawable.amenities_king_bed;
-                case "coffeeMaker": return R.drawable.amenities_coffee_maker;
-                case "jacuzzi": return R.drawable.amenities_jacuzzi;
-                case "nonSmoking": return R.drawable.amenities_non_smoking;
-                case "wheelchairAccessible": return R.drawable.amenities_wheelchair_accessible;
-                default: return 0;
-            }
-        }
     }
 }
@@ -7,6 +7,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
@@ -25,10 +26,11 @@ public class PromotionsGridAdapter extends RecyclerView.Adapter<PromotionsGridAd
 
     public PromotionsGridAdapter(OnPromotionClickListener listener) { this.listener = listener; }
 
-    public void update(List<Promotion> newItems) {
+    /** Shows a filtered list; {@code diff} runs from the list shown before to this one. */
+    public void submitFiltered(List<Promotion> newItems, DiffUtil.DiffResult diff) {
         items.clear();
-        if (newItems != null) items.addAll(newItems);
-        notifyDataSetChanged();
+        items.addAll(newItems);
+        diff.dispatchUpdatesTo(this);
     }
 
     @NonNull
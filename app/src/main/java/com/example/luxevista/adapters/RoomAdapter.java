@@ -8,10 +8,12 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
 import com.example.luxevista.R;
+import com.example.luxevista.models.Amenity;
 import com.example.luxevista.models.Room;
 
 import java.util.ArrayList;
@@ -19,8 +21,7 @@ import java.util.List;
 
 public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder> {
 
-    private List<Room> rooms = new ArrayList<>();
-    private List<Room> filteredRooms = new ArrayList<>();
+    private final List<Room> filteredRooms = new ArrayList<>();
     private OnRoomClickListener listener;
 
     public interface OnRoomClickListener {
@@ -50,29 +51,11 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
         return filteredRooms.size();
     }
 
-    public void updateRooms(List<Room> newRooms) {
-        this.rooms.clear();
-        this.rooms.addAll(newRooms);
-        this.filteredRooms.clear();
-        this.filteredRooms.addAll(newRooms);
-        notifyDataSetChanged();
-    }
-
-    public void filter(String query, double minPrice, double maxPrice, List<String> selectedAmenities) {
+    /** Shows a filtered list; {@code diff} runs from the list shown before to this one. */
+    public void submitFiltered(List<Room> rooms, DiffUtil.DiffResult diff) {
         filteredRooms.clear();
-
-        for (Room room : rooms) {
-            boolean matchesSearch = room.matchesSearchQuery(query);
-            boolean matchesPrice = room.matchesPriceRange(minPrice, maxPrice);
-            boolean matchesAmenities = selectedAmenities == null || selectedAmenities.isEmpty() || 
-                                     room.hasAnyAmenity(selectedAmenities);
-
-            if (matchesSearch && matchesPrice && matchesAmenities) {
-                filteredRooms.add(room);
-            }
-        }
-
-        notifyDataSetChanged();
+        filteredRooms.addAll(rooms);
+        diff.dispatchUpdatesTo(this);
     }
 
     static class RoomViewHolder extends RecyclerView.ViewHolder {
@@ -85,20 +68,8 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
         private final LinearLayout layoutAmenities;
         private final TextView tvMoreAmenities;
 
-        // Amenity icon views
-        private final ImageView amenityWifi;
-        private final ImageView amenityAirConditioning;
-        private final ImageView amenityTelevision;
-        private final ImageView amenityRoomService;
-        private final ImageView amenityNonSmoking;
-        private final ImageView amenityWheelchairAccessible;
-        private final ImageView amenityBalcony;
-        private final ImageView amenityOceanView;
-        private final ImageView amenityKingBed;
-        private final ImageView amenityCoffeeMaker;
-        private final ImageView amenityMiniBar;
-        private final ImageView amenitySafe;
-        private final ImageView amenityJacuzzi;
+        // Amenity icon views, indexed by Amenity.index
+        private final ImageView[] amenityIcons = new ImageView[Amenity.ALL.size()];
 
         public RoomViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -112,19 +83,19 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
             tvMoreAmenities = itemView.findViewById(R.id.tvMoreAmenities);
 
             // Initialize amenity icon views
-            amenityWifi = itemView.findViewById(R.id.amenityWifi);
-            amenityAirConditioning = itemView.findViewById(R.id.amenityAirConditioning);
-            amenityTelevision = itemView.findViewById(R.id.amenityTelevision);
-            amenityRoomService = itemView.findViewById(R.id.amenityRoomService);
-            amenityNonSmoking = itemView.findViewById(R.id.amenityNonSmoking);
-            amenityWheelchairAccessible = itemView.findViewById(R.id.amenityWheelchairAccessible);
-            amenityBalcony = itemView.findViewById(R.id.amenityBalcony);
-            amenityOceanView = itemView.findViewById(R.id.amenityOceanView);
-            amenityKingBed = itemView.findViewById(R.id.amenityKingBed);
-            amenityCoffeeMaker = itemView.findViewById(R.id.amenityCoffeeMaker);
-            amenityMiniBar = itemView.findViewById(R.id.amenityMiniBar);
-            amenitySafe = itemView.findViewById(R.id.amenitySafe);
-            amenityJacuzzi = itemView.findViewById(R.id.amenityJacuzzi);
+            amenityIcons[Amenity.WIFI.index] = itemView.findViewById(R.id.amenityWifi);
+            amenityIcons[Amenity.AIR_CONDITIONING.index] = itemView.findViewById(R.id.amenityAirConditioning);
+            amenityIcons[Amenity.TELEVISION.index] = itemView.findViewById(R.id.amenityTelevision);
+            amenityIcons[Amenity.ROOM_SERVICE.index] = itemView.findViewById(R.id.amenityRoomService);
+            amenityIcons[Amenity.NON_SMOKING.index] = itemView.findViewById(R.id.amenityNonSmoking);
+            amenityIcons[Amenity.WHEELCHAIR_ACCESSIBLE.index] = itemView.findViewById(R.id.amenityWheelchairAccessible);
+            amenityIcons[Amenity.BALCONY.index] = itemView.findViewById(R.id.amenityBalcony);
+            amenityIcons[Amenity.OCEAN_VIEW.index] = itemView.findViewById(R.id.amenityOceanView);
+            amenityIcons[Amenity.KING_BED.index] = itemView.findViewById(R.id.amenityKingBed);
+            amenityIcons[Amenity.COFFEE_MAKER.index] = itemView.findViewById(R.id.amenityCoffeeMaker);
+            amenityIcons[Amenity.MINI_BAR.index] = itemView.findViewById(R.id.amenityMiniBar);
+            amenityIcons[Amenity.SAFE.index] = itemView.findViewById(R.id.amenitySafe);
+            amenityIcons[Amenity.JACUZZI.index] = itemView.findViewById(R.id.amenityJacuzzi);
         }
 
         public void bind(Room room, OnRoomClickListener listener) {
@@ -139,25 +110,13 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
             tvRoomDescription.setText(room.getDescription() != null ? room.getDescription() : "");
 
             // Show/hide amenity icons based on room amenities
-            showAmenityIcon(amenityWifi, room.hasAmenity("wifi"));
-            showAmenityIcon(amenityAirConditioning, room.hasAmenity("airConditioning"));
-            showAmenityIcon(amenityTelevision, room.hasAmenity("television"));
-            showAmenityIcon(amenityRoomService, room.hasAmenity("roomService"));
-            showAmenityIcon(amenityNonSmoking, room.hasAmenity("nonSmoking"));
-            showAmenityIcon(amenityWheelchairAccessible, room.hasAmenity("wheelchairAccessible"));
-            showAmenityIcon(amenityBalcony, room.hasAmenity("balcony"));
-            showAmenityIcon(amenityOceanView, room.hasAmenity("oceanView"));
-            showAmenityIcon(amenityKingBed, room.hasAmenity("kingBed"));
-            showAmenityIcon(amenityCoffeeMaker, room.hasAmenity("coffeeMaker"));
-            showAmenityIcon(amenityMiniBar, room.hasAmenity("miniBar"));
-            showAmenityIcon(amenitySafe, room.hasAmenity("safe"));
-            showAmenityIcon(amenityJacuzzi, room.hasAmenity("jacuzzi"));
-
-            // Show count of additional amenities
-            int totalAmenities = room.getAmenityCount();
-            int visibleAmenities = getVisibleAmenitiesCount(room);
-            int remainingAmenities = totalAmenities - visibleAmenities;
+            long mask = room.getAmenityMask();
+            for (int i = 0; i < amenityIcons.length; i++) {
+                amenityIcons[i].setVisibility((mask & (1L << i)) != 0L ? View.VISIBLE : View.GONE);
+            }
 
+            // Show count of amenities without an icon
+            int remainingAmenities = room.getOtherAmenityCount();
             if (remainingAmenities > 0) {
                 tvMoreAmenities.setVisibility(View.VISIBLE);
                 tvMoreAmenities.setText("+" + remainingAmenities);
@@ -172,27 +131,5 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
                 }
             });
         }
-
-        private void showAmenityIcon(ImageView icon, boolean show) {
-            icon.setVisibility(show ? View.VISIBLE : View.GONE);
-        }
-
-        private int getVisibleAmenitiesCount(Room room) {
-            int count = 0;
-            if (room.hasAmenity("wifi")) count++;
-            if (room.hasAmenity("airConditioning")) count++;
-            if (room.hasAmenity("television")) count++;
-            if (room.hasAmenity("roomService")) count++;
-            if (room.hasAmenity("nonSmoking")) count++;
-            if (room.hasAmenity("wheelchairAccessible")) count++;
-            if (room.hasAmenity("balcony")) count++;
-            if (room.hasAmenity("oceanView")) count++;
-            if (room.hasAmenity("kingBed")) count++;
-            if (room.hasAmenity("coffeeMaker")) count++;
-            if (room.hasAmenity("miniBar")) count++;
-            if (room.hasAmenity("safe")) count++;
-            if (room.hasAmenity("jacuzzi")) count++;
-            return count;
-        }
     }
 }
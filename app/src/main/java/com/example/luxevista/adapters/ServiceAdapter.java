@@ -8,6 +8,7 @@ import android.widget.TextView;
 import android.widget.Button;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.luxevista.ImageUtils;
@@ -19,8 +20,7 @@ import java.util.List;
 
 public class ServiceAdapter extends RecyclerView.Adapter<ServiceAdapter.ServiceViewHolder> {
 
-    private List<Service> services = new ArrayList<>();
-    private List<Service> filteredServices = new ArrayList<>();
+    private final List<Service> filteredServices = new ArrayList<>();
     private OnServiceClickListener listener;
     private OnBookNowClickListener bookNowListener; // deprecated; view-only
 
@@ -60,28 +60,11 @@ public class ServiceAdapter extends RecyclerView.Adapter<ServiceAdapter.ServiceV
         return filteredServices.size();
     }
 
-    public void updateServices(List<Service> newServices) {
-        this.services.clear();
-        this.services.addAll(newServices);
-        this.filteredServices.clear();
-        this.filteredServices.addAll(newServices);
-        notifyDataSetChanged();
-    }
-
-    public void filter(String query, double minPrice, double maxPrice, List<String> selectedCategories) {
+    /** Shows a filtered list; {@code diff} runs from the list shown before to this one. */
+    public void submitFiltered(List<Service> services, DiffUtil.DiffResult diff) {
         filteredServices.clear();
-
-        for (Service service : services) {
-            boolean matchesSearch = service.matchesSearchQuery(query);
-            boolean matchesPrice = service.matchesPriceRange(minPrice, maxPrice);
-            boolean matchesCategory = service.matchesCategory(selectedCategories);
-
-            if (matchesSearch && matchesPrice && matchesCategory) {
-                filteredServices.add(service);
-            }
-        }
-
-        notifyDataSetChanged();
+        filteredServices.addAll(services);
+        diff.dispatchUpdatesTo(this);
     }
 
     static class ServiceViewHolder extends RecyclerView.ViewHolder {
@@ -13,6 +13,7 @@ import com.example.luxevista.R;
 import com.example.luxevista.models.Testimonial;
 
 import java.util.List;
+import java.util.Map;
 
 public class TestimonialAdapter extends RecyclerView.Adapter<TestimonialAdapter.TestimonialViewHolder> {
 
@@ -57,6 +58,29 @@ public class TestimonialAdapter extends RecyclerView.Adapter<TestimonialAdapter.
         notifyDataSetChanged();
     }
 
+    /** Fills in user names as they are resolved, rebinding only the affected cards. */
+    public void applyUserNames(Map<String, String> names) {
+        for (int i = 0; i < testimonials.size(); i++) {
+            Testimonial testimonial = testimonials.get(i);
+            String name = names.get(testimonial.getUserId());
+            if (name != null && !name.equals(testimonial.getUserName())) {
+                testimonial.setUserName(name);
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    /** Falls back to the given name for testimonials whose user could not be resolved. */
+    public void fillMissingUserNames(String fallback) {
+        for (int i = 0; i < testimonials.size(); i++) {
+            Testimonial testimonial = testimonials.get(i);
+            if (testimonial.getUserName() == null) {
+                testimonial.setUserName(fallback);
+                notifyItemChanged(i);
+            }
+        }
+    }
+
     static class TestimonialViewHolder extends RecyclerView.ViewHolder {
         TextView tvUserName, tvComment, tvDate, tvRating;
 
@@ -0,0 +1,450 @@
+package com.example.luxevista.data;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.example.luxevista.models.Room;
+import com.example.luxevista.models.Service;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Booked counts sharded into one document per item per month, so catalog documents stay small.
+ * Bookings go through one counter document per night or slot, and the shards mirror them.
+ *
+ * <pre>
+ * rooms/{roomId}/availability/{yyyy-MM}       { kind: "room",    itemId, month, days: { "yyyy-MM-dd": booked } }
+ * services/{serviceId}/availability/{yyyy-MM} { kind: "service", itemId, month, days: { "yyyy-MM-dd": { "HH:mm": booked } } }
+ * rooms/{roomId}/nights/{yyyy-MM-dd}          { kind: "room",    itemId, date, booked }
+ * services/{serviceId}/slots/{yyyy-MM-dd_HH:mm} { kind: "service", itemId, date, time, booked }
+ * </pre>
+ *
+ * The old {@code availability} map on the catalog document is only read as a fallback for days
+ * (or slots) a shard does not cover yet; the first booking on such a day seeds the shard from it.
+ */
+public final class AvailabilityStore {
+
+    private static final String TAG = "AvailabilityStore";
+
+    public static final String KIND_ROOM = "room";
+    public static final String KIND_SERVICE = "service";
+    private static final String SUBCOLLECTION = "availability";
+    private static final String NIGHTS = "nights";
+    private static final String SLOTS = "slots";
+
+    private AvailabilityStore() {}
+
+    /** "2026-10-18" -> "2026-10" */
+    public static String monthOf(String dateKey) {
+        return dateKey.substring(0, 7);
+    }
+
+    public static List<String> monthsOf(Collection<String> dateKeys) {
+        TreeSet<String> months = new TreeSet<>();
+        for (String d : dateKeys) months.add(monthOf(d));
+        return new ArrayList<>(months);
+    }
+
+    public static DocumentReference roomShard(FirebaseFirestore db, String roomId, String month) {
+        return db.collection("rooms").document(roomId).collection(SUBCOLLECTION).document(month);
+    }
+
+    public static DocumentReference serviceShard(FirebaseFirestore db, String serviceId, String month) {
+        return db.collection("services").document(serviceId).collection(SUBCOLLECTION).document(month);
+    }
+
+    /** Booking counter for one night of a room. */
+    public static DocumentReference roomNight(FirebaseFirestore db, String roomId, String dateKey) {
+        return db.collection("rooms").document(roomId).collection(NIGHTS).document(dateKey);
+    }
+
+    /** Booking counter for one time slot of a service. */
+    public static DocumentReference serviceSlot(FirebaseFirestore db, String serviceId, String dateKey, String timeKey) {
+        return db.collection("services").document(serviceId).collection(SLOTS).document(dateKey + "_" + timeKey);
+    }
+
+    /** Every room or service shard for the given months, in one collection-group query. */
+    public static Query shards(FirebaseFirestore db, String kind, List<String> months) {
+        return db.collectionGroup(SUBCOLLECTION)
+                .whereEqualTo("kind", kind)
+                .whereIn("month", months);
+    }
+
+    /** Overlays shard day counts onto the rooms' availability maps. */
+    public static void applyToRooms(List<Room> rooms, Collection<DocumentSnapshot> shards) {
+        Map<String, Map<String, Long>> bookedByRoom = roomBookedCounts(shards);
+        for (Room room : rooms) {
+            Map<String, Long> booked = bookedByRoom.get(room.getRoomId());
+            if (booked != null) room.mergeBookedCounts(booked);
+        }
+    }
+
+    /** Room id -> date -> booked count, merged across the given room shards. */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Map<String, Long>> roomBookedCounts(Collection<DocumentSnapshot> shards) {
+        Map<String, Map<String, Long>> bookedByRoom = new HashMap<>();
+        for (DocumentSnapshot shard : shards) {
+            String roomId = shard.getString("itemId");
+            Object days = shard.get("days");
+            if (roomId == null || !(days instanceof Map)) continue;
+            Map<String, Long> booked = bookedByRoom.get(roomId);
+            if (booked == null) {
+                booked = new HashMap<>();
+                bookedByRoom.put(roomId, booked);
+            }
+            for (Map.Entry<String, Object> day : ((Map<String, Object>) days).entrySet()) {
+                if (day.getValue() instanceof Number) {
+                    booked.put(day.getKey(), ((Number) day.getValue()).longValue());
+                }
+            }
+        }
+        return bookedByRoom;
+    }
+
+    /** Overlays shard slot counts onto the services' availability maps, slot by slot. */
+    @SuppressWarnings("unchecked")
+    public static void applyToServices(List<Service> services, Collection<DocumentSnapshot> shards) {
+        Map<String, Service> byId = new HashMap<>();
+        for (Service service : services) byId.put(service.getServiceId(), service);
+        for (DocumentSnapshot shard : shards) {
+            Service service = byId.get(shard.getString("itemId"));
+            Object days = shard.get("days");
+            if (service == null || !(days instanceof Map)) continue;
+            Map<String, Map<String, Integer>> merged = service.getAvailability() != null
+                    ? new HashMap<>(service.getAvailability()) : new HashMap<>();
+            for (Map.Entry<String, Object> day : ((Map<String, Object>) days).entrySet()) {
+                if (!(day.getValue() instanceof Map)) continue;
+                Map<String, Integer> times = merged.get(day.getKey()) != null
+                        ? new HashMap<>(merged.get(day.getKey())) : new HashMap<>();
+                for (Map.Entry<String, Object> slot : ((Map<String, Object>) day.getValue()).entrySet()) {
+                    if (slot.getValue() instanceof Number) {
+                        times.put(slot.getKey(), ((Number) slot.getValue()).intValue());
+                    }
+                }
+                merged.put(day.getKey(), times);
+            }
+            service.setAvailability(merged);
+        }
+    }
+
+    /** Loads the shards of one service covering the given days and overlays them. */
+    public static Task<Void> loadForService(Service service, Collection<String> dateKeys) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>();
+        for (String month : monthsOf(dateKeys)) {
+            reads.add(serviceShard(db, service.getServiceId(), month).get());
+        }
+        return Tasks.whenAllComplete(reads).continueWith(done -> {
+            List<DocumentSnapshot> shards = new ArrayList<>();
+            for (Task<DocumentSnapshot> read : reads) {
+                if (read.isSuccessful() && read.getResult().exists()) shards.add(read.getResult());
+                else if (!read.isSuccessful()) Log.e(TAG, "Error loading availability shard", read.getException());
+            }
+            applyToServices(Collections.singletonList(service), shards);
+            return null;
+        });
+    }
+
+    /** Rooms bookable per night, from a room document's {@code defaultDailyRooms}. */
+    public static long roomCapacity(DocumentSnapshot room) {
+        Long capacity = room.getLong("defaultDailyRooms");
+        return capacity != null ? capacity : 0L;
+    }
+
+    /**
+     * Places in one slot, from a service document's {@code timeSlots.<time>}, falling back to the
+     * legacy {@code defaultDailySlots}. Negative if the service defines neither.
+     */
+    public static long slotCapacity(DocumentSnapshot service, String timeKey) {
+        Object timeSlots = service.get("timeSlots");
+        if (timeSlots instanceof Map && !((Map<?, ?>) timeSlots).isEmpty()) {
+            Object capacity = ((Map<?, ?>) timeSlots).get(timeKey);
+            return capacity instanceof Number ? ((Number) capacity).longValue() : 0L;
+        }
+        Long legacy = service.getLong("defaultDailySlots");
+        return legacy != null ? legacy : -1L;
+    }
+
+    /**
+     * Books {@code quantity} places in one service slot and writes the booking document in the same
+     * transaction, so the booking exists only if the slot had room. Fails fast with
+     * {@link SoldOutException} when the slot is already full.
+     */
+    public static Task<Void> reserveServiceSlot(FirebaseFirestore db, DocumentReference bookingRef, Object booking,
+                                                String serviceId, String dateKey, String timeKey, long quantity) {
+        DocumentReference serviceRef = db.collection("services").document(serviceId);
+        return db.runTransaction(trx -> {
+            ShardWriter shards = new ShardWriter(db, trx);
+            DocumentSnapshot snap = trx.get(serviceRef);
+            shards.readServiceSlot(serviceId, dateKey, timeKey);
+
+            // Legacy per-document map only seeds slots neither counter nor shard has seen yet
+            Object legacy = snap.get("availability");
+            Object legacyDay = legacy instanceof Map ? ((Map<?, ?>) legacy).get(dateKey) : null;
+            shards.bookServiceSlot(serviceId, dateKey, timeKey, quantity,
+                    legacyDay instanceof Map ? (Map<?, ?>) legacyDay : null,
+                    slotCapacity(snap, timeKey));
+            shards.write();
+            trx.set(bookingRef, booking);
+            return null;
+        });
+    }
+
+    /**
+     * Keeps one collection-group listener on the shards for the months a stay touches and
+     * re-subscribes only when that set of months changes. Main thread only.
+     */
+    public static final class Watcher {
+        private final String kind;
+        private final Map<String, DocumentSnapshot> shards = new HashMap<>();
+        private List<String> months = Collections.emptyList();
+        private ListenerRegistration registration;
+
+        public Watcher(String kind) {
+            this.kind = kind;
+        }
+
+        public void watch(Collection<String> dateKeys, Runnable onChanged) {
+            List<String> wanted = monthsOf(dateKeys);
+            if (registration != null && wanted.equals(months)) return;
+            stop();
+            months = wanted;
+            if (months.isEmpty()) return;
+            registration = shards(FirebaseFirestore.getInstance(), kind, months)
+                    .addSnapshotListener((snap, e) -> {
+                        if (e != null) {
+                            Log.e(TAG, kind + " shards: listen failed", e);
+                            return;
+                        }
+                        if (snap == null) return;
+                        shards.clear();
+                        for (DocumentSnapshot doc : snap.getDocuments()) shards.put(doc.getReference().getPath(), doc);
+                        onChanged.run();
+                    });
+        }
+
+        public Collection<DocumentSnapshot> shards() {
+            return shards.values();
+        }
+
+        public void stop() {
+            if (registration != null) {
+                registration.remove();
+                registration = null;
+            }
+            shards.clear();
+            months = Collections.emptyList();
+        }
+    }
+
+    /** Thrown from a booking transaction when a night or slot no longer has capacity. */
+    public static class SoldOutException extends FirebaseFirestoreException {
+        SoldOutException(String message) {
+            // OUT_OF_RANGE is a permanent error, so the transaction is not retried
+            super(message, Code.OUT_OF_RANGE);
+        }
+    }
+
+    /**
+     * Validates capacity and books nights/slots inside one transaction.
+     *
+     * The transaction reads and writes one counter document per night or slot, so bookings that
+     * share no night or slot never touch the same document and do not contend. The monthly shard
+     * stays the read model: its {@code days.<date>} / {@code days.<date>.<time>} leaves are written
+     * blind, as {@link FieldValue#increment} through a merge, and only read when a counter does not
+     * exist yet and has to be seeded from the shard or the legacy map. All {@code read*} calls must
+     * happen before the transaction's first write.
+     */
+    public static final class ShardWriter {
+
+        private static final class Counter {
+            final DocumentReference ref;
+            final DocumentReference shardRef;
+            final String kind;
+            final String itemId;
+            final String dateKey;
+            @Nullable final String timeKey;
+            // Count on the counter document, or null if it has not been created yet
+            @Nullable final Long booked;
+            // Shard days read to seed a missing counter; null when the counter exists
+            @Nullable final Map<?, ?> shardDays;
+            // Count from the legacy per-document map, the fallback when neither counter nor shard has one
+            long legacyBooked;
+            long delta;
+
+            Counter(DocumentReference ref, DocumentReference shardRef, String kind, String itemId, String dateKey,
+                    @Nullable String timeKey, @Nullable Long booked, @Nullable Map<?, ?> shardDays) {
+                this.ref = ref;
+                this.shardRef = shardRef;
+                this.kind = kind;
+                this.itemId = itemId;
+                this.dateKey = dateKey;
+                this.timeKey = timeKey;
+                this.booked = booked;
+                this.shardDays = shardDays;
+            }
+
+            /** The shard's count for this night or slot, if the shard was read and has one. */
+            @Nullable
+            Object shardValue() {
+                if (shardDays == null) return null;
+                Object day = shardDays.get(dateKey);
+                if (timeKey == null) return day;
+                return day instanceof Map ? ((Map<?, ?>) day).get(timeKey) : null;
+            }
+        }
+
+        private final FirebaseFirestore db;
+        private final Transaction trx;
+        private final Map<String, Counter> counters = new LinkedHashMap<>();
+        // Shards read so far, by path, so one shard seeding several counters is fetched once
+        private final Map<String, Map<?, ?>> shardDays = new HashMap<>();
+
+        public ShardWriter(FirebaseFirestore db, Transaction trx) {
+            this.db = db;
+            this.trx = trx;
+        }
+
+        public void readRoom(String roomId, Collection<String> dateKeys) throws FirebaseFirestoreException {
+            for (String dateKey : dateKeys) {
+                read(roomNight(db, roomId, dateKey), roomShard(db, roomId, monthOf(dateKey)),
+                        KIND_ROOM, roomId, dateKey, null);
+            }
+        }
+
+        public void readServiceSlot(String serviceId, String dateKey, String timeKey) throws FirebaseFirestoreException {
+            read(serviceSlot(db, serviceId, dateKey, timeKey), serviceShard(db, serviceId, monthOf(dateKey)),
+                    KIND_SERVICE, serviceId, dateKey, timeKey);
+        }
+
+        private void read(DocumentReference ref, DocumentReference shardRef, String kind, String itemId,
+                          String dateKey, @Nullable String timeKey) throws FirebaseFirestoreException {
+            if (counters.containsKey(ref.getPath())) return;
+            DocumentSnapshot snap = trx.get(ref);
+            Long booked = snap.exists() ? snap.getLong("booked") : null;
+            Map<?, ?> days = null;
+            if (booked == null) {
+                days = shardDays.get(shardRef.getPath());
+                if (days == null) {
+                    Object raw = trx.get(shardRef).get("days");
+                    days = raw instanceof Map ? (Map<?, ?>) raw : Collections.emptyMap();
+                    shardDays.put(shardRef.getPath(), days);
+                }
+            }
+            counters.put(ref.getPath(), new Counter(ref, shardRef, kind, itemId, dateKey, timeKey, booked, days));
+        }
+
+        /**
+         * Books {@code quantity} of a room for one night.
+         *
+         * @param legacyBooked count from the old per-document map, used if neither counter nor shard has the night
+         * @param capacity     rooms available per night ({@code defaultDailyRooms})
+         */
+        public void bookRoomNight(String roomId, String dateKey, long quantity, long legacyBooked, long capacity)
+                throws SoldOutException {
+            book(counter(roomNight(db, roomId, dateKey)), legacyBooked, quantity, capacity);
+        }
+
+        /**
+         * Books {@code quantity} places in one service time slot.
+         *
+         * @param legacyDay old per-document time -> booked map for the day, used if neither counter nor shard has the slot
+         * @param capacity  places in the slot ({@code timeSlots.<time>}); negative if the service has no slot limits
+         */
+        public void bookServiceSlot(String serviceId, String dateKey, String timeKey, long quantity,
+                                    @Nullable Map<?, ?> legacyDay, long capacity) throws SoldOutException {
+            Object legacy = legacyDay != null ? legacyDay.get(timeKey) : null;
+            long legacyBooked = legacy instanceof Number ? ((Number) legacy).longValue() : 0L;
+            book(counter(serviceSlot(db, serviceId, dateKey, timeKey)), legacyBooked, quantity, capacity);
+        }
+
+        private void book(Counter counter, long legacyBooked, long quantity, long capacity) throws SoldOutException {
+            counter.legacyBooked = legacyBooked;
+            long booked = startingCount(counter) + counter.delta;
+            if (capacity >= 0 && booked + quantity > capacity) {
+                throw new SoldOutException(counter.kind + " " + counter.itemId + " is fully booked on " + counter.dateKey
+                        + (counter.timeKey != null ? " at " + counter.timeKey : ""));
+            }
+            counter.delta += quantity;
+        }
+
+        private static long startingCount(Counter counter) {
+            if (counter.booked != null) return counter.booked;
+            Object shardValue = counter.shardValue();
+            return shardValue instanceof Number ? ((Number) shardValue).longValue() : counter.legacyBooked;
+        }
+
+        /** Writes every touched counter and its shard leaf; call once at the end of the transaction. */
+        public void write() {
+            Map<String, Map<String, Object>> shardUpdates = new LinkedHashMap<>();
+            Map<String, Counter> shardOwners = new HashMap<>();
+            for (Counter counter : counters.values()) {
+                if (counter.delta == 0) continue;
+                long booked = startingCount(counter) + counter.delta;
+
+                Map<String, Object> doc = new HashMap<>();
+                doc.put("kind", counter.kind);
+                doc.put("itemId", counter.itemId);
+                doc.put("date", counter.dateKey);
+                if (counter.timeKey != null) doc.put("time", counter.timeKey);
+                doc.put("booked", booked);
+                trx.set(counter.ref, doc);
+
+                // An existing counter means the shard already has this leaf, so it can be bumped unread
+                Object value = counter.booked != null ? FieldValue.increment(counter.delta) : (Object) booked;
+                Map<String, Object> days = shardUpdates.get(counter.shardRef.getPath());
+                if (days == null) {
+                    days = new HashMap<>();
+                    shardUpdates.put(counter.shardRef.getPath(), days);
+                    shardOwners.put(counter.shardRef.getPath(), counter);
+                }
+                if (counter.timeKey == null) {
+                    days.put(counter.dateKey, value);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> times = (Map<String, Object>) days.get(counter.dateKey);
+                    if (times == null) {
+                        times = new HashMap<>();
+                        days.put(counter.dateKey, times);
+                    }
+                    times.put(counter.timeKey, value);
+                }
+            }
+            for (Map.Entry<String, Map<String, Object>> update : shardUpdates.entrySet()) {
+                Counter owner = shardOwners.get(update.getKey());
+                Map<String, Object> doc = new HashMap<>();
+                doc.put("kind", owner.kind);
+                doc.put("itemId", owner.itemId);
+                doc.put("month", monthOf(owner.dateKey));
+                doc.put("days", update.getValue());
+                // Merge touches only the listed leaves; other dates and slots are left alone
+                trx.set(owner.shardRef, doc, SetOptions.merge());
+            }
+        }
+
+        private Counter counter(DocumentReference ref) {
+            Counter counter = counters.get(ref.getPath());
+            if (counter == null) throw new IllegalStateException("Availability counter not read: " + ref.getPath());
+            return counter;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.luxevista.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One-shot migration that copies room/service names and the first image URL into the line items
+ * of bookings written before those fields were denormalized.
+ *
+ * Bookings are walked in document-id order one page at a time; each page is written with a single
+ * {@link WriteBatch} (one update per booking, well under Firestore's 500-write limit) and the last
+ * processed id is persisted, so an interrupted run resumes where it stopped. Only the rooms and
+ * services a page refers to are fetched, by id, and kept for later pages. Scope it to one user
+ * to stay within client security rules, or pass null to walk the whole collection.
+ */
+public final class BookingBackfill {
+
+    private static final String TAG = "BookingBackfill";
+    private static final String PREFS_NAME = "luxevista_migrations";
+    private static final int PAGE_SIZE = 200;
+
+    private final FirebaseFirestore db;
+    private final SharedPreferences prefs;
+    @Nullable private final String userId;
+
+    // Catalog documents fetched so far; ids that turned out not to exist are kept as null
+    private final Map<String, DocumentSnapshot> rooms = new HashMap<>();
+    private final Map<String, DocumentSnapshot> services = new HashMap<>();
+
+    public BookingBackfill(Context context, @Nullable String userId) {
+        this.db = FirebaseFirestore.getInstance();
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.userId = userId;
+    }
+
+    public boolean isDone() {
+        return prefs.getBoolean(doneKey(), false);
+    }
+
+    /** Runs (or resumes) the backfill. The task yields the number of bookings updated. */
+    public Task<Integer> run() {
+        if (isDone()) return Tasks.forResult(0);
+        return nextPage(prefs.getString(cursorKey(), null), 0);
+    }
+
+    private Task<Integer> nextPage(@Nullable String cursor, int updated) {
+        Query query = userId != null
+                ? db.collection("bookings").whereEqualTo("userId", userId)
+                : db.collection("bookings");
+        query = query.orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        if (cursor != null) query = query.startAfter(cursor);
+
+        return query.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) return Tasks.forException(task.getException());
+            List<DocumentSnapshot> page = task.getResult().getDocuments();
+            if (page.isEmpty()) return finish(updated);
+            return loadCatalog(page).continueWithTask(loaded -> {
+                if (!loaded.isSuccessful()) return Tasks.forException(loaded.getException());
+                return writePage(page, updated);
+            });
+        });
+    }
+
+    private Task<Integer> writePage(List<DocumentSnapshot> page, int updated) {
+        WriteBatch batch = db.batch();
+        int writes = 0;
+        for (DocumentSnapshot booking : page) {
+            Map<String, Object> changes = backfill(booking);
+            if (!changes.isEmpty()) {
+                batch.update(booking.getReference(), changes);
+                writes++;
+            }
+        }
+        String last = page.get(page.size() - 1).getId();
+        int total = updated + writes;
+        Task<Void> commit = writes > 0 ? batch.commit() : Tasks.forResult(null);
+        return commit.continueWithTask(committed -> {
+            if (!committed.isSuccessful()) return Tasks.forException(committed.getException());
+            prefs.edit().putString(cursorKey(), last).apply();
+            Log.d(TAG, "Backfilled through " + last + " (" + total + " bookings updated)");
+            return page.size() < PAGE_SIZE ? finish(total) : nextPage(last, total);
+        });
+    }
+
+    /**
+     * Fetches the rooms and services the page refers to that earlier pages have not. Fails if any
+     * lookup fails, so the page is retried on the next run instead of being written half-filled.
+     */
+    private Task<Void> loadCatalog(List<DocumentSnapshot> page) {
+        Set<String> roomIds = new LinkedHashSet<>();
+        Set<String> serviceIds = new LinkedHashSet<>();
+        for (DocumentSnapshot booking : page) {
+            collectIds(booking.get("rooms"), "roomId", rooms, roomIds);
+            collectIds(booking.get("services"), "serviceId", services, serviceIds);
+        }
+        if (roomIds.isEmpty() && serviceIds.isEmpty()) return Tasks.forResult(null);
+
+        List<Task<QuerySnapshot>> roomChunks = DocumentBatches.fetchByIds("rooms", new ArrayList<>(roomIds));
+        List<Task<QuerySnapshot>> serviceChunks = DocumentBatches.fetchByIds("services", new ArrayList<>(serviceIds));
+        List<Task<QuerySnapshot>> chunks = new ArrayList<>(roomChunks);
+        chunks.addAll(serviceChunks);
+        return Tasks.whenAll(chunks).continueWithTask(done -> {
+            if (!done.isSuccessful()) return Tasks.forException(done.getException());
+            store(roomChunks, roomIds, rooms);
+            store(serviceChunks, serviceIds, services);
+            return Tasks.forResult(null);
+        });
+    }
+
+    private static void store(List<Task<QuerySnapshot>> chunks, Set<String> ids, Map<String, DocumentSnapshot> catalog) {
+        for (String id : ids) catalog.put(id, null);
+        for (Task<QuerySnapshot> chunk : chunks) {
+            for (DocumentSnapshot doc : chunk.getResult().getDocuments()) catalog.put(doc.getId(), doc);
+        }
+    }
+
+    private static void collectIds(Object raw, String idField, Map<String, DocumentSnapshot> known, Set<String> into) {
+        if (!(raw instanceof List)) return;
+        for (Object item : (List<?>) raw) {
+            if (!(item instanceof Map)) continue;
+            Object id = ((Map<?, ?>) item).get(idField);
+            if (id instanceof String && !((String) id).isEmpty() && !known.containsKey(id)) into.add((String) id);
+        }
+    }
+
+    private Task<Integer> finish(int updated) {
+        prefs.edit().putBoolean(doneKey(), true).remove(cursorKey()).apply();
+        Log.d(TAG, "Backfill complete, " + updated + " bookings updated");
+        return Tasks.forResult(updated);
+    }
+
+    private Map<String, Object> backfill(DocumentSnapshot booking) {
+        Map<String, Object> changes = new HashMap<>();
+        List<Map<String, Object>> roomRows = fillRows(booking.get("rooms"), "roomId", "roomName", rooms);
+        if (roomRows != null) changes.put("rooms", roomRows);
+        List<Map<String, Object>> serviceRows = fillRows(booking.get("services"), "serviceId", "serviceName", services);
+        if (serviceRows != null) changes.put("services", serviceRows);
+        return changes;
+    }
+
+    /** Returns the rewritten line items, or null if nothing needed filling in. */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> fillRows(Object raw, String idField, String nameField,
+                                                      Map<String, DocumentSnapshot> catalog) {
+        if (!(raw instanceof List)) return null;
+        boolean changed = false;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object item : (List<Object>) raw) {
+            // Unknown shape: leave the whole booking untouched rather than rewrite it partially
+            if (!(item instanceof Map)) return null;
+            Map<String, Object> row = new HashMap<>((Map<String, Object>) item);
+            DocumentSnapshot source = catalog.get(String.valueOf(row.get(idField)));
+            if (source != null) {
+                String name = source.getString("name");
+                if (row.get(nameField) == null && name != null) {
+                    row.put(nameField, name);
+                    changed = true;
+                }
+                String imageUrl = firstImageUrl(source);
+                if (row.get("imageUrl") == null && imageUrl != null) {
+                    row.put("imageUrl", imageUrl);
+                    changed = true;
+                }
+            }
+            rows.add(row);
+        }
+        return changed ? rows : null;
+    }
+
+    @Nullable
+    private static String firstImageUrl(DocumentSnapshot snap) {
+        Object raw = snap.get("imageUrls");
+        if (raw instanceof List && !((List<?>) raw).isEmpty()) {
+            Object first = ((List<?>) raw).get(0);
+            if (first instanceof String) return (String) first;
+        }
+        return null;
+    }
+
+    private String doneKey() {
+        return "booking_backfill_done_" + (userId != null ? userId : "all");
+    }
+
+    private String cursorKey() {
+        return "booking_backfill_cursor_" + (userId != null ? userId : "all");
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.luxevista.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.luxevista.models.Attraction;
+import com.example.luxevista.models.Promotion;
+import com.example.luxevista.models.Room;
+import com.example.luxevista.models.Service;
+import com.example.luxevista.models.Testimonial;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Filter;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Shared catalog repositories, one per collection. Initialised once from {@link com.example.luxevista.LuxeVistaApp}.
+ */
+public final class Catalog {
+
+    private static final String PREFS_NAME = "luxevista_catalog";
+    private static final long DEFAULT_TTL_MS = 5 * 60 * 1000L;
+
+    private static SharedPreferences prefs;
+
+    private static CatalogRepository<Room> rooms;
+    private static CatalogRepository<Service> services;
+    private static CatalogRepository<Promotion> promotions;
+    private static CatalogRepository<Attraction> attractions;
+    private static CatalogRepository<Testimonial> testimonials;
+    private static SearchIndex<Room> roomSearch;
+    private static SearchIndex<Service> serviceSearch;
+
+    static final CatalogRepository.QueryFactory ROOMS_QUERY =
+            db -> db.collection("rooms").whereEqualTo("visible", true);
+    static final CatalogRepository.Parser<Room> ROOM_PARSER = doc -> {
+        Room room = doc.toObject(Room.class);
+        return room != null && room.isVisible() ? room : null;
+    };
+    static final Comparator<Room> ROOM_ORDER =
+            (r1, r2) -> Double.compare(r1.getPricePerNight(), r2.getPricePerNight());
+
+    static final SearchIndex.Schema<Room> ROOM_SEARCH = new SearchIndex.Schema<Room>() {
+        @Override
+        public String idOf(Room room) {
+            return room.getRoomId();
+        }
+
+        @Override
+        public String[] textOf(Room room) {
+            return new String[] {room.getName(), room.getType(), room.getDescription()};
+        }
+    };
+
+    // Unordered: orderBy would drop documents without a price, and SERVICE_ORDER sorts anyway
+    static final CatalogRepository.QueryFactory SERVICES_QUERY = db -> db.collection("services");
+    static final CatalogRepository.Parser<Service> SERVICE_PARSER = doc -> doc.toObject(Service.class);
+    static final Comparator<Service> SERVICE_ORDER =
+            (s1, s2) -> Double.compare(s1.getPrice(), s2.getPrice());
+
+    static final SearchIndex.Schema<Service> SERVICE_SEARCH = new SearchIndex.Schema<Service>() {
+        @Override
+        public String idOf(Service service) {
+            return service.getServiceId();
+        }
+
+        @Override
+        public String[] textOf(Service service) {
+            return new String[] {service.getName(), service.getCategory(), service.getDescription()};
+        }
+    };
+
+    static final CatalogRepository.QueryFactory PROMOTIONS_QUERY = db -> db.collection("promotions");
+
+    static final CatalogRepository.QueryFactory ATTRACTIONS_QUERY =
+            db -> db.collection("attractions").whereEqualTo("visible", true);
+    static final CatalogRepository.Parser<Attraction> ATTRACTION_PARSER = doc -> {
+        Attraction attraction = doc.toObject(Attraction.class);
+        return attraction != null && attraction.isVisible() ? attraction : null;
+    };
+    static final Comparator<Attraction> ATTRACTION_ORDER =
+            (a1, a2) -> Double.compare(a1.getDistanceKM(), a2.getDistanceKM());
+
+    static final CatalogRepository.QueryFactory TESTIMONIALS_QUERY =
+            db -> db.collection("testimonials").orderBy("rating", Query.Direction.DESCENDING);
+    static final CatalogRepository.Parser<Testimonial> TESTIMONIAL_PARSER = doc -> doc.toObject(Testimonial.class);
+
+    private Catalog() {}
+
+    public static void init(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized CatalogRepository<Room> rooms() {
+        if (rooms == null) {
+            rooms = new CatalogRepository<>("rooms", ROOMS_QUERY, ROOM_PARSER, ROOM_ORDER, DEFAULT_TTL_MS, prefs);
+            rooms.setOnItemsReplaced(items -> roomSearch().update(items));
+        }
+        return rooms;
+    }
+
+    public static synchronized CatalogRepository<Service> services() {
+        if (services == null) {
+            services = new CatalogRepository<>("services", SERVICES_QUERY, SERVICE_PARSER, SERVICE_ORDER, DEFAULT_TTL_MS, prefs);
+            services.setOnItemsReplaced(items -> serviceSearch().update(items));
+        }
+        return services;
+    }
+
+    /**
+     * Free-text index over room names, types and descriptions. It always holds the whole
+     * {@link #rooms()} catalog, updated on every load that changes it; only rooms that are new or
+     * whose text changed are re-tokenized. Screens showing a subset narrow the hits themselves.
+     */
+    public static synchronized SearchIndex<Room> roomSearch() {
+        if (roomSearch == null) {
+            roomSearch = new SearchIndex<>(ROOM_SEARCH);
+            List<Room> loaded = rooms != null ? rooms.peek() : null;
+            if (loaded != null) roomSearch.update(loaded);
+        }
+        return roomSearch;
+    }
+
+    /** Free-text index over the whole {@link #services()} catalog, kept like {@link #roomSearch()}. */
+    public static synchronized SearchIndex<Service> serviceSearch() {
+        if (serviceSearch == null) {
+            serviceSearch = new SearchIndex<>(SERVICE_SEARCH);
+            List<Service> loaded = services != null ? services.peek() : null;
+            if (loaded != null) serviceSearch.update(loaded);
+        }
+        return serviceSearch;
+    }
+
+    /**
+     * Visible rooms priced within [minPrice, maxPrice] that have any of {@code amenities}, filtered by
+     * Firestore so only matches are downloaded. Pass 0 / {@link Double#MAX_VALUE} / an empty list to
+     * leave a bound or the amenity filter off. Results are sorted by price.
+     */
+    public static Task<List<Room>> findRooms(double minPrice, double maxPrice, List<String> amenities) {
+        Query query = FirebaseFirestore.getInstance().collection("rooms").whereEqualTo("visible", true);
+        if (minPrice > 0) query = query.whereGreaterThanOrEqualTo("pricePerNight", minPrice);
+        if (maxPrice < Double.MAX_VALUE) query = query.whereLessThanOrEqualTo("pricePerNight", maxPrice);
+        if (amenities.size() == 1) {
+            query = query.whereEqualTo("amenities." + amenities.get(0), true);
+        } else if (!amenities.isEmpty()) {
+            // Any selected amenity matches, like Room.hasAnyAmenity
+            Filter[] anyOf = new Filter[amenities.size()];
+            for (int i = 0; i < anyOf.length; i++) {
+                anyOf[i] = Filter.equalTo("amenities." + amenities.get(i), true);
+            }
+            query = query.where(Filter.or(anyOf));
+        }
+        return query.orderBy("pricePerNight", Query.Direction.ASCENDING).get().continueWith(task -> {
+            List<Room> rooms = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                Room room = ROOM_PARSER.parse(doc);
+                if (room != null) rooms.add(room);
+            }
+            return rooms;
+        });
+    }
+
+    /** Live rooms feed for screens that must react to availability changes; caller owns start/stop. */
+    public static LiveCollection<Room> watchRooms() {
+        return new LiveCollection<>("rooms", ROOMS_QUERY, ROOM_PARSER, ROOM_ORDER);
+    }
+
+    public static LiveCollection<Service> watchServices() {
+        return new LiveCollection<>("services", SERVICES_QUERY, SERVICE_PARSER, SERVICE_ORDER);
+    }
+
+    public static synchronized CatalogRepository<Promotion> promotions() {
+        if (promotions == null) {
+            promotions = new CatalogRepository<>("promotions",
+                    PROMOTIONS_QUERY,
+                    Catalog::parsePromotion,
+                    null,
+                    DEFAULT_TTL_MS, prefs);
+        }
+        return promotions;
+    }
+
+    public static synchronized CatalogRepository<Attraction> attractions() {
+        if (attractions == null) {
+            attractions = new CatalogRepository<>("attractions",
+                    ATTRACTIONS_QUERY, ATTRACTION_PARSER, ATTRACTION_ORDER, DEFAULT_TTL_MS, prefs);
+        }
+        return attractions;
+    }
+
+    public static synchronized CatalogRepository<Testimonial> testimonials() {
+        if (testimonials == null) {
+            testimonials = new CatalogRepository<>("testimonials",
+                    TESTIMONIALS_QUERY, TESTIMONIAL_PARSER, null, DEFAULT_TTL_MS, prefs);
+        }
+        return testimonials;
+    }
+
+    static Promotion parsePromotion(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return parsePromotion(data != null ? data : Collections.<String, Object>emptyMap());
+    }
+
+    // Build Promotion manually to avoid type mismatches on startAt/endAt
+    static Promotion parsePromotion(Map<String, Object> data) {
+        Promotion p = new Promotion();
+        p.setPromotionId(string(data, "promotionId"));
+        p.setTitle(string(data, "title"));
+        p.setDescription(string(data, "description"));
+        // handle both imageURL and imageUrl
+        String imageUrl = string(data, "imageUrl");
+        if (imageUrl == null) imageUrl = string(data, "imageURL");
+        if (imageUrl != null) p.setImageUrl(imageUrl);
+        p.setPromoCode(string(data, "promoCode"));
+        Object discountRaw = data.get("discountPercent");
+        if (discountRaw instanceof Number) {
+            p.setDiscountPercent(((Number) discountRaw).intValue());
+        } else if (discountRaw instanceof String) {
+            try { p.setDiscountPercent(Integer.parseInt((String) discountRaw)); } catch (Exception ignored) {}
+        }
+        Object targetRaw = data.get("target");
+        if (targetRaw instanceof Map) {
+            //noinspection unchecked
+            p.setTarget((Map<String, Object>) targetRaw);
+        }
+
+        // Parse dates flexibly so Promotion.isActive() works for both Timestamp and ISO string fields
+        Date startDate = parseDateFlexible(data.get("startAt"));
+        Date endDate = parseDateFlexible(data.get("endAt"));
+        if (startDate != null) p.setStartAt(new Timestamp(startDate));
+        if (endDate != null) p.setEndAt(new Timestamp(endDate));
+        return p;
+    }
+
+    private static String string(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static Date parseDateFlexible(Object raw) {
+        if (raw == null) return null;
+        if (raw instanceof Timestamp) {
+            return ((Timestamp) raw).toDate();
+        }
+        if (raw instanceof String) {
+            String s = (String) raw;
+            String[] patterns = new String[] {
+                    "yyyy-MM-dd'T'HH:mm:ss'Z'",
+                    "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'",
+                    "yyyy-MM-dd'T'HH:mm:ssXXX",
+                    "yyyy-MM-dd'T'HH:mm:ss.SSSXXX"
+            };
+            for (String pattern : patterns) {
+                try {
+                    SimpleDateFormat sdf = new SimpleDateFormat(pattern, Locale.US);
+                    sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+                    return sdf.parse(s);
+                } catch (ParseException ignored) {}
+            }
+        }
+        return null;
+    }
+}
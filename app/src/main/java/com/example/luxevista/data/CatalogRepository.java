@@ -0,0 +1,258 @@
+package com.example.luxevista.data;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide cache for one catalog collection.
+ *
+ * Results are served from memory while they are younger than the TTL. On a cold start the
+ * Firestore on-disk cache is read first and reused if the last server sync (persisted in
+ * SharedPreferences) is still within the TTL. Concurrent callers share a single in-flight load.
+ * Screens that should never wait on the network use {@link #loadCacheFirst}, which renders whatever
+ * is cached and then revalidates in the background.
+ * Must be called from the main thread; returned tasks complete on the main thread.
+ */
+public class CatalogRepository<T> {
+
+    private static final String TAG = "CatalogRepository";
+    // Cache-first reads skip the background server refresh if the last sync is this recent
+    private static final long REVALIDATE_AFTER_MS = 30 * 1000L;
+
+    public interface QueryFactory {
+        Query create(FirebaseFirestore db);
+    }
+
+    public interface Parser<T> {
+        @Nullable
+        T parse(DocumentSnapshot document);
+    }
+
+    public interface Listener<T> {
+        void onChanged(List<T> items);
+    }
+
+    private final String name;
+    private final QueryFactory queryFactory;
+    private final Parser<T> parser;
+    @Nullable private final Comparator<T> order;
+    private final long ttlMillis;
+    @Nullable private final SharedPreferences prefs;
+
+    private List<T> items;
+    private long fetchedAt;
+    // Hash of the documents behind items, so a refresh returning the same data keeps the same list
+    private long fingerprint;
+    private TaskCompletionSource<List<T>> inFlight;
+    private long inFlightMaxAge;
+    @Nullable private Listener<T> onItemsReplaced;
+
+    CatalogRepository(String name, QueryFactory queryFactory, Parser<T> parser,
+                      @Nullable Comparator<T> order, long ttlMillis, @Nullable SharedPreferences prefs) {
+        this.name = name;
+        this.queryFactory = queryFactory;
+        this.parser = parser;
+        this.order = order;
+        this.ttlMillis = ttlMillis;
+        this.prefs = prefs;
+    }
+
+    public Task<List<T>> load() {
+        return load(ttlMillis);
+    }
+
+    /**
+     * Loads the collection, accepting cached data no older than {@code maxAgeMillis}.
+     * Screens that need fresher data (e.g. availability in the booking flow) pass a shorter age.
+     */
+    public Task<List<T>> load(long maxAgeMillis) {
+        if (items != null && isFresh(maxAgeMillis)) {
+            return Tasks.forResult(items);
+        }
+        if (inFlight != null) {
+            inFlightMaxAge = Math.min(inFlightMaxAge, maxAgeMillis);
+            return inFlight.getTask();
+        }
+
+        inFlight = new TaskCompletionSource<>();
+        inFlightMaxAge = maxAgeMillis;
+        Task<List<T>> task = inFlight.getTask();
+        if (items == null) {
+            readDiskSnapshot();
+        } else {
+            fetchFromServer();
+        }
+        return task;
+    }
+
+    /**
+     * Stale-while-revalidate read. The listener gets the cached items right away (memory, else the
+     * Firestore disk cache), then once more only if a background server refresh returned different
+     * data. The task fails only if there was nothing cached and the server could not be reached.
+     */
+    public Task<Void> loadCacheFirst(Listener<T> listener) {
+        TaskCompletionSource<Void> done = new TaskCompletionSource<>();
+        if (items != null) {
+            listener.onChanged(items);
+            revalidate(items, listener, done);
+            return done.getTask();
+        }
+        queryFactory.create(FirebaseFirestore.getInstance())
+                .get(Source.CACHE)
+                .addOnCompleteListener(task -> {
+                    QuerySnapshot snap = task.isSuccessful() ? task.getResult() : null;
+                    if (items == null && snap != null && !snap.isEmpty()) {
+                        restore(snap);
+                    }
+                    if (items != null) listener.onChanged(items);
+                    revalidate(items, listener, done);
+                });
+        return done.getTask();
+    }
+
+    private void revalidate(@Nullable List<T> shown, Listener<T> listener, TaskCompletionSource<Void> done) {
+        load(REVALIDATE_AFTER_MS).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                if (shown != null) done.setResult(null);
+                else done.setException(task.getException());
+                return;
+            }
+            // Unchanged server data keeps the same list instance, so nothing is re-rendered
+            if (task.getResult() != shown) listener.onChanged(task.getResult());
+            done.setResult(null);
+        });
+    }
+
+    /**
+     * Called with the new list every time the cached items are replaced, before any caller or
+     * listener sees it. Lets derived structures (search indexes) follow the whole collection.
+     */
+    void setOnItemsReplaced(@Nullable Listener<T> listener) {
+        onItemsReplaced = listener;
+    }
+
+    /** Returns the last loaded items without triggering a load, or null if nothing is cached. */
+    @Nullable
+    public List<T> peek() {
+        return items;
+    }
+
+    /** Marks the cached data as stale so the next load goes to the server. */
+    public void invalidate() {
+        fetchedAt = 0L;
+        if (prefs != null) prefs.edit().remove(syncKey()).apply();
+    }
+
+    private void readDiskSnapshot() {
+        queryFactory.create(FirebaseFirestore.getInstance())
+                .get(Source.CACHE)
+                .addOnCompleteListener(task -> {
+                    QuerySnapshot snap = task.isSuccessful() ? task.getResult() : null;
+                    if (snap != null && !snap.isEmpty()) {
+                        restore(snap);
+                        if (isFresh(inFlightMaxAge)) {
+                            complete(items);
+                            return;
+                        }
+                    }
+                    fetchFromServer();
+                });
+    }
+
+    private void fetchFromServer() {
+        queryFactory.create(FirebaseFirestore.getInstance())
+                .get(Source.SERVER)
+                .addOnSuccessListener(snap -> {
+                    long latest = fingerprint(snap);
+                    if (items == null || latest != fingerprint) {
+                        replaceItems(parse(snap));
+                        fingerprint = latest;
+                        Log.d(TAG, name + ": fetched " + items.size() + " items from server");
+                    } else {
+                        Log.d(TAG, name + ": server data unchanged");
+                    }
+                    fetchedAt = System.currentTimeMillis();
+                    if (prefs != null) prefs.edit().putLong(syncKey(), fetchedAt).apply();
+                    complete(items);
+                })
+                .addOnFailureListener(e -> {
+                    if (items != null) {
+                        // Offline or transient failure: stale data beats an empty screen
+                        Log.w(TAG, name + ": server fetch failed, serving cached data", e);
+                        complete(items);
+                    } else {
+                        Log.e(TAG, name + ": load failed", e);
+                        TaskCompletionSource<List<T>> source = inFlight;
+                        inFlight = null;
+                        source.setException(e);
+                    }
+                });
+    }
+
+    private void restore(QuerySnapshot snap) {
+        replaceItems(parse(snap));
+        fingerprint = fingerprint(snap);
+        fetchedAt = prefs != null ? prefs.getLong(syncKey(), 0L) : 0L;
+        Log.d(TAG, name + ": restored " + items.size() + " items from disk cache");
+    }
+
+    private void replaceItems(List<T> parsed) {
+        items = parsed;
+        if (onItemsReplaced != null) onItemsReplaced.onChanged(parsed);
+    }
+
+    private static long fingerprint(QuerySnapshot snap) {
+        long hash = 17L;
+        for (DocumentSnapshot document : snap.getDocuments()) {
+            hash = 31L * hash + document.getId().hashCode();
+            Map<String, Object> data = document.getData();
+            hash = 31L * hash + (data != null ? data.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    private List<T> parse(QuerySnapshot snap) {
+        List<T> parsed = new ArrayList<>();
+        for (DocumentSnapshot document : snap.getDocuments()) {
+            try {
+                T item = parser.parse(document);
+                if (item != null) parsed.add(item);
+            } catch (Exception e) {
+                Log.e(TAG, name + ": error parsing document " + document.getId(), e);
+            }
+        }
+        if (order != null) Collections.sort(parsed, order);
+        return Collections.unmodifiableList(parsed);
+    }
+
+    private void complete(List<T> result) {
+        TaskCompletionSource<List<T>> source = inFlight;
+        inFlight = null;
+        source.setResult(result);
+    }
+
+    private boolean isFresh(long maxAgeMillis) {
+        return fetchedAt > 0L && System.currentTimeMillis() - fetchedAt <= maxAgeMillis;
+    }
+
+    private String syncKey() {
+        return "synced_at_" + name;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.luxevista.data;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fetches documents by id with {@code whereIn(documentId)} queries, split into batches that fit
+ * Firestore's limit on 'in' filters.
+ */
+final class DocumentBatches {
+
+    // Firestore caps 'in' filters at 30 values per query
+    static final int WHERE_IN_LIMIT = 30;
+
+    private DocumentBatches() {}
+
+    /** One query per batch of up to 30 ids, in order. Pass distinct ids; duplicates cost extra reads. */
+    static List<Task<QuerySnapshot>> fetchByIds(String collection, List<String> ids) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        List<Task<QuerySnapshot>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += WHERE_IN_LIMIT) {
+            List<String> batch = new ArrayList<>(ids.subList(i, Math.min(i + WHERE_IN_LIMIT, ids.size())));
+            batches.add(db.collection(collection).whereIn(FieldPath.documentId(), batch).get());
+        }
+        return batches;
+    }
+}
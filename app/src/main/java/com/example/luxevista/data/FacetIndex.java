@@ -0,0 +1,175 @@
+package com.example.luxevista.data;
+
+import com.example.luxevista.Money;
+import com.example.luxevista.models.Amenity;
+import com.example.luxevista.models.Room;
+import com.example.luxevista.models.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Live counts for the filter dialogs: how many items each facet value (amenity, category) and each
+ * price bucket would leave, given the other active filters.
+ *
+ * Facet values within a group are OR-ed, like the list filters, so a value's count is the number
+ * of items in the price range that have it, and the price histogram counts items having any
+ * selected value. Items are numbered in price order, so a price range is a contiguous run of item
+ * numbers, and each facet value keeps a bitset over those numbers. A count is then a popcount over
+ * one run of words: a few microseconds for thousands of items, with nothing allocated.
+ */
+public final class FacetIndex {
+
+    /** Facet values beyond this many are not counted. */
+    public static final int MAX_VALUES = Long.SIZE;
+
+    private final int size;
+    private final int values;
+    private final long[] prices; // minor units, ascending
+    private final long[][] itemsByValue; // bitset over item numbers, per facet value
+
+    private FacetIndex(long[] unsortedPrices, long[] masks, int values) {
+        this.size = unsortedPrices.length;
+        this.values = Math.min(values, MAX_VALUES);
+
+        // Sort item positions by price through packed (price rank, position) pairs, without boxing
+        long[] order = new long[size];
+        long[] sorted = unsortedPrices.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < size; i++) {
+            long rank = Arrays.binarySearch(sorted, unsortedPrices[i]);
+            order[i] = (rank << 32) | i;
+        }
+        Arrays.sort(order);
+
+        prices = new long[size];
+        itemsByValue = new long[this.values][(size + 63) >>> 6];
+        for (int n = 0; n < size; n++) {
+            int position = (int) order[n];
+            prices[n] = unsortedPrices[position];
+            long mask = masks[position];
+            while (mask != 0L) {
+                int value = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                if (value < this.values) itemsByValue[value][n >>> 6] |= 1L << n;
+            }
+        }
+    }
+
+    /** Facets by {@link Amenity#index}, priced per night. */
+    public static FacetIndex forRooms(List<Room> rooms) {
+        long[] prices = new long[rooms.size()];
+        long[] masks = new long[rooms.size()];
+        for (int i = 0; i < prices.length; i++) {
+            Room room = rooms.get(i);
+            prices[i] = Money.toMinor(room.getPricePerNight());
+            masks[i] = room.getAmenityMask();
+        }
+        return new FacetIndex(prices, masks, Amenity.ALL.size());
+    }
+
+    /** Facets by position in {@code categories}. */
+    public static FacetIndex forServices(List<Service> services, List<String> categories) {
+        long[] prices = new long[services.size()];
+        long[] masks = new long[services.size()];
+        for (int i = 0; i < prices.length; i++) {
+            Service service = services.get(i);
+            prices[i] = Money.toMinor(service.getPrice());
+            int value = categories.indexOf(service.getCategory());
+            if (value >= 0 && value < MAX_VALUES) masks[i] = 1L << value;
+        }
+        return new FacetIndex(prices, masks, categories.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Per facet value, the items priced within [minMinor, maxMinor] that have it. */
+    public void countValues(long minMinor, long maxMinor, int[] into) {
+        int from = firstAtLeast(minMinor);
+        int to = firstAbove(maxMinor);
+        for (int value = 0; value < values; value++) {
+            into[value] = from < to ? count(itemsByValue[value], from, to) : 0;
+        }
+    }
+
+    /** Items priced within [minMinor, maxMinor] having any value in {@code selection}; 0 selects all. */
+    public int countMatching(long minMinor, long maxMinor, long selection) {
+        return countSelected(selection, firstAtLeast(minMinor), firstAbove(maxMinor));
+    }
+
+    /**
+     * Items having any value in {@code selection} (0 selects all) per price bucket: bucket b holds
+     * prices from {@code fromMinor + b * bucketMinor}, and the last bucket also takes every higher price.
+     * Prices below {@code fromMinor} are not counted.
+     */
+    public void histogram(long selection, long fromMinor, long bucketMinor, int[] into) {
+        int start = firstAtLeast(fromMinor);
+        for (int bucket = 0; bucket < into.length; bucket++) {
+            int end = bucket == into.length - 1 ? size : firstAtLeast(fromMinor + (bucket + 1) * bucketMinor);
+            into[bucket] = countSelected(selection, start, end);
+            start = end;
+        }
+    }
+
+    private int countSelected(long selection, int from, int to) {
+        if (from >= to) return 0;
+        if (selection == 0L) return to - from;
+        int total = 0;
+        int lastWord = (to - 1) >>> 6;
+        for (int w = from >>> 6; w <= lastWord; w++) {
+            long word = 0L;
+            long remaining = selection;
+            while (remaining != 0L) {
+                int value = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                if (value < values) word |= itemsByValue[value][w];
+            }
+            total += Long.bitCount(word & wordMask(w, from, to));
+        }
+        return total;
+    }
+
+    /** Set bits of {@code bits} among item numbers [from, to). */
+    private static int count(long[] bits, int from, int to) {
+        int total = 0;
+        int lastWord = (to - 1) >>> 6;
+        for (int w = from >>> 6; w <= lastWord; w++) {
+            total += Long.bitCount(bits[w] & wordMask(w, from, to));
+        }
+        return total;
+    }
+
+    /** The bits of word {@code w} that fall within [from, to). */
+    private static long wordMask(int w, int from, int to) {
+        long mask = -1L;
+        if (w == from >>> 6) mask &= -1L << (from & 63);
+        if (w == (to - 1) >>> 6) mask &= -1L >>> (63 - ((to - 1) & 63));
+        return mask;
+    }
+
+    /** First item number priced at or above {@code minor}. */
+    private int firstAtLeast(long minor) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] < minor) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First item number priced above {@code minor}. */
+    private int firstAbove(long minor) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] <= minor) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
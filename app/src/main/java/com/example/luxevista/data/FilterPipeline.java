@@ -0,0 +1,224 @@
+package com.example.luxevista.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filters a list screen off the main thread.
+ *
+ * {@link #refresh()} is debounced, so a burst of keystrokes runs one pass once typing pauses;
+ * {@link #refreshNow()} is for chip taps and freshly loaded data. Either one snapshots the screen's
+ * filter state on the main thread through the {@link QueryFactory}, then evaluates the query and
+ * diffs the result against what is shown on a shared background thread. Starting a new pass
+ * cancels the previous one: a queued pass never starts, a running one stops at its next
+ * {@link Cancellation} check, and a finished one is dropped instead of delivered. Results reach the
+ * {@link Sink} on the main thread with the diff to dispatch to the adapter.
+ *
+ * Create from the main thread, and {@link #cancel()} it when the view goes away.
+ */
+public final class FilterPipeline<T> {
+
+    private static final String TAG = "FilterPipeline";
+
+    /** Long enough to cover the gap between keystrokes, short enough not to feel laggy. */
+    public static final long DEFAULT_DEBOUNCE_MS = 150L;
+    // How many items a predicate pass tests between cancellation checks
+    private static final int CHECK_EVERY = 64;
+
+    private static ExecutorService executor;
+
+    /** Evaluated on the filter thread; must only read state captured when it was created. */
+    public interface Query<T> {
+        /** The items to show, in display order, or null if cancelled midway. */
+        @Nullable
+        List<T> run(Cancellation cancellation);
+    }
+
+    /** Called on the main thread to capture the screen's current filter state. */
+    public interface QueryFactory<T> {
+        Query<T> create();
+    }
+
+    public interface Predicate<T> {
+        boolean test(T item);
+    }
+
+    /** Stable identity for the diff, e.g. the document id. */
+    public interface Key<T> {
+        @Nullable
+        Object of(T item);
+    }
+
+    public interface Sink<T> {
+        void onFiltered(List<T> items, DiffUtil.DiffResult diff);
+    }
+
+    /** Tells a running query whether a newer pass has replaced it. */
+    public static final class Cancellation {
+        private final AtomicInteger latest;
+        private final int generation;
+
+        Cancellation(AtomicInteger latest, int generation) {
+            this.latest = latest;
+            this.generation = generation;
+        }
+
+        public boolean isCancelled() {
+            return latest.get() != generation;
+        }
+    }
+
+    private final QueryFactory<T> queryFactory;
+    private final DiffUtil.ItemCallback<T> itemCallback;
+    private final Sink<T> sink;
+    private final long debounceMs;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Runnable fire = this::refreshNow;
+
+    // Main thread only
+    private List<T> shown = Collections.emptyList();
+    @Nullable private Future<?> inFlight;
+
+    public FilterPipeline(QueryFactory<T> queryFactory, Key<T> key, Sink<T> sink) {
+        this(queryFactory, key, sink, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public FilterPipeline(QueryFactory<T> queryFactory, Key<T> key, Sink<T> sink, long debounceMs) {
+        this.queryFactory = queryFactory;
+        this.itemCallback = byKey(key);
+        this.sink = sink;
+        this.debounceMs = debounceMs;
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "list-filter");
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /** Runs a pass once no further refresh has been requested for the debounce interval. */
+    public void refresh() {
+        mainHandler.removeCallbacks(fire);
+        mainHandler.postDelayed(fire, debounceMs);
+    }
+
+    /** Runs a pass right away, replacing any pending or running one. */
+    public void refreshNow() {
+        mainHandler.removeCallbacks(fire);
+        Query<T> query = queryFactory.create();
+        Cancellation cancellation = new Cancellation(generation, generation.incrementAndGet());
+        if (inFlight != null) inFlight.cancel(false);
+        List<T> before = shown;
+        inFlight = executor().submit(() -> {
+            List<T> after;
+            try {
+                after = query.run(cancellation);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Filter pass failed", e);
+                return;
+            }
+            if (after == null || cancellation.isCancelled()) return;
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new ListDiff<>(before, after, itemCallback), false);
+            if (cancellation.isCancelled()) return;
+            mainHandler.post(() -> {
+                if (cancellation.isCancelled()) return;
+                shown = after;
+                inFlight = null;
+                sink.onFiltered(after, diff);
+            });
+        });
+    }
+
+    /** Drops pending and running passes; nothing more is delivered until the next refresh. */
+    public void cancel() {
+        mainHandler.removeCallbacks(fire);
+        generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    /**
+     * The items of {@code source} that pass {@code predicate}, in order, or null if cancelled.
+     * {@code source} must not change while this runs; pass a copy of lists the screen mutates.
+     */
+    @Nullable
+    public static <T> List<T> where(List<T> source, Predicate<T> predicate, Cancellation cancellation) {
+        List<T> matches = new ArrayList<>();
+        for (int i = 0; i < source.size(); i++) {
+            if (i % CHECK_EVERY == 0 && cancellation.isCancelled()) return null;
+            T item = source.get(i);
+            if (predicate.test(item)) matches.add(item);
+        }
+        return matches;
+    }
+
+    /** Same key means the same row; a different instance means its contents may have changed. */
+    private static <T> DiffUtil.ItemCallback<T> byKey(Key<T> key) {
+        return new DiffUtil.ItemCallback<T>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                Object oldKey = key.of(oldItem);
+                return oldKey != null ? oldKey.equals(key.of(newItem)) : oldItem == newItem;
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return oldItem == newItem;
+            }
+        };
+    }
+
+    private static final class ListDiff<T> extends DiffUtil.Callback {
+        private final List<T> before;
+        private final List<T> after;
+        private final DiffUtil.ItemCallback<T> items;
+
+        ListDiff(List<T> before, List<T> after, DiffUtil.ItemCallback<T> items) {
+            this.before = before;
+            this.after = after;
+            this.items = items;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return before.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return after.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return items.areItemsTheSame(before.get(oldItemPosition), after.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return items.areContentsTheSame(before.get(oldItemPosition), after.get(newItemPosition));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.luxevista.data;
+
+import android.util.Log;
+
+import com.example.luxevista.Money;
+import com.example.luxevista.models.AvailabilityCalendar;
+import com.example.luxevista.models.DateKeys;
+import com.example.luxevista.models.Room;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Find other dates" for a stay that is sold out: the earliest and the cheapest stays of the same
+ * length that fit within a horizon, across every room.
+ *
+ * A window fits when every night has at least the wanted quantity left, so one pass over each
+ * room's calendar with a run counter (the threshold form of a sliding-window minimum) finds its
+ * earliest fitting start in O(horizon), instead of re-scanning every night of every candidate
+ * window. A room's price is the same for any window, so its earliest fit is also its cheapest.
+ */
+public final class FlexibleDateSearch {
+
+    private static final String TAG = "FlexibleDateSearch";
+
+    public static final int DEFAULT_HORIZON_DAYS = 90;
+    public static final int MAX_RESULTS = 5;
+
+    private static final Comparator<Option> EARLIEST = (a, b) -> a.firstNight != b.firstNight
+            ? Integer.compare(a.firstNight, b.firstNight) : Long.compare(a.totalMinor, b.totalMinor);
+    private static final Comparator<Option> CHEAPEST = (a, b) -> a.totalMinor != b.totalMinor
+            ? Long.compare(a.totalMinor, b.totalMinor) : Integer.compare(a.firstNight, b.firstNight);
+
+    /** One room for one window of consecutive nights. */
+    public static final class Option {
+        public final Room room;
+        public final int firstNight; // epoch day
+        public final int nights;
+        public final long totalMinor;
+
+        Option(Room room, int firstNight, int nights, int quantity) {
+            this.room = room;
+            this.firstNight = firstNight;
+            this.nights = nights;
+            this.totalMinor = Money.toMinor(room.getPricePerNight()) * nights * quantity;
+        }
+    }
+
+    public static final class Result {
+        public final List<Option> earliest;
+        public final List<Option> cheapest;
+
+        Result(List<Option> earliest, List<Option> cheapest) {
+            this.earliest = earliest;
+            this.cheapest = cheapest;
+        }
+
+        /** Earliest options first, then cheaper ones not already listed. */
+        public List<Option> ranked() {
+            List<Option> ranked = new ArrayList<>(earliest);
+            for (Option option : cheapest) {
+                if (!ranked.contains(option)) ranked.add(option);
+            }
+            return ranked;
+        }
+
+        public boolean isEmpty() {
+            return earliest.isEmpty();
+        }
+    }
+
+    private FlexibleDateSearch() {}
+
+    /**
+     * Loads the rooms' availability shards for the horizon and searches with them overlaid. Stays
+     * may start on any of the {@code horizonDays} days from {@code fromDay}. The rooms themselves
+     * are not modified; the shard counts go into separate calendars.
+     */
+    public static Task<Result> find(List<Room> rooms, int fromDay, int horizonDays, int nights, int quantity) {
+        List<String> days = new ArrayList<>();
+        for (int day = fromDay; day < fromDay + horizonDays + nights; day++) days.add(DateKeys.dateKey(day));
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        return AvailabilityStore.shards(db, AvailabilityStore.KIND_ROOM, AvailabilityStore.monthsOf(days))
+                .get()
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        // Fall back to the counts the rooms already carry
+                        Log.w(TAG, "Could not load availability for the horizon", task.getException());
+                        return search(rooms, fromDay, horizonDays, nights, quantity);
+                    }
+                    Map<String, Map<String, Long>> booked =
+                            AvailabilityStore.roomBookedCounts(task.getResult().getDocuments());
+                    List<Option> fits = new ArrayList<>();
+                    for (Room room : rooms) {
+                        Map<String, Long> roomBooked = booked.get(room.getRoomId());
+                        AvailabilityCalendar calendar = roomBooked != null
+                                ? room.calendarWith(roomBooked) : room.getCalendar();
+                        addEarliestFit(fits, room, calendar, fromDay, horizonDays, nights, quantity);
+                    }
+                    return rank(fits);
+                });
+    }
+
+    /** The search itself, over the availability the rooms currently carry. */
+    public static Result search(List<Room> rooms, int fromDay, int horizonDays, int nights, int quantity) {
+        List<Option> fits = new ArrayList<>();
+        for (Room room : rooms) {
+            addEarliestFit(fits, room, room.getCalendar(), fromDay, horizonDays, nights, quantity);
+        }
+        return rank(fits);
+    }
+
+    private static void addEarliestFit(List<Option> fits, Room room, AvailabilityCalendar calendar,
+                                       int fromDay, int horizonDays, int nights, int quantity) {
+        int firstNight = StayWindows.earliestFit(calendar::remainingOn, fromDay, horizonDays, nights, quantity);
+        if (firstNight != Integer.MIN_VALUE) fits.add(new Option(room, firstNight, nights, quantity));
+    }
+
+    private static Result rank(List<Option> fits) {
+        List<Option> earliest = new ArrayList<>(fits);
+        Collections.sort(earliest, EARLIEST);
+        List<Option> cheapest = new ArrayList<>(fits);
+        Collections.sort(cheapest, CHEAPEST);
+        return new Result(top(earliest), top(cheapest));
+    }
+
+    private static List<Option> top(List<Option> sorted) {
+        return Collections.unmodifiableList(new ArrayList<>(sorted.subList(0, Math.min(MAX_RESULTS, sorted.size()))));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.luxevista.data;
+
+import android.util.Log;
+
+import com.example.luxevista.models.Attraction;
+import com.example.luxevista.models.Promotion;
+import com.example.luxevista.models.Room;
+import com.example.luxevista.models.Service;
+import com.example.luxevista.models.Testimonial;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the home screen shows, precomputed into the single document {@code home_feed/current}
+ * by {@link HomeFeedGenerator}.
+ *
+ * Each section is a map of position ("0", "1", ...) to the source document's fields, so items are
+ * mapped with the same rules as the catalog collections. Reads go to the Firestore disk cache first
+ * (the on-device snapshot for cold starts) and then to the server, like
+ * {@link CatalogRepository#loadCacheFirst}. Main thread only.
+ */
+public final class HomeFeed {
+
+    private static final String TAG = "HomeFeed";
+
+    static final String COLLECTION = "home_feed";
+    static final String DOCUMENT = "current";
+
+    static final int MAX_ATTRACTIONS = 10;
+    static final int MAX_FEATURED_ROOMS = 5;
+    static final int MAX_FEATURED_SERVICES = 5;
+    static final int MAX_TESTIMONIALS = 4;
+
+    /** Raised when {@code home_feed/current} has never been generated. */
+    public static class MissingFeedException extends Exception {
+        MissingFeedException() {
+            super("home_feed/current has not been generated");
+        }
+    }
+
+    public interface Listener {
+        void onFeed(HomeFeed feed);
+    }
+
+    private static HomeFeed current;
+    private static int currentHash;
+
+    public final List<Promotion> promotions = new ArrayList<>();
+    public final List<Attraction> attractions = new ArrayList<>();
+    public final List<Room> rooms = new ArrayList<>();
+    public final List<Service> services = new ArrayList<>();
+    public final List<Testimonial> testimonials = new ArrayList<>();
+
+    private HomeFeed() {}
+
+    static DocumentReference ref(FirebaseFirestore db) {
+        return db.collection(COLLECTION).document(DOCUMENT);
+    }
+
+    /**
+     * Delivers the feed from memory or the disk cache right away, then again only if the server copy
+     * differs. The task fails if no copy could be read, so callers can fall back to the collections.
+     */
+    public static Task<Void> load(Listener listener) {
+        TaskCompletionSource<Void> done = new TaskCompletionSource<>();
+        if (current != null) {
+            listener.onFeed(current);
+            refresh(listener, done);
+            return done.getTask();
+        }
+        ref(FirebaseFirestore.getInstance())
+                .get(Source.CACHE)
+                .addOnCompleteListener(task -> {
+                    DocumentSnapshot snap = task.isSuccessful() ? task.getResult() : null;
+                    if (current == null && snap != null && snap.exists()) {
+                        apply(snap);
+                        Log.d(TAG, "Restored home feed from disk cache");
+                    }
+                    if (current != null) listener.onFeed(current);
+                    refresh(listener, done);
+                });
+        return done.getTask();
+    }
+
+    private static void refresh(Listener listener, TaskCompletionSource<Void> done) {
+        HomeFeed shown = current;
+        ref(FirebaseFirestore.getInstance())
+                .get(Source.SERVER)
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful() || !task.getResult().exists()) {
+                        if (shown != null) {
+                            Log.w(TAG, "Home feed refresh failed, keeping cached copy", task.getException());
+                            done.setResult(null);
+                        } else {
+                            done.setException(task.isSuccessful() ? new MissingFeedException() : task.getException());
+                        }
+                        return;
+                    }
+                    apply(task.getResult());
+                    if (current != shown) listener.onFeed(current);
+                    done.setResult(null);
+                });
+    }
+
+    /** Replaces {@link #current} unless the document's data is unchanged. */
+    private static void apply(DocumentSnapshot snap) {
+        Map<String, Object> data = snap.getData();
+        int hash = data != null ? data.hashCode() : 0;
+        if (current != null && hash == currentHash) return;
+        current = parse(snap);
+        currentHash = hash;
+    }
+
+    private static HomeFeed parse(DocumentSnapshot snap) {
+        HomeFeed feed = new HomeFeed();
+        for (String key : positions(snap, "promotions")) {
+            Object raw = snap.get(FieldPath.of("promotions", key));
+            if (!(raw instanceof Map)) continue;
+            @SuppressWarnings("unchecked")
+            Promotion promotion = Catalog.parsePromotion((Map<String, Object>) raw);
+            // The feed may outlive a promotion's end date
+            if (promotion.isActive()) feed.promotions.add(promotion);
+        }
+        readSection(snap, "attractions", Attraction.class, feed.attractions);
+        readSection(snap, "rooms", Room.class, feed.rooms);
+        readSection(snap, "services", Service.class, feed.services);
+        readSection(snap, "testimonials", Testimonial.class, feed.testimonials);
+        return feed;
+    }
+
+    private static <T> void readSection(DocumentSnapshot snap, String section, Class<T> type, List<T> out) {
+        for (String key : positions(snap, section)) {
+            try {
+                T item = snap.get(FieldPath.of(section, key), type);
+                if (item != null) out.add(item);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error parsing " + section + "." + key, e);
+            }
+        }
+    }
+
+    /** Position keys of a section, in numeric order. */
+    private static List<String> positions(DocumentSnapshot snap, String section) {
+        Object raw = snap.get(section);
+        if (!(raw instanceof Map)) return Collections.emptyList();
+        List<String> keys = new ArrayList<>();
+        for (Object key : ((Map<?, ?>) raw).keySet()) keys.add(String.valueOf(key));
+        Collections.sort(keys, (a, b) -> Integer.compare(position(a), position(b)));
+        return keys;
+    }
+
+    private static int position(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /** Drops the in-memory copy, e.g. after regenerating the feed. */
+    static void invalidate() {
+        current = null;
+        currentHash = 0;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.luxevista.data;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staff tool that rebuilds {@code home_feed/current} from the catalog collections, applying the
+ * same selection the home screen used to do on-device. Run it after editing promotions, rooms,
+ * services, attractions or testimonials; the signed-in account needs write access to
+ * {@code home_feed}.
+ */
+public final class HomeFeedGenerator {
+
+    private static final String TAG = "HomeFeedGenerator";
+
+    // Large per-date maps the home screen never reads
+    private static final String[] DROPPED_FIELDS = {"availability", "legacyAvailability"};
+
+    private interface Accept<T> {
+        boolean accept(T item);
+    }
+
+    private HomeFeedGenerator() {}
+
+    /** Reads the catalog from the server and writes a fresh feed document. */
+    public static Task<Void> regenerate() {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        Task<QuerySnapshot> promotions = Catalog.PROMOTIONS_QUERY.create(db).get(Source.SERVER);
+        Task<QuerySnapshot> attractions = Catalog.ATTRACTIONS_QUERY.create(db).get(Source.SERVER);
+        Task<QuerySnapshot> rooms = Catalog.ROOMS_QUERY.create(db).get(Source.SERVER);
+        Task<QuerySnapshot> services = Catalog.SERVICES_QUERY.create(db).get(Source.SERVER);
+        Task<QuerySnapshot> testimonials = Catalog.TESTIMONIALS_QUERY.create(db).get(Source.SERVER);
+
+        return Tasks.whenAll(promotions, attractions, rooms, services, testimonials).continueWithTask(loaded -> {
+            if (!loaded.isSuccessful()) return Tasks.forException(loaded.getException());
+
+            Map<String, Object> feed = new HashMap<>();
+            // Scheduled promotions must be in the feed before they start; HomeFeed checks dates on read
+            feed.put("promotions", section(promotions.getResult(), Catalog::parsePromotion, null,
+                    Integer.MAX_VALUE, null));
+            feed.put("attractions", section(attractions.getResult(), Catalog.ATTRACTION_PARSER,
+                    Catalog.ATTRACTION_ORDER, HomeFeed.MAX_ATTRACTIONS, null));
+            feed.put("rooms", section(rooms.getResult(), Catalog.ROOM_PARSER,
+                    Catalog.ROOM_ORDER, HomeFeed.MAX_FEATURED_ROOMS, null));
+            feed.put("services", section(services.getResult(), Catalog.SERVICE_PARSER,
+                    Catalog.SERVICE_ORDER, HomeFeed.MAX_FEATURED_SERVICES, null));
+            Map<String, Object> topRated = section(testimonials.getResult(), Catalog.TESTIMONIAL_PARSER, null,
+                    HomeFeed.MAX_TESTIMONIALS, t -> t.getRating() == 5);
+            feed.put("testimonials", topRated);
+
+            return withUserNames(topRated).continueWithTask(named -> {
+                feed.put("generatedAt", FieldValue.serverTimestamp());
+                return HomeFeed.ref(db).set(feed);
+            });
+        }).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                HomeFeed.invalidate();
+                Log.d(TAG, "Regenerated home feed");
+            } else {
+                Log.e(TAG, "Error regenerating home feed", task.getException());
+            }
+        });
+    }
+
+    /** Picks up to {@code limit} accepted items in display order, keyed by position. */
+    private static <T> Map<String, Object> section(QuerySnapshot snap, CatalogRepository.Parser<T> parser,
+                                                   @Nullable Comparator<T> order, int limit,
+                                                   @Nullable Accept<T> accept) {
+        List<T> items = new ArrayList<>();
+        Map<T, DocumentSnapshot> sources = new IdentityHashMap<>();
+        for (DocumentSnapshot doc : snap.getDocuments()) {
+            T item;
+            try {
+                item = parser.parse(doc);
+            } catch (Exception e) {
+                Log.e(TAG, "Skipping unparseable document " + doc.getId(), e);
+                continue;
+            }
+            if (item == null || (accept != null && !accept.accept(item))) continue;
+            items.add(item);
+            sources.put(item, doc);
+        }
+        if (order != null) Collections.sort(items, order);
+
+        Map<String, Object> section = new HashMap<>();
+        for (int i = 0; i < items.size() && i < limit; i++) {
+            Map<String, Object> data = new HashMap<>(sources.get(items.get(i)).getData());
+            for (String field : DROPPED_FIELDS) data.remove(field);
+            section.put(String.valueOf(i), data);
+        }
+        return section;
+    }
+
+    /** Stores each reviewer's display name so the home screen needs no user lookups. */
+    @SuppressWarnings("unchecked")
+    private static Task<Void> withUserNames(Map<String, Object> testimonials) {
+        List<String> userIds = new ArrayList<>();
+        for (Object row : testimonials.values()) {
+            Object userId = ((Map<String, Object>) row).get("userId");
+            if (userId instanceof String) userIds.add((String) userId);
+        }
+        UserProfileResolver resolver = UserProfileResolver.getInstance();
+        return resolver.resolve(userIds, names -> {}).continueWith(resolved -> {
+            for (Object row : testimonials.values()) {
+                Map<String, Object> data = (Map<String, Object>) row;
+                Object userId = data.get("userId");
+                String name = userId instanceof String ? resolver.peek((String) userId) : null;
+                data.put("userName", name != null ? name : "Guest User");
+            }
+            return null;
+        });
+    }
+}
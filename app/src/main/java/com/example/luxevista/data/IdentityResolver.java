@@ -0,0 +1,143 @@
+package com.example.luxevista.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+/**
+ * Maps the signed-in Firebase user to the custom user id used by {@code users} and {@code bookings}.
+ *
+ * The mapping is persisted in SharedPreferences keyed by Firebase UID, so after the first lookup
+ * screens get the id without any network round trip. It is warmed right after login and cleared on
+ * sign-out. Must be called from the main thread.
+ */
+public final class IdentityResolver {
+
+    private static final String TAG = "IdentityResolver";
+    private static final String PREFS_NAME = "luxevista_identity";
+    private static final String KEY_UID = "firebase_uid";
+    private static final String KEY_EMAIL = "email";
+    private static final String KEY_CUSTOM_ID = "custom_user_id";
+
+    /** Raised when no profile document matches the signed-in user. */
+    public static class ProfileNotFoundException extends Exception {
+        ProfileNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    private static IdentityResolver instance;
+
+    private final SharedPreferences prefs;
+    private TaskCompletionSource<String> inFlight;
+    private String inFlightUid;
+
+    private IdentityResolver(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized IdentityResolver get(Context context) {
+        if (instance == null) instance = new IdentityResolver(context);
+        return instance;
+    }
+
+    /** Returns the cached custom id for this user, or null if it has not been resolved yet. */
+    @Nullable
+    public String peek(FirebaseUser user) {
+        if (user == null || !user.getUid().equals(prefs.getString(KEY_UID, null))) return null;
+        if (!TextUtils.equals(user.getEmail(), prefs.getString(KEY_EMAIL, null))) return null;
+        return prefs.getString(KEY_CUSTOM_ID, null);
+    }
+
+    /**
+     * Resolves the custom id, from the local cache when possible. Falls back to a
+     * {@code users.email} lookup, then to the document whose id is the email's local part.
+     */
+    public Task<String> resolve(FirebaseUser user) {
+        String cached = peek(user);
+        if (cached != null) return Tasks.forResult(cached);
+        if (user == null || user.getEmail() == null) {
+            return Tasks.forException(new ProfileNotFoundException("User email not available"));
+        }
+        if (inFlight != null && user.getUid().equals(inFlightUid)) {
+            return inFlight.getTask();
+        }
+
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        inFlight = source;
+        inFlightUid = user.getUid();
+        String uid = user.getUid();
+        String email = user.getEmail();
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.collection("users")
+                .whereEqualTo("email", email)
+                .limit(1)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (!querySnapshot.isEmpty()) {
+                        DocumentSnapshot userDoc = querySnapshot.getDocuments().get(0);
+                        // Try different field names for the custom user ID, then the document ID
+                        String customUserId = userDoc.getString("uid");
+                        if (customUserId == null) customUserId = userDoc.getString("userId");
+                        if (customUserId == null) customUserId = userDoc.getId();
+                        finish(source, uid, email, customUserId);
+                        return;
+                    }
+                    // Legacy profiles: document id is the email's local part (user01@example.com -> user01)
+                    String potentialUserId = email.split("@")[0];
+                    db.collection("users").document(potentialUserId).get()
+                            .addOnSuccessListener(doc -> {
+                                if (doc.exists() && email.equals(doc.getString("email"))) {
+                                    finish(source, uid, email, potentialUserId);
+                                } else {
+                                    fail(source, new ProfileNotFoundException(
+                                            "User profile not found in database. Please contact support."));
+                                }
+                            })
+                            .addOnFailureListener(e -> fail(source, e));
+                })
+                .addOnFailureListener(e -> fail(source, e));
+        return source.getTask();
+    }
+
+    /** Forgets the cached mapping; call on sign-out or account deletion. */
+    public void clear() {
+        prefs.edit().clear().apply();
+        inFlight = null;
+        inFlightUid = null;
+    }
+
+    private void finish(TaskCompletionSource<String> source, String uid, String email, String customUserId) {
+        if (inFlight == source) {
+            prefs.edit()
+                    .putString(KEY_UID, uid)
+                    .putString(KEY_EMAIL, email)
+                    .putString(KEY_CUSTOM_ID, customUserId)
+                    .apply();
+            inFlight = null;
+            inFlightUid = null;
+        }
+        Log.d(TAG, "Resolved custom user ID " + customUserId + " for " + email);
+        source.setResult(customUserId);
+    }
+
+    private void fail(TaskCompletionSource<String> source, Exception e) {
+        if (inFlight == source) {
+            inFlight = null;
+            inFlightUid = null;
+        }
+        Log.e(TAG, "Error resolving custom user ID", e);
+        source.setException(e);
+    }
+}
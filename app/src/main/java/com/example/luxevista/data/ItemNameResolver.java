@@ -0,0 +1,147 @@
+package com.example.luxevista.data;
+
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import com.example.luxevista.NewBooking;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves room/service ids to display names with batched {@code whereIn(documentId)} queries.
+ * Resolved names are kept in a process-wide LRU shared by the bookings list and booking details.
+ */
+public final class ItemNameResolver {
+
+    private static final String TAG = "ItemNameResolver";
+    private static final int MAX_ENTRIES = 256;
+
+    private static ItemNameResolver rooms;
+    private static ItemNameResolver services;
+
+    private final String collection;
+    private final LruCache<String, String> names = new LruCache<>(MAX_ENTRIES);
+
+    private ItemNameResolver(String collection) {
+        this.collection = collection;
+    }
+
+    public static synchronized ItemNameResolver rooms() {
+        if (rooms == null) rooms = new ItemNameResolver("rooms");
+        return rooms;
+    }
+
+    public static synchronized ItemNameResolver services() {
+        if (services == null) services = new ItemNameResolver("services");
+        return services;
+    }
+
+    @Nullable
+    public String peek(String id) {
+        return id != null ? names.get(id) : null;
+    }
+
+    public void put(String id, String name) {
+        if (id != null && !TextUtils.isEmpty(name)) names.put(id, name);
+    }
+
+    /**
+     * Resolves the given ids, querying only those not already cached. Ids that cannot be
+     * resolved are simply absent from the result map.
+     */
+    public Task<Map<String, String>> resolve(Collection<String> ids) {
+        Map<String, String> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (TextUtils.isEmpty(id)) continue;
+            String cached = names.get(id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Tasks.forResult(result);
+        }
+
+        List<Task<QuerySnapshot>> chunks = DocumentBatches.fetchByIds(collection, missing);
+        Log.d(TAG, collection + ": resolving " + missing.size() + " names in " + chunks.size() + " queries");
+
+        return Tasks.whenAllComplete(chunks).continueWith(done -> {
+            for (Task<QuerySnapshot> chunk : chunks) {
+                if (!chunk.isSuccessful() || chunk.getResult() == null) {
+                    Log.e(TAG, collection + ": name lookup failed", chunk.getException());
+                    continue;
+                }
+                for (DocumentSnapshot doc : chunk.getResult().getDocuments()) {
+                    String name = doc.getString("name");
+                    if (!TextUtils.isEmpty(name)) {
+                        names.put(doc.getId(), name);
+                        result.put(doc.getId(), name);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Fills in room and service names on line items that were written without one.
+     * Issues at most one query per 30 unknown ids per collection, regardless of booking count.
+     */
+    public static Task<Void> resolveBookingNames(List<NewBooking> bookings) {
+        Set<String> roomIds = new LinkedHashSet<>();
+        Set<String> serviceIds = new LinkedHashSet<>();
+        for (NewBooking booking : bookings) {
+            if (booking.getRooms() != null) {
+                for (NewBooking.RoomBooking room : booking.getRooms()) {
+                    // Names written at booking time need no lookup
+                    if (TextUtils.isEmpty(room.getRoomName())) roomIds.add(room.getRoomId());
+                    else rooms().put(room.getRoomId(), room.getRoomName());
+                }
+            }
+            if (booking.getServices() != null) {
+                for (NewBooking.ServiceBooking service : booking.getServices()) {
+                    if (TextUtils.isEmpty(service.getServiceName())) serviceIds.add(service.getServiceId());
+                    else services().put(service.getServiceId(), service.getServiceName());
+                }
+            }
+        }
+
+        Task<Map<String, String>> roomNames = rooms().resolve(roomIds);
+        Task<Map<String, String>> serviceNames = services().resolve(serviceIds);
+        return Tasks.whenAllComplete(roomNames, serviceNames).continueWith(done -> {
+            Map<String, String> rn = roomNames.isSuccessful() ? roomNames.getResult() : new HashMap<>();
+            Map<String, String> sn = serviceNames.isSuccessful() ? serviceNames.getResult() : new HashMap<>();
+            for (NewBooking booking : bookings) {
+                if (booking.getRooms() != null) {
+                    for (NewBooking.RoomBooking room : booking.getRooms()) {
+                        String name = rn.get(room.getRoomId());
+                        if (name != null) room.setRoomName(name);
+                    }
+                }
+                if (booking.getServices() != null) {
+                    for (NewBooking.ServiceBooking service : booking.getServices()) {
+                        String name = sn.get(service.getServiceId());
+                        if (name != null) service.setServiceName(name);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
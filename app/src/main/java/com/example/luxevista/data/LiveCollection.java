@@ -0,0 +1,105 @@
+package com.example.luxevista.data;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot-listener backed view of a catalog collection.
+ *
+ * Subscribes once and applies each {@link DocumentChange} to an in-memory map keyed by document id,
+ * so later updates cost only the changed documents. Callers re-filter {@link #items()} locally
+ * (e.g. when the selected dates change) instead of querying again. Main thread only.
+ */
+public class LiveCollection<T> {
+
+    private static final String TAG = "LiveCollection";
+
+    public interface Listener<T> {
+        void onChanged(List<T> items);
+    }
+
+    private final String name;
+    private final CatalogRepository.QueryFactory queryFactory;
+    private final CatalogRepository.Parser<T> parser;
+    @Nullable private final Comparator<T> order;
+
+    private final Map<String, T> byId = new LinkedHashMap<>();
+    private List<T> items = Collections.emptyList();
+    private boolean ready;
+    private ListenerRegistration registration;
+
+    LiveCollection(String name, CatalogRepository.QueryFactory queryFactory,
+                   CatalogRepository.Parser<T> parser, @Nullable Comparator<T> order) {
+        this.name = name;
+        this.queryFactory = queryFactory;
+        this.parser = parser;
+        this.order = order;
+    }
+
+    /** Starts listening; the listener is called after the initial snapshot and after every change. */
+    public void start(Listener<T> listener) {
+        if (registration != null) return;
+        registration = queryFactory.create(FirebaseFirestore.getInstance())
+                .addSnapshotListener((snap, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, name + ": listen failed", e);
+                        return;
+                    }
+                    if (snap == null) return;
+                    for (DocumentChange change : snap.getDocumentChanges()) {
+                        String id = change.getDocument().getId();
+                        if (change.getType() == DocumentChange.Type.REMOVED) {
+                            byId.remove(id);
+                            continue;
+                        }
+                        T item = null;
+                        try {
+                            item = parser.parse(change.getDocument());
+                        } catch (Exception ex) {
+                            Log.e(TAG, name + ": error parsing document " + id, ex);
+                        }
+                        // A document that no longer parses (e.g. hidden) drops out of the model
+                        if (item != null) byId.put(id, item);
+                        else byId.remove(id);
+                    }
+                    rebuild();
+                    ready = true;
+                    Log.d(TAG, name + ": applied " + snap.getDocumentChanges().size() + " changes, " + items.size() + " items");
+                    listener.onChanged(items);
+                });
+    }
+
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    /** True once the first snapshot has been applied. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    private void rebuild() {
+        List<T> list = new ArrayList<>(byId.values());
+        if (order != null) Collections.sort(list, order);
+        items = Collections.unmodifiableList(list);
+    }
+}
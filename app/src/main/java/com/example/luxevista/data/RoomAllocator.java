@@ -0,0 +1,67 @@
+package com.example.luxevista.data;
+
+import androidx.annotation.Nullable;
+
+import com.example.luxevista.Money;
+import com.example.luxevista.models.Room;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cheapest set of rooms that sleeps a whole party for a stay. Each room type offers the rooms it
+ * has free on every night; {@link RoomKnapsack} picks among them.
+ */
+public final class RoomAllocator {
+
+    /** Largest party the app finds rooms for. */
+    public static final int MAX_GUESTS = RoomKnapsack.MAX_GUESTS;
+
+    public static final class Pick {
+        public final Room room;
+        public final int quantity;
+
+        Pick(Room room, int quantity) {
+            this.room = room;
+            this.quantity = quantity;
+        }
+    }
+
+    public static final class Allocation {
+        public final List<Pick> picks;
+        public final long totalMinor;
+
+        Allocation(List<Pick> picks, long totalMinor) {
+            this.picks = picks;
+            this.totalMinor = totalMinor;
+        }
+    }
+
+    private RoomAllocator() {}
+
+    /** Rooms for {@code guests} over the stay, or null if the free inventory cannot hold them. */
+    @Nullable
+    public static Allocation suggest(List<Room> rooms, int guests, int firstNight, int nights) {
+        int[] sleeps = new int[rooms.size()];
+        long[] cost = new long[rooms.size()];
+        int[] available = new int[rooms.size()];
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            sleeps[i] = room.getMaxGuests();
+            cost[i] = Money.toMinor(room.getPricePerNight()) * nights;
+            available[i] = room.getCalendar().minRemaining(firstNight, nights);
+        }
+        int[] quantities = RoomKnapsack.solve(guests, sleeps, cost, available);
+        if (quantities == null) return null;
+
+        List<Pick> picks = new ArrayList<>();
+        long total = 0L;
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] == 0) continue;
+            picks.add(new Pick(rooms.get(i), quantities[i]));
+            total += cost[i] * quantities[i];
+        }
+        return new Allocation(Collections.unmodifiableList(picks), total);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.luxevista.data;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The solver behind {@link RoomAllocator}, over plain arrays so it runs in local tests and JVM
+ * benchmarks.
+ *
+ * Bounded knapsack over the guest count: each room type may be used up to the number of rooms it
+ * has free on every night of the stay, and each count is split into powers of two so the DP runs
+ * in O(guests x sum(log available)). Among equally cheap answers the one with fewer rooms wins.
+ */
+final class RoomKnapsack {
+
+    /** Larger parties are split by the front desk, not in the app. */
+    static final int MAX_GUESTS = 64;
+
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private RoomKnapsack() {}
+
+    /**
+     * How many of each room type to take so the rooms sleep at least {@code guests} at the lowest
+     * total cost, or null if no combination fits. Types that sleep nobody or have nothing free are
+     * never picked.
+     */
+    @Nullable
+    static int[] solve(int guests, int[] sleeps, long[] cost, int[] available) {
+        if (guests <= 0) return new int[sleeps.length];
+        if (guests > MAX_GUESTS) return null;
+
+        // Split each type's count into 1, 2, 4, ... bundles so every count up to it is reachable
+        List<int[]> bundles = new ArrayList<>(); // {type, rooms}
+        for (int type = 0; type < sleeps.length; type++) {
+            if (sleeps[type] <= 0 || available[type] <= 0) continue;
+            // More rooms of one type than the party could fill never help
+            int usable = Math.min(available[type], (guests + sleeps[type] - 1) / sleeps[type]);
+            for (int size = 1; usable > 0; size <<= 1) {
+                int take = Math.min(size, usable);
+                bundles.add(new int[] {type, take});
+                usable -= take;
+            }
+        }
+
+        // best[g]: cheapest way to sleep at least g guests, capped at the party size
+        long[] best = new long[guests + 1];
+        int[] roomCount = new int[guests + 1];
+        Arrays.fill(best, UNREACHABLE);
+        best[0] = 0L;
+        // from[b][g]: the state bundle b improved g from, or -1 if it did not
+        short[][] from = new short[bundles.size()][guests + 1];
+        for (int b = 0; b < bundles.size(); b++) {
+            Arrays.fill(from[b], (short) -1);
+            int type = bundles.get(b)[0];
+            int rooms = bundles.get(b)[1];
+            int beds = sleeps[type] * rooms;
+            long price = cost[type] * rooms;
+            // Downwards, so each bundle is used at most once
+            for (int g = guests - 1; g >= 0; g--) {
+                if (best[g] == UNREACHABLE) continue;
+                int reach = Math.min(guests, g + beds);
+                long candidate = best[g] + price;
+                int candidateRooms = roomCount[g] + rooms;
+                if (candidate < best[reach] || (candidate == best[reach] && candidateRooms < roomCount[reach])) {
+                    best[reach] = candidate;
+                    roomCount[reach] = candidateRooms;
+                    from[b][reach] = (short) g;
+                }
+            }
+        }
+        if (best[guests] == UNREACHABLE) return null;
+
+        int[] quantities = new int[sleeps.length];
+        int g = guests;
+        for (int b = bundles.size() - 1; b >= 0 && g > 0; b--) {
+            if (from[b][g] < 0) continue;
+            quantities[bundles.get(b)[0]] += bundles.get(b)[1];
+            g = from[b][g];
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.luxevista.data;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Word-prefix search over catalog text (names, types, descriptions).
+ *
+ * Each item's text is split into lower-case words once, when the item is indexed. The index keeps
+ * a sorted dictionary of those words, each with a sorted posting list of the items using it, so
+ * every word starting with a query word sits in one contiguous run of the dictionary. Each query
+ * word's postings are OR-ed into a bitset and the bitsets of a multi-word query are AND-ed.
+ *
+ * {@link #update} diffs a list against what is indexed by id and re-tokenizes only the items whose
+ * text changed. {@link #search} compares the query characters in place and reuses its scratch
+ * buffers, so matching allocates no strings per word or item. Safe to call from any thread.
+ */
+public final class SearchIndex<T> {
+
+    private static final String TAG = "SearchIndex";
+
+    /** How an item is identified and what text of it is searchable. */
+    public interface Schema<T> {
+        String idOf(T item);
+
+        /** The searchable fields; null entries are skipped. */
+        String[] textOf(T item);
+    }
+
+    private static final int[] NO_INTS = new int[0];
+
+    private final Schema<T> schema;
+
+    // Items live in slots, which are reused once freed; postings refer to slots
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<T> itemBySlot = new ArrayList<>();
+    private final List<String[]> textBySlot = new ArrayList<>();
+    private final List<String[]> termsBySlot = new ArrayList<>();
+    private int[] freeSlots = new int[8];
+    private int freeCount;
+
+    // Sorted dictionary; postings[i] belongs to terms[i]
+    private String[] terms = new String[64];
+    private Postings[] postings = new Postings[64];
+    private int termCount;
+
+    // The list last passed to update, so results keep its order
+    private List<T> ordered = Collections.emptyList();
+    private int[] rankBySlot = NO_INTS;
+
+    // Query scratch, sized by update
+    private long[] matched = new long[0];
+    private long[] wordMatches = new long[0];
+    private int[] ranks = NO_INTS;
+
+    public SearchIndex(Schema<T> schema) {
+        this.schema = schema;
+    }
+
+    /** Makes the index hold exactly {@code items}, in their order. Items without an id are not searchable. */
+    public synchronized void update(List<T> items) {
+        Set<String> listed = new HashSet<>();
+        int reindexed = 0;
+        for (T item : items) {
+            String id = schema.idOf(item);
+            if (id == null || !listed.add(id)) continue;
+            String[] text = schema.textOf(item);
+            Integer slot = slotById.get(id);
+            if (slot == null) {
+                slot = allocateSlot();
+                slotById.put(id, slot);
+                index(slot, text);
+                reindexed++;
+            } else if (!Arrays.equals(text, textBySlot.get(slot))) {
+                unindex(slot);
+                index(slot, text);
+                reindexed++;
+            }
+            itemBySlot.set(slot, item);
+        }
+
+        Iterator<Map.Entry<String, Integer>> it = slotById.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            if (listed.contains(entry.getKey())) continue;
+            int slot = entry.getValue();
+            unindex(slot);
+            itemBySlot.set(slot, null);
+            textBySlot.set(slot, null);
+            freeSlot(slot);
+            it.remove();
+        }
+
+        List<T> order = new ArrayList<>(slotById.size());
+        rankBySlot = new int[itemBySlot.size()];
+        Arrays.fill(rankBySlot, -1);
+        for (T item : items) {
+            String id = schema.idOf(item);
+            Integer slot = id != null ? slotById.get(id) : null;
+            if (slot == null || rankBySlot[slot] >= 0) continue;
+            rankBySlot[slot] = order.size();
+            order.add(item);
+        }
+        ordered = Collections.unmodifiableList(order);
+
+        int words = wordsFor(itemBySlot.size());
+        if (matched.length < words) {
+            matched = new long[words];
+            wordMatches = new long[words];
+        }
+        if (ranks.length < order.size()) ranks = new int[order.size()];
+        if (reindexed > 0) {
+            Log.d(TAG, "Indexed " + reindexed + " of " + order.size() + " items, " + termCount + " terms");
+        }
+    }
+
+    /**
+     * Adds the items that have, for every word of {@code query}, a word starting with it, in the
+     * order of the list last passed to {@link #update}. A query without words matches everything.
+     */
+    public synchronized void search(CharSequence query, List<T> into) {
+        int words = wordsFor(itemBySlot.size());
+        boolean first = true;
+        int start = -1;
+        for (int i = 0; i <= query.length(); i++) {
+            if (i < query.length() && Character.isLetterOrDigit(query.charAt(i))) {
+                if (start < 0) start = i;
+                continue;
+            }
+            if (start < 0) continue;
+            if (first) {
+                collect(query, start, i, matched, words);
+                first = false;
+            } else {
+                collect(query, start, i, wordMatches, words);
+                for (int w = 0; w < words; w++) matched[w] &= wordMatches[w];
+            }
+            start = -1;
+        }
+        if (first) {
+            into.addAll(ordered);
+            return;
+        }
+
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            long bits = matched[w];
+            while (bits != 0L) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ranks[count++] = rankBySlot[slot];
+            }
+        }
+        Arrays.sort(ranks, 0, count);
+        for (int i = 0; i < count; i++) into.add(ordered.get(ranks[i]));
+    }
+
+    /** Sets the bit of every slot with a word starting with query[from, to). */
+    private void collect(CharSequence query, int from, int to, long[] bits, int words) {
+        Arrays.fill(bits, 0, words, 0L);
+        for (int t = lowerBound(query, from, to); t < termCount && startsWith(terms[t], query, from, to); t++) {
+            Postings list = postings[t];
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.slots[i];
+                bits[slot >>> 6] |= 1L << slot;
+            }
+        }
+    }
+
+    /** First dictionary position whose term is not below the lower-cased query[from, to). */
+    private int lowerBound(CharSequence query, int from, int to) {
+        int lo = 0;
+        int hi = termCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(terms[mid], query, from, to) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int compare(String term, CharSequence query, int from, int to) {
+        int length = to - from;
+        int shared = Math.min(term.length(), length);
+        for (int i = 0; i < shared; i++) {
+            char a = term.charAt(i);
+            char b = Character.toLowerCase(query.charAt(from + i));
+            if (a != b) return a - b;
+        }
+        return term.length() - length;
+    }
+
+    private static boolean startsWith(String term, CharSequence query, int from, int to) {
+        if (term.length() < to - from) return false;
+        for (int i = from; i < to; i++) {
+            if (term.charAt(i - from) != Character.toLowerCase(query.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private void index(int slot, String[] text) {
+        Set<String> distinct = new HashSet<>();
+        for (String field : text) {
+            if (field != null) tokenize(field, distinct);
+        }
+        String[] slotTerms = distinct.toArray(new String[0]);
+        for (String term : slotTerms) {
+            int at = Arrays.binarySearch(terms, 0, termCount, term);
+            if (at < 0) {
+                at = -at - 1;
+                insertTerm(at, term);
+            }
+            postings[at].add(slot);
+        }
+        textBySlot.set(slot, text);
+        termsBySlot.set(slot, slotTerms);
+    }
+
+    private void unindex(int slot) {
+        for (String term : termsBySlot.get(slot)) {
+            int at = Arrays.binarySearch(terms, 0, termCount, term);
+            if (at < 0) continue;
+            postings[at].remove(slot);
+            if (postings[at].size == 0) removeTerm(at);
+        }
+        termsBySlot.set(slot, null);
+    }
+
+    private void insertTerm(int at, String term) {
+        if (termCount == terms.length) {
+            terms = Arrays.copyOf(terms, termCount * 2);
+            postings = Arrays.copyOf(postings, termCount * 2);
+        }
+        System.arraycopy(terms, at, terms, at + 1, termCount - at);
+        System.arraycopy(postings, at, postings, at + 1, termCount - at);
+        terms[at] = term;
+        postings[at] = new Postings();
+        termCount++;
+    }
+
+    private void removeTerm(int at) {
+        termCount--;
+        System.arraycopy(terms, at + 1, terms, at, termCount - at);
+        System.arraycopy(postings, at + 1, postings, at, termCount - at);
+        terms[termCount] = null;
+        postings[termCount] = null;
+    }
+
+    /** Lower-cased runs of letters and digits, the same words {@link #search} looks for. */
+    private static void tokenize(String text, Set<String> into) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                if (start < 0) start = i;
+                continue;
+            }
+            if (start < 0) continue;
+            StringBuilder word = new StringBuilder(i - start);
+            for (int j = start; j < i; j++) word.append(Character.toLowerCase(text.charAt(j)));
+            into.add(word.toString());
+            start = -1;
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        itemBySlot.add(null);
+        textBySlot.add(null);
+        termsBySlot.add(null);
+        return itemBySlot.size() - 1;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private static int wordsFor(int slots) {
+        return (slots + 63) >>> 6;
+    }
+
+    /** Sorted slots of the items using one term. */
+    private static final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) return;
+            at = -at - 1;
+            if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            slots[at] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at < 0) return;
+            size--;
+            System.arraycopy(slots, at + 1, slots, at, size - at);
+        }
+    }
+}
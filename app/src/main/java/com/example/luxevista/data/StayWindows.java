@@ -0,0 +1,31 @@
+package com.example.luxevista.data;
+
+/**
+ * The window scan behind {@link FlexibleDateSearch}, kept to plain Java so it runs in local tests
+ * and JVM benchmarks.
+ */
+final class StayWindows {
+
+    /** Remaining rooms per night, by epoch day. */
+    interface Nights {
+        int remainingOn(int epochDay);
+    }
+
+    private StayWindows() {}
+
+    /**
+     * The earliest first night from {@code fromDay} within {@code horizonDays} days with
+     * {@code nights} consecutive nights of at least {@code quantity} left, or Integer.MIN_VALUE.
+     */
+    static int earliestFit(Nights remaining, int fromDay, int horizonDays, int nights, int quantity) {
+        if (nights <= 0 || horizonDays <= 0) return Integer.MIN_VALUE;
+        // Exclusive: the last window starts on fromDay + horizonDays - 1
+        int endDay = fromDay + horizonDays + nights - 1;
+        int run = 0;
+        for (int day = fromDay; day < endDay; day++) {
+            run = remaining.remainingOn(day) >= quantity ? run + 1 : 0;
+            if (run == nights) return day - nights + 1;
+        }
+        return Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.luxevista.data;
+
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves user ids to display names for testimonials. Lookups are deduped and batched with
+ * {@code whereIn(documentId)}; names are cached in a bounded LRU and expire after a TTL so
+ * profile renames eventually show up.
+ */
+public final class UserProfileResolver {
+
+    private static final String TAG = "UserProfileResolver";
+    private static final int MAX_ENTRIES = 200;
+    private static final long TTL_MS = 30 * 60 * 1000L;
+
+    /** Receives names as they become available; called on the main thread, possibly several times. */
+    public interface OnNamesResolved {
+        void onNamesResolved(Map<String, String> names);
+    }
+
+    private static final class Entry {
+        final String name;
+        final long fetchedAt;
+
+        Entry(String name, long fetchedAt) {
+            this.name = name;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private static UserProfileResolver instance;
+
+    private final LruCache<String, Entry> cache = new LruCache<>(MAX_ENTRIES);
+
+    private UserProfileResolver() {}
+
+    public static synchronized UserProfileResolver getInstance() {
+        if (instance == null) instance = new UserProfileResolver();
+        return instance;
+    }
+
+    /** Returns the cached name if it is still within the TTL, otherwise null. */
+    @Nullable
+    public String peek(String userId) {
+        if (userId == null) return null;
+        Entry entry = cache.get(userId);
+        if (entry == null) return null;
+        if (SystemClock.elapsedRealtime() - entry.fetchedAt > TTL_MS) {
+            cache.remove(userId);
+            return null;
+        }
+        return entry.name;
+    }
+
+    /**
+     * Resolves display names for the given user ids. Cached names are delivered synchronously,
+     * then the listener is called again as each batch of up to 30 ids comes back, so callers can
+     * render progressively. The returned task completes once every batch has finished.
+     */
+    public Task<Void> resolve(Collection<String> userIds, OnNamesResolved listener) {
+        Map<String, String> cached = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String userId : new LinkedHashSet<>(userIds)) {
+            if (TextUtils.isEmpty(userId)) continue;
+            String name = peek(userId);
+            if (name != null) {
+                cached.put(userId, name);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!cached.isEmpty()) listener.onNamesResolved(cached);
+        if (missing.isEmpty()) return Tasks.forResult(null);
+
+        List<Task<Void>> chunks = new ArrayList<>();
+        for (Task<QuerySnapshot> query : DocumentBatches.fetchByIds("users", missing)) {
+            chunks.add(query.continueWith(task -> {
+                // A failed batch leaves its names unresolved; the others still render
+                if (!task.isSuccessful() || task.getResult() == null) {
+                    Log.e(TAG, "Error fetching user names", task.getException());
+                    return null;
+                }
+                QuerySnapshot snap = task.getResult();
+                long now = SystemClock.elapsedRealtime();
+                Map<String, String> resolved = new HashMap<>();
+                for (DocumentSnapshot doc : snap.getDocuments()) {
+                    String name = doc.getString("name");
+                    if (!TextUtils.isEmpty(name)) {
+                        cache.put(doc.getId(), new Entry(name, now));
+                        resolved.put(doc.getId(), name);
+                    }
+                }
+                if (!resolved.isEmpty()) listener.onNamesResolved(resolved);
+                return null;
+            }));
+        }
+        Log.d(TAG, "Resolving " + missing.size() + " user names in " + chunks.size() + " queries");
+        return Tasks.whenAllComplete(chunks).continueWith(done -> null);
+    }
+}
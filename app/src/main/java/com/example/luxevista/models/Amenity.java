@@ -0,0 +1,107 @@
+package com.example.luxevista.models;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.Nullable;
+
+import com.example.luxevista.R;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The room amenities the app knows about: Firestore key, labels and icon, plus a bit in a
+ * {@code long} mask. Rooms decode their amenity map into a mask once, so showing, filtering and
+ * counting amenities are bit operations rather than map lookups.
+ */
+public final class Amenity {
+
+    public final String key;
+    /** Full name, for lists and the filter dialog. */
+    public final String label;
+    /** Compact name, for chips and the details grid. */
+    public final String shortLabel;
+    @DrawableRes public final int iconRes;
+    public final int index;
+    public final long bit;
+
+    private static final List<Amenity> REGISTRY = new ArrayList<>();
+    private static final Map<String, Amenity> BY_KEY = new HashMap<>();
+
+    public static final Amenity WIFI = register("wifi", "WiFi", "WiFi", R.drawable.amenities_wifi);
+    public static final Amenity AIR_CONDITIONING = register("airConditioning", "Air Conditioning", "AC",
+            R.drawable.amenities_air_conditioning);
+    public static final Amenity TELEVISION = register("television", "Television", "TV", R.drawable.amenities_television);
+    public static final Amenity ROOM_SERVICE = register("roomService", "Room Service", "Room Service",
+            R.drawable.amenities_room_service);
+    public static final Amenity NON_SMOKING = register("nonSmoking", "Non-Smoking", "Non-Smoking",
+            R.drawable.amenities_non_smoking);
+    public static final Amenity WHEELCHAIR_ACCESSIBLE = register("wheelchairAccessible", "Wheelchair Accessible",
+            "Accessible", R.drawable.amenities_wheelchair_accessible);
+    public static final Amenity BALCONY = register("balcony", "Balcony", "Balcony", R.drawable.amenities_balcony);
+    public static final Amenity OCEAN_VIEW = register("oceanView", "Ocean View", "Ocean View",
+            R.drawable.amenities_ocean_view);
+    public static final Amenity KING_BED = register("kingBed", "King Bed", "King Bed", R.drawable.amenities_king_bed);
+    public static final Amenity COFFEE_MAKER = register("coffeeMaker", "Coffee Maker", "Coffee Maker",
+            R.drawable.amenities_coffee_maker);
+    public static final Amenity MINI_BAR = register("miniBar", "Mini Bar", "Mini Bar", R.drawable.amenities_mini_bar);
+    public static final Amenity SAFE = register("safe", "Safe", "Safe", R.drawable.amenities_safe);
+    public static final Amenity JACUZZI = register("jacuzzi", "Jacuzzi", "Jacuzzi", R.drawable.amenities_jacuzzi);
+
+    /** Every amenity, in display order; index i has bit {@code 1L << i}. */
+    public static final List<Amenity> ALL = Collections.unmodifiableList(REGISTRY);
+
+    private Amenity(String key, String label, String shortLabel, int iconRes, int index) {
+        this.key = key;
+        this.label = label;
+        this.shortLabel = shortLabel;
+        this.iconRes = iconRes;
+        this.index = index;
+        this.bit = 1L << index;
+    }
+
+    private static Amenity register(String key, String label, String shortLabel, int iconRes) {
+        if (REGISTRY.size() == Long.SIZE) throw new IllegalStateException("Amenity mask is full");
+        Amenity amenity = new Amenity(key, label, shortLabel, iconRes, REGISTRY.size());
+        REGISTRY.add(amenity);
+        BY_KEY.put(key, amenity);
+        return amenity;
+    }
+
+    @Nullable
+    public static Amenity forKey(String key) {
+        return BY_KEY.get(key);
+    }
+
+    /** The short label of a known key, or the key itself. */
+    public static String shortLabelOf(String key) {
+        Amenity amenity = BY_KEY.get(key);
+        return amenity != null ? amenity.shortLabel : key;
+    }
+
+    public static long maskOf(@Nullable Collection<String> keys) {
+        long mask = 0L;
+        if (keys == null) return mask;
+        for (String key : keys) {
+            Amenity amenity = BY_KEY.get(key);
+            if (amenity != null) mask |= amenity.bit;
+        }
+        return mask;
+    }
+
+    /** Amenities in {@code mask}, in display order. */
+    public static List<Amenity> listOf(long mask) {
+        List<Amenity> amenities = new ArrayList<>(Long.bitCount(mask));
+        for (Amenity amenity : REGISTRY) {
+            if ((mask & amenity.bit) != 0L) amenities.add(amenity);
+        }
+        return amenities;
+    }
+
+    public boolean isIn(long mask) {
+        return (mask & bit) != 0L;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.luxevista.models;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Remaining capacity per day over an epoch-day range, kept in min and max segment trees.
+ *
+ * Built once from the string-keyed Firestore availability maps; after that, "min/max remaining over
+ * [firstNight, firstNight + nights)" is O(log n) array reads with no parsing or allocation, and a
+ * changed booked count updates a single day in place in O(log n). Days outside the stored range have
+ * the item's unbooked capacity. Not thread-safe; models are used from the main thread.
+ */
+public final class AvailabilityCalendar {
+
+    /** Remaining capacity for one "yyyy-MM-dd" key, using the model's own rules. */
+    interface DayRemaining {
+        int remaining(String dateKey);
+    }
+
+    private int firstDay;
+    private int size;
+    // Iterative segment trees: leaves at [size, 2 * size), node i covers children 2i and 2i + 1
+    private int[] minTree;
+    private int[] maxTree;
+    private final int unbooked;
+
+    private AvailabilityCalendar(int firstDay, int[] remaining, int unbooked) {
+        this.unbooked = unbooked;
+        init(firstDay, remaining);
+    }
+
+    static AvailabilityCalendar build(Collection<String> dateKeys, DayRemaining day, int unbooked) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (String key : dateKeys) {
+            int epochDay = DateKeys.epochDay(key);
+            if (epochDay == Integer.MIN_VALUE) continue;
+            min = Math.min(min, epochDay);
+            max = Math.max(max, epochDay);
+        }
+        if (min > max) return new AvailabilityCalendar(0, new int[0], unbooked);
+
+        int[] remaining = new int[max - min + 1];
+        Arrays.fill(remaining, unbooked);
+        for (String key : dateKeys) {
+            int epochDay = DateKeys.epochDay(key);
+            if (epochDay != Integer.MIN_VALUE) remaining[epochDay - min] = day.remaining(key);
+        }
+        return new AvailabilityCalendar(min, remaining, unbooked);
+    }
+
+    private void init(int firstDay, int[] remaining) {
+        this.firstDay = firstDay;
+        this.size = remaining.length;
+        minTree = new int[2 * size];
+        maxTree = new int[2 * size];
+        System.arraycopy(remaining, 0, minTree, size, size);
+        System.arraycopy(remaining, 0, maxTree, size, size);
+        for (int i = size - 1; i >= 1; i--) {
+            minTree[i] = Math.min(minTree[2 * i], minTree[2 * i + 1]);
+            maxTree[i] = Math.max(maxTree[2 * i], maxTree[2 * i + 1]);
+        }
+    }
+
+    public int remainingOn(int epochDay) {
+        int i = epochDay - firstDay;
+        return i >= 0 && i < size ? minTree[size + i] : unbooked;
+    }
+
+    /** Lowest remaining capacity over {@code nights} consecutive days; 0 for an empty stay. */
+    public int minRemaining(int firstNight, int nights) {
+        if (nights <= 0) return 0;
+        int from = firstNight - firstDay;
+        int to = from + nights;
+        int min = from < 0 || to > size ? unbooked : Integer.MAX_VALUE;
+        from = Math.max(from, 0);
+        to = Math.min(to, size);
+        for (from += size, to += size; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) min = Math.min(min, minTree[from++]);
+            if ((to & 1) == 1) min = Math.min(min, minTree[--to]);
+        }
+        return min;
+    }
+
+    /** Highest remaining capacity over {@code nights} consecutive days; 0 for an empty stay. */
+    public int maxRemaining(int firstNight, int nights) {
+        if (nights <= 0) return 0;
+        int from = firstNight - firstDay;
+        int to = from + nights;
+        int max = from < 0 || to > size ? unbooked : 0;
+        from = Math.max(from, 0);
+        to = Math.min(to, size);
+        for (from += size, to += size; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) max = Math.max(max, maxTree[from++]);
+            if ((to & 1) == 1) max = Math.max(max, maxTree[--to]);
+        }
+        return max;
+    }
+
+    /** Sets one day's remaining capacity in place, growing the stored range if needed. */
+    void set(int epochDay, int remaining) {
+        if (epochDay < firstDay || epochDay >= firstDay + size) grow(epochDay);
+        int i = size + epochDay - firstDay;
+        minTree[i] = remaining;
+        maxTree[i] = remaining;
+        for (i >>= 1; i >= 1; i >>= 1) {
+            minTree[i] = Math.min(minTree[2 * i], minTree[2 * i + 1]);
+            maxTree[i] = Math.max(maxTree[2 * i], maxTree[2 * i + 1]);
+        }
+    }
+
+    private void grow(int epochDay) {
+        int newFirst = size == 0 ? epochDay : Math.min(firstDay, epochDay);
+        int newLast = size == 0 ? epochDay : Math.max(firstDay + size - 1, epochDay);
+        int[] remaining = new int[newLast - newFirst + 1];
+        Arrays.fill(remaining, unbooked);
+        if (size > 0) System.arraycopy(minTree, size, remaining, firstDay - newFirst, size);
+        init(newFirst, remaining);
+    }
+}
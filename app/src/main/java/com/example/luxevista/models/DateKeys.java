@@ -0,0 +1,161 @@
+package com.example.luxevista.models;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * The "yyyy-MM-dd" and "HH:mm" keys used by availability maps, shards and bookings.
+ *
+ * Replaces per-call SimpleDateFormat instances: conversions are integer arithmetic, and formatted
+ * keys for 2020-2059 and every minute of the day come from tables filled on first use, so
+ * formatting a cached key allocates nothing. Safe to call from any thread; two threads racing to
+ * fill the same table entry store equal immutable strings.
+ */
+public final class DateKeys {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final long MILLIS_PER_MINUTE = 60L * 1000;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int TABLE_FIRST_DAY = epochDay(2020, 1, 1);
+    private static final int TABLE_DAYS = epochDay(2060, 1, 1) - TABLE_FIRST_DAY;
+    private static final String[] DATE_KEYS = new String[TABLE_DAYS];
+    private static final String[] TIME_KEYS = new String[MINUTES_PER_DAY];
+
+    private DateKeys() {}
+
+    /** Days since 1970-01-01 for a proleptic Gregorian date; month is 1-12. */
+    public static int epochDay(int year, int month, int dayOfMonth) {
+        // Shift the year to start in March so the leap day is the last day of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /** Parses "yyyy-MM-dd" without allocating; returns Integer.MIN_VALUE if malformed or not a real date. */
+    public static int epochDay(String dateKey) {
+        if (dateKey == null || dateKey.length() != 10 || dateKey.charAt(4) != '-' || dateKey.charAt(7) != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int year = digits(dateKey, 0, 4);
+        int month = digits(dateKey, 5, 7);
+        int day = digits(dateKey, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return Integer.MIN_VALUE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /** The calendar day of an instant in the device's time zone. */
+    public static int epochDay(Date date) {
+        return epochDay(date.getTime(), TimeZone.getDefault());
+    }
+
+    public static int epochDay(long millis, TimeZone zone) {
+        return (int) floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    /** Formats an epoch day as "yyyy-MM-dd". */
+    public static String dateKey(int epochDay) {
+        int i = epochDay - TABLE_FIRST_DAY;
+        if (i < 0 || i >= TABLE_DAYS) return formatDate(epochDay);
+        String key = DATE_KEYS[i];
+        if (key == null) {
+            key = formatDate(epochDay);
+            DATE_KEYS[i] = key;
+        }
+        return key;
+    }
+
+    /** The "yyyy-MM-dd" key of an instant in the device's time zone. */
+    public static String dateKey(Date date) {
+        return dateKey(epochDay(date));
+    }
+
+    /** Parses "HH:mm" into minutes since midnight; returns -1 if malformed. */
+    public static int minuteOfDay(String timeKey) {
+        if (timeKey == null || timeKey.length() != 5 || timeKey.charAt(2) != ':') return -1;
+        int hour = digits(timeKey, 0, 2);
+        int minute = digits(timeKey, 3, 5);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return -1;
+        return hour * 60 + minute;
+    }
+
+    /** The minute of the day of an instant in the device's time zone. */
+    public static int minuteOfDay(Date date) {
+        long millis = date.getTime();
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        return (int) (local - floorDiv(local, MILLIS_PER_DAY) * MILLIS_PER_DAY) / (int) MILLIS_PER_MINUTE;
+    }
+
+    /** Formats minutes since midnight as "HH:mm". */
+    public static String timeKey(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("minuteOfDay out of range: " + minuteOfDay);
+        }
+        String key = TIME_KEYS[minuteOfDay];
+        if (key == null) {
+            int hour = minuteOfDay / 60;
+            int minute = minuteOfDay % 60;
+            key = new String(new char[] {
+                    (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+                    (char) ('0' + minute / 10), (char) ('0' + minute % 10)});
+            TIME_KEYS[minuteOfDay] = key;
+        }
+        return key;
+    }
+
+    /** The "HH:mm" key of an instant in the device's time zone. */
+    public static String timeKey(Date date) {
+        return timeKey(minuteOfDay(date));
+    }
+
+    private static String formatDate(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        char[] out = new char[10];
+        out[0] = (char) ('0' + year / 1000 % 10);
+        out[1] = (char) ('0' + year / 100 % 10);
+        out[2] = (char) ('0' + year / 10 % 10);
+        out[3] = (char) ('0' + year % 10);
+        out[4] = '-';
+        out[5] = (char) ('0' + month / 10);
+        out[6] = (char) ('0' + month % 10);
+        out[7] = '-';
+        out[8] = (char) ('0' + day / 10);
+        out[9] = (char) ('0' + day % 10);
+        return new String(out);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Math.floorDiv needs API 24
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+    }
+}
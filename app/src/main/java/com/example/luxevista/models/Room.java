@@ -1,6 +1,5 @@
 package com.example.luxevista.models;
 
-import com.example.luxevista.R;
 import com.google.firebase.firestore.Exclude;
 
 import java.text.NumberFormat;
@@ -16,6 +15,9 @@ public class Room {
     private String currency;
     private String description;
     private Map<String, Boolean> amenities;
+    // Decoded from amenities on first use; the volatile count publishes the mask written before it
+    private long amenityMask;
+    private volatile int otherAmenityCount = -1; // true amenities outside the registry, -1 until decoded
     private List<String> imageUrls;
     private int maxGuests;
     private boolean visible;
@@ -25,6 +27,7 @@ public class Room {
     private int availableRooms;
     private int defaultDailyRooms;
     private java.util.Map<String, Long> availability; // date (yyyy-MM-dd) -> booked count
+    private AvailabilityCalendar calendar; // built lazily from availability, reset by the setters
 
     // Default constructor required for Firestore
     public Room() {}
@@ -118,6 +121,7 @@ public class Room {
 
     public void setAmenities(Map<String, Boolean> amenities) {
         this.amenities = amenities;
+        otherAmenityCount = -1;
     }
 
     public void setImageUrls(List<String> imageUrls) {
@@ -134,8 +138,8 @@ public class Room {
 
     public void setTotalRooms(int totalRooms) { this.totalRooms = totalRooms; }
     public void setAvailableRooms(int availableRooms) { this.availableRooms = availableRooms; }
-    public void setDefaultDailyRooms(int defaultDailyRooms) { this.defaultDailyRooms = defaultDailyRooms; }
-    public void setAvailability(java.util.Map<String, Long> availability) { this.availability = availability; }
+    public void setDefaultDailyRooms(int defaultDailyRooms) { this.defaultDailyRooms = defaultDailyRooms; calendar = null; }
+    public void setAvailability(java.util.Map<String, Long> availability) { this.availability = availability; calendar = null; }
 
     // Helper methods
     @Exclude
@@ -151,43 +155,101 @@ public class Room {
 
     @Exclude
     public boolean hasAmenity(String amenityKey) {
-        return amenities != null && amenities.containsKey(amenityKey) && Boolean.TRUE.equals(amenities.get(amenityKey));
+        Amenity amenity = Amenity.forKey(amenityKey);
+        if (amenity != null) return amenity.isIn(getAmenityMask());
+        return amenities != null && Boolean.TRUE.equals(amenities.get(amenityKey));
+    }
+
+    /** Registry amenities the room has, as {@link Amenity#bit}s. */
+    @Exclude
+    public long getAmenityMask() {
+        if (otherAmenityCount < 0) decodeAmenities();
+        return amenityMask;
+    }
+
+    /** Amenities the room has that the app has no icon or label for. */
+    @Exclude
+    public int getOtherAmenityCount() {
+        if (otherAmenityCount < 0) decodeAmenities();
+        return otherAmenityCount;
     }
 
     @Exclude
     public int getAmenityCount() {
-        if (amenities == null) return 0;
-        int count = 0;
-        for (Boolean value : amenities.values()) {
-            if (Boolean.TRUE.equals(value)) {
-                count++;
+        return Long.bitCount(getAmenityMask()) + getOtherAmenityCount();
+    }
+
+    private void decodeAmenities() {
+        long mask = 0L;
+        int other = 0;
+        if (amenities != null) {
+            for (Map.Entry<String, Boolean> entry : amenities.entrySet()) {
+                if (!Boolean.TRUE.equals(entry.getValue())) continue;
+                Amenity amenity = Amenity.forKey(entry.getKey());
+                if (amenity != null) mask |= amenity.bit;
+                else other++;
             }
         }
-        return count;
+        amenityMask = mask;
+        otherAmenityCount = other;
     }
 
     @Exclude
     public int getRemainingForDate(String dateKey) {
+        return remainingGiven(availability != null ? availability.get(dateKey) : null);
+    }
+
+    private int remainingGiven(Long booked) {
         int dailyCapacity = defaultDailyRooms;
         if (dailyCapacity <= 0) return 0;
-        long booked = 0L;
-        if (availability != null && availability.containsKey(dateKey) && availability.get(dateKey) != null) {
-            booked = availability.get(dateKey);
-        }
-        long remaining = (long) dailyCapacity - booked;
+        long remaining = (long) dailyCapacity - (booked != null ? booked : 0L);
         return (int) Math.max(0L, remaining);
     }
 
+    /** Remaining rooms per night, indexed by epoch day, for allocation-free stay checks. */
     @Exclude
-    public boolean matchesSearchQuery(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return true;
+    public AvailabilityCalendar getCalendar() {
+        if (calendar == null) {
+            calendar = AvailabilityCalendar.build(
+                    availability != null ? availability.keySet() : java.util.Collections.<String>emptySet(),
+                    this::getRemainingForDate,
+                    Math.max(0, defaultDailyRooms));
+        }
+        return calendar;
+    }
+
+    /**
+     * A calendar with {@code booked} nights overlaid on this room's own counts. The room and its
+     * cached calendar are left unchanged, so callers can look ahead without disturbing a screen
+     * that renders this room.
+     */
+    public AvailabilityCalendar calendarWith(Map<String, Long> booked) {
+        if (booked.isEmpty()) return getCalendar();
+        Map<String, Long> merged = availability != null
+                ? new java.util.HashMap<>(availability) : new java.util.HashMap<>();
+        merged.putAll(booked);
+        return AvailabilityCalendar.build(merged.keySet(), key -> remainingGiven(merged.get(key)),
+                Math.max(0, defaultDailyRooms));
+    }
+
+    /**
+     * Overlays booked counts per night, e.g. from an availability shard. A calendar that is already
+     * built is updated in place for the nights whose count changed rather than rebuilt.
+     */
+    public void mergeBookedCounts(Map<String, Long> booked) {
+        Map<String, Long> updated = availability != null
+                ? new java.util.HashMap<>(availability) : new java.util.HashMap<>();
+        List<String> changed = new java.util.ArrayList<>();
+        for (Map.Entry<String, Long> night : booked.entrySet()) {
+            Long previous = updated.put(night.getKey(), night.getValue());
+            if (!night.getValue().equals(previous)) changed.add(night.getKey());
+        }
+        availability = updated;
+        if (calendar == null) return;
+        for (String dateKey : changed) {
+            int epochDay = DateKeys.epochDay(dateKey);
+            if (epochDay != Integer.MIN_VALUE) calendar.set(epochDay, getRemainingForDate(dateKey));
         }
-        
-        String lowerQuery = query.toLowerCase().trim();
-        return (name != null && name.toLowerCase().contains(lowerQuery)) ||
-               (type != null && type.toLowerCase().contains(lowerQuery)) ||
-               (description != null && description.toLowerCase().contains(lowerQuery));
     }
 
     @Exclude
@@ -200,32 +262,23 @@ public class Room {
         if (requiredAmenities == null || requiredAmenities.isEmpty()) {
             return true;
         }
-        
-        for (String amenity : requiredAmenities) {
-            if (hasAmenity(amenity)) {
-                return true;
-            }
+        if ((getAmenityMask() & Amenity.maskOf(requiredAmenities)) != 0L) return true;
+        // Keys outside the registry have no bit; look them up on the map
+        for (String key : requiredAmenities) {
+            if (Amenity.forKey(key) == null && hasAmenity(key)) return true;
         }
         return false;
     }
 
+    /** True if the room has any amenity in {@code mask}, or if the mask is empty. */
+    @Exclude
+    public boolean hasAnyAmenity(long mask) {
+        return mask == 0L || (getAmenityMask() & mask) != 0L;
+    }
+
     @Exclude
     public int getAmenityIconResId(String amenityKey) {
-        switch (amenityKey) {
-            case "airConditioning": return R.drawable.amenities_air_conditioning;
-            case "balcony": return R.drawable.amenities_balcony;
-            case "coffeeMaker": return R.drawable.amenities_coffee_maker;
-            case "jacuzzi": return R.drawable.amenities_jacuzzi;
-            case "kingBed": return R.drawable.amenities_king_bed;
-            case "miniBar": return R.drawable.amenities_mini_bar;
-            case "nonSmoking": return R.drawable.amenities_non_smoking;
-            case "oceanView": return R.drawable.amenities_ocean_view;
-            case "roomService": return R.drawable.amenities_room_service;
-            case "safe": return R.drawable.amenities_safe;
-            case "television": return R.drawable.amenities_television;
-            case "wheelchairAccessible": return R.drawable.amenities_wheelchair_accessible;
-            case "wifi": return R.drawable.amenities_wifi;
-            default: return 0; // No icon found
-        }
+        Amenity amenity = Amenity.forKey(amenityKey);
+        return amenity != null ? amenity.iconRes : 0; // No icon found
     }
 }
@@ -27,6 +27,8 @@ public class Service {
     // Legacy fields for backward compatibility
     private int defaultDailySlots;
     private Map<String, Long> legacyAvailability; // date (yyyy-MM-dd) -> booked count
+    private AvailabilityCalendar calendar; // built lazily from the maps above, reset by the setters
+    private SlotInventory inventory; // built lazily from timeSlots + availability, reset by the setters
 
     // Default constructor required for Firestore
     public Service() {}
@@ -121,12 +123,12 @@ public class Service {
 
     // New availability setters
     public void setAvailableHours(Map<String, String> availableHours) { this.availableHours = availableHours; }
-    public void setTimeSlots(Map<String, Integer> timeSlots) { this.timeSlots = timeSlots; }
-    public void setAvailability(Map<String, Map<String, Integer>> availability) { this.availability = availability; }
+    public void setTimeSlots(Map<String, Integer> timeSlots) { this.timeSlots = timeSlots; calendar = null; inventory = null; }
+    public void setAvailability(Map<String, Map<String, Integer>> availability) { this.availability = availability; calendar = null; inventory = null; }
 
     // Legacy setters for backward compatibility
-    public void setDefaultDailySlots(int defaultDailySlots) { this.defaultDailySlots = defaultDailySlots; }
-    public void setLegacyAvailability(Map<String, Long> legacyAvailability) { this.legacyAvailability = legacyAvailability; }
+    public void setDefaultDailySlots(int defaultDailySlots) { this.defaultDailySlots = defaultDailySlots; calendar = null; }
+    public void setLegacyAvailability(Map<String, Long> legacyAvailability) { this.legacyAvailability = legacyAvailability; calendar = null; }
 
     // Helper methods
     @Exclude
@@ -155,18 +157,6 @@ public class Service {
         return (imageUrls != null && !imageUrls.isEmpty()) ? imageUrls.get(0) : null;
     }
 
-    @Exclude
-    public boolean matchesSearchQuery(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return true;
-        }
-        
-        String lowerQuery = query.toLowerCase().trim();
-        return (name != null && name.toLowerCase().contains(lowerQuery)) ||
-               (category != null && category.toLowerCase().contains(lowerQuery)) ||
-               (description != null && description.toLowerCase().contains(lowerQuery));
-    }
-
     @Exclude
     public boolean matchesPriceRange(double minPrice, double maxPrice) {
         return price >= minPrice && price <= maxPrice;
@@ -207,36 +197,24 @@ public class Service {
         return slots;
     }
 
+    /** Remaining capacity per day and time slot, for lookups that neither box nor allocate. */
     @Exclude
-    public int getAvailableSlotsForDateAndTime(String dateKey, String timeKey) {
-        int total = 0;
-        if (timeSlots != null && timeSlots.containsKey(timeKey)) {
-            total = timeSlots.get(timeKey);
-        }
-
-        int booked = 0;
-        if (availability != null && availability.containsKey(dateKey)) {
-            Map<String, Integer> dateAvailability = availability.get(dateKey);
-            if (dateAvailability != null && dateAvailability.containsKey(timeKey)) {
-                Integer b = dateAvailability.get(timeKey);
-                booked = b != null ? b : 0;
-            }
-        }
+    public SlotInventory getInventory() {
+        if (inventory == null) inventory = SlotInventory.build(timeSlots, availability);
+        return inventory;
+    }
 
-        int remaining = total - booked;
-        return Math.max(0, remaining);
+    @Exclude
+    public int getAvailableSlotsForDateAndTime(String dateKey, String timeKey) {
+        SlotInventory slots = getInventory();
+        int slot = slots.slotIndex(timeKey);
+        return slot >= 0 ? slots.remaining(DateKeys.epochDay(dateKey), slot) : 0;
     }
 
     @Exclude
     public boolean hasAvailableSlotsForDate(String dateKey) {
         // Check remaining capacity across defined time slots
-        if (timeSlots != null && !timeSlots.isEmpty()) {
-            for (Map.Entry<String, Integer> entry : timeSlots.entrySet()) {
-                String time = entry.getKey();
-                int remaining = getAvailableSlotsForDateAndTime(dateKey, time);
-                if (remaining > 0) return true;
-            }
-        }
+        if (getInventory().hasFreeSlot(DateKeys.epochDay(dateKey))) return true;
 
         // Fallback to legacy availability (per-day capacity)
         if (legacyAvailability != null) {
@@ -246,48 +224,23 @@ public class Service {
         return false;
     }
 
+    /** Times with capacity left on the date, in time order. */
     @Exclude
     public List<String> getAvailableTimesForDate(String dateKey) {
-        List<String> availableTimes = new java.util.ArrayList<>();
-        
-        if (timeSlots != null) {
-            for (Map.Entry<String, Integer> entry : timeSlots.entrySet()) {
-                String time = entry.getKey();
-                int totalSlots = entry.getValue();
-                int bookedSlots = getBookedSlotsForDateAndTime(dateKey, time);
-                int availableSlots = totalSlots - bookedSlots;
-                
-                if (availableSlots > 0) {
-                    availableTimes.add(time);
-                }
-            }
+        SlotInventory slots = getInventory();
+        int epochDay = DateKeys.epochDay(dateKey);
+        List<String> availableTimes = new java.util.ArrayList<>(slots.freeSlotCount(epochDay));
+        for (int slot = slots.nextFreeSlot(epochDay, 0); slot >= 0; slot = slots.nextFreeSlot(epochDay, slot + 1)) {
+            availableTimes.add(slots.time(slot));
         }
-        
         return availableTimes;
     }
 
-    @Exclude
-    private int getBookedSlotsForDateAndTime(String dateKey, String timeKey) {
-        if (availability != null && availability.containsKey(dateKey)) {
-            Map<String, Integer> dateAvailability = availability.get(dateKey);
-            if (dateAvailability != null && dateAvailability.containsKey(timeKey)) {
-                return dateAvailability.get(timeKey);
-            }
-        }
-        return 0;
-    }
-
     // Legacy compatibility method
     @Exclude
     public int getRemainingForDate(String dateKey) {
         // Sum remaining across all defined time slots
-        int totalRemaining = 0;
-        if (timeSlots != null) {
-            for (Map.Entry<String, Integer> entry : timeSlots.entrySet()) {
-                String time = entry.getKey();
-                totalRemaining += getAvailableSlotsForDateAndTime(dateKey, time);
-            }
-        }
+        int totalRemaining = getInventory().remainingOnDay(DateKeys.epochDay(dateKey));
 
         // If no timeSlots configured, fallback to legacy per-day capacity
         if (totalRemaining == 0 && legacyAvailability != null) {
@@ -297,4 +250,28 @@ public class Service {
         }
         return totalRemaining;
     }
+
+    /** Remaining slots per day (all time slots summed), indexed by epoch day. */
+    @Exclude
+    public AvailabilityCalendar getCalendar() {
+        if (calendar == null) {
+            java.util.Set<String> days = new java.util.HashSet<>();
+            if (availability != null) days.addAll(availability.keySet());
+            if (legacyAvailability != null) days.addAll(legacyAvailability.keySet());
+            calendar = AvailabilityCalendar.build(days, this::getRemainingForDate, getUnbookedRemaining());
+        }
+        return calendar;
+    }
+
+    /** What getRemainingForDate returns for a day with no bookings. */
+    private int getUnbookedRemaining() {
+        int total = 0;
+        if (timeSlots != null) {
+            for (Integer slots : timeSlots.values()) {
+                if (slots != null) total += Math.max(0, slots);
+            }
+        }
+        if (total == 0 && legacyAvailability != null) return Math.max(0, defaultDailySlots);
+        return total;
+    }
 }
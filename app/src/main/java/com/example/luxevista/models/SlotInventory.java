@@ -0,0 +1,163 @@
+package com.example.luxevista.models;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Remaining capacity per (day, time slot) for one service, decoded once from the Firestore maps.
+ *
+ * Configured times are sorted and numbered; capacity lives in a dense {@code short} matrix of
+ * [day][slot] and each day has a bitmask of slots with capacity left, so "which slots are free on
+ * day X" is a bit scan and per-cell lookups neither box nor allocate. Days outside the stored range
+ * have every slot at full capacity. Not thread-safe; models are used from the main thread.
+ */
+public final class SlotInventory {
+
+    private final String[] times;
+    private final short[] capacity;
+    private final int words; // longs per day mask
+    private final long[] unbookedMask;
+
+    private final int firstDay;
+    private final int days;
+    private final short[] remaining; // days * times.length
+    private final long[] freeMask;   // days * words
+
+    private SlotInventory(String[] times, short[] capacity, int firstDay, int days) {
+        this.times = times;
+        this.capacity = capacity;
+        this.words = (times.length + 63) >>> 6;
+        this.unbookedMask = new long[words];
+        for (int slot = 0; slot < times.length; slot++) {
+            if (capacity[slot] > 0) unbookedMask[slot >>> 6] |= 1L << slot;
+        }
+        this.firstDay = firstDay;
+        this.days = days;
+        this.remaining = new short[days * times.length];
+        this.freeMask = new long[days * words];
+        for (int day = 0; day < days; day++) {
+            System.arraycopy(capacity, 0, remaining, day * times.length, times.length);
+            System.arraycopy(unbookedMask, 0, freeMask, day * words, words);
+        }
+    }
+
+    /** Builds the inventory from the time -> capacity and date -> time -> booked maps. */
+    static SlotInventory build(Map<String, Integer> timeSlots, Map<String, Map<String, Integer>> availability) {
+        String[] times = timeSlots != null ? timeSlots.keySet().toArray(new String[0]) : new String[0];
+        Arrays.sort(times);
+        short[] capacity = new short[times.length];
+        for (int slot = 0; slot < times.length; slot++) {
+            capacity[slot] = clamp(timeSlots.get(times[slot]));
+        }
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        if (availability != null && times.length > 0) {
+            for (String key : availability.keySet()) {
+                int epochDay = DateKeys.epochDay(key);
+                if (epochDay == Integer.MIN_VALUE) continue;
+                min = Math.min(min, epochDay);
+                max = Math.max(max, epochDay);
+            }
+        }
+        if (min > max) return new SlotInventory(times, capacity, 0, 0);
+
+        SlotInventory inventory = new SlotInventory(times, capacity, min, max - min + 1);
+        for (Map.Entry<String, Map<String, Integer>> day : availability.entrySet()) {
+            int epochDay = DateKeys.epochDay(day.getKey());
+            if (epochDay == Integer.MIN_VALUE || day.getValue() == null) continue;
+            for (Map.Entry<String, Integer> booked : day.getValue().entrySet()) {
+                int slot = inventory.slotIndex(booked.getKey());
+                Integer count = booked.getValue();
+                if (slot >= 0 && count != null) inventory.book(epochDay, slot, count);
+            }
+        }
+        return inventory;
+    }
+
+    private static short clamp(Integer value) {
+        if (value == null || value <= 0) return 0;
+        return (short) Math.min(value, Short.MAX_VALUE);
+    }
+
+    public int slotCount() {
+        return times.length;
+    }
+
+    public String time(int slot) {
+        return times[slot];
+    }
+
+    /** Slot number of a configured "HH:mm" time, or -1. */
+    public int slotIndex(String time) {
+        if (time == null) return -1;
+        int slot = Arrays.binarySearch(times, time);
+        return slot >= 0 ? slot : -1;
+    }
+
+    public int remaining(int epochDay, int slot) {
+        int row = row(epochDay);
+        return row >= 0 ? remaining[row * times.length + slot] : capacity[slot];
+    }
+
+    public boolean isFree(int epochDay, int slot) {
+        return (mask(epochDay, slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    public boolean hasFreeSlot(int epochDay) {
+        for (int w = 0; w < words; w++) {
+            if (mask(epochDay, w) != 0) return true;
+        }
+        return false;
+    }
+
+    public int freeSlotCount(int epochDay) {
+        int count = 0;
+        for (int w = 0; w < words; w++) count += Long.bitCount(mask(epochDay, w));
+        return count;
+    }
+
+    /** First free slot at or after {@code fromSlot}, or -1. Iterate with {@code nextFreeSlot(day, slot + 1)}. */
+    public int nextFreeSlot(int epochDay, int fromSlot) {
+        if (fromSlot >= times.length) return -1;
+        int w = fromSlot >>> 6;
+        long bits = mask(epochDay, w) & (-1L << fromSlot);
+        while (true) {
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+            if (++w >= words) return -1;
+            bits = mask(epochDay, w);
+        }
+    }
+
+    /** Capacity left on a day, summed over all slots. */
+    public int remainingOnDay(int epochDay) {
+        int row = row(epochDay);
+        int total = 0;
+        for (int slot = 0; slot < times.length; slot++) {
+            total += row >= 0 ? remaining[row * times.length + slot] : capacity[slot];
+        }
+        return total;
+    }
+
+    /** Takes {@code quantity} from one slot on a day inside the stored range; negative gives it back. */
+    void book(int epochDay, int slot, int quantity) {
+        int row = row(epochDay);
+        int cell = row * times.length + slot;
+        int left = Math.max(0, Math.min(capacity[slot], remaining[cell] - quantity));
+        remaining[cell] = (short) left;
+        int word = row * words + (slot >>> 6);
+        if (left > 0) freeMask[word] |= 1L << slot;
+        else freeMask[word] &= ~(1L << slot);
+    }
+
+    private long mask(int epochDay, int word) {
+        int row = row(epochDay);
+        return row >= 0 ? freeMask[row * words + word] : unbookedMask[word];
+    }
+
+    private int row(int epochDay) {
+        if (epochDay == Integer.MIN_VALUE) return -1;
+        long row = (long) epochDay - firstDay;
+        return row >= 0 && row < days ? (int) row : -1;
+    }
+}
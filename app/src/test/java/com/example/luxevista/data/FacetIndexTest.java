@@ -0,0 +1,148 @@
+package com.example.luxevista.data;
+
+import com.example.luxevista.Money;
+import com.example.luxevista.models.Service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link FacetIndex}, through its service facets.
+ */
+public class FacetIndexTest {
+
+    private static final List<String> CATEGORIES = Arrays.asList("spa", "dining", "tours");
+
+    private static Service service(double price, String category) {
+        Service service = new Service();
+        service.setPrice(price);
+        service.setCategory(category);
+        return service;
+    }
+
+    @Test
+    public void countsEachValueWithinInclusivePriceBounds() {
+        List<Service> services = Arrays.asList(
+                service(20, "spa"), service(50, "dining"), service(50, "spa"), service(80, "tours"),
+                service(10.5, "dining"), service(30, "unlisted"), service(30, null));
+        FacetIndex facets = FacetIndex.forServices(services, CATEGORIES);
+        int[] counts = new int[CATEGORIES.size()];
+
+        facets.countValues(Money.toMinor(20), Money.toMinor(50), counts);
+        assertArrayEquals(new int[] {2, 1, 0}, counts);
+        facets.countValues(Money.toMinor(20.01), Money.toMinor(49.99), counts);
+        assertArrayEquals(new int[] {0, 0, 0}, counts);
+        facets.countValues(0L, Long.MAX_VALUE, counts);
+        assertArrayEquals(new int[] {2, 2, 1}, counts);
+        facets.countValues(Money.toMinor(60), Money.toMinor(40), counts);
+        assertArrayEquals(new int[] {0, 0, 0}, counts);
+
+        assertEquals(7, facets.size());
+        // Nothing selected counts every item in range, including those without a listed category
+        assertEquals(5, facets.countMatching(Money.toMinor(20), Money.toMinor(50), 0L));
+        assertEquals(3, facets.countMatching(Money.toMinor(20), Money.toMinor(50), 0b011L));
+        assertEquals(1, facets.countMatching(0L, Long.MAX_VALUE, 0b100L));
+    }
+
+    @Test
+    public void histogramSkipsLowerPricesAndPutsHigherOnesInTheLastBucket() {
+        List<Service> services = Arrays.asList(
+                service(0, "spa"), service(24.99, "spa"), service(25, "dining"), service(99.99, "tours"),
+                service(100, "spa"), service(400, "dining"));
+        FacetIndex facets = FacetIndex.forServices(services, CATEGORIES);
+        int[] buckets = new int[4];
+
+        facets.histogram(0L, 0L, Money.toMinor(25), buckets);
+        assertArrayEquals(new int[] {2, 1, 0, 3}, buckets);
+        facets.histogram(0b001L, 0L, Money.toMinor(25), buckets);
+        assertArrayEquals(new int[] {2, 0, 0, 1}, buckets);
+        facets.histogram(0b110L, Money.toMinor(50), Money.toMinor(25), buckets);
+        assertArrayEquals(new int[] {0, 1, 0, 1}, buckets);
+    }
+
+    @Test
+    public void emptyIndexCountsNothing() {
+        FacetIndex facets = FacetIndex.forServices(Collections.<Service>emptyList(), CATEGORIES);
+        int[] counts = new int[CATEGORIES.size()];
+        int[] buckets = new int[3];
+
+        facets.countValues(0L, Long.MAX_VALUE, counts);
+        facets.histogram(0L, 0L, 100L, buckets);
+
+        assertArrayEquals(new int[] {0, 0, 0}, counts);
+        assertArrayEquals(new int[] {0, 0, 0}, buckets);
+        assertEquals(0, facets.countMatching(0L, Long.MAX_VALUE, 0L));
+    }
+
+    @Test
+    public void priceBoundsAtWordEdges() {
+        // Item n costs n dollars, so item numbers and prices line up across the 64-item words
+        List<Service> services = new ArrayList<>();
+        for (int n = 0; n < 200; n++) services.add(service(n, CATEGORIES.get(n % 3)));
+        Collections.shuffle(services, new Random(25));
+        FacetIndex facets = FacetIndex.forServices(services, CATEGORIES);
+        int[] counts = new int[CATEGORIES.size()];
+
+        int[] edges = {0, 1, 62, 63, 64, 65, 127, 128, 129, 191, 192, 199};
+        for (int from : edges) {
+            for (int to : edges) {
+                facets.countValues(Money.toMinor(from), Money.toMinor(to), counts);
+                for (int value = 0; value < CATEGORIES.size(); value++) {
+                    int expected = 0;
+                    for (int n = from; n <= to; n++) if (n % 3 == value) expected++;
+                    assertEquals(from + ".." + to + " value " + value, expected, counts[value]);
+                }
+                assertEquals(Math.max(0, to - from + 1),
+                        facets.countMatching(Money.toMinor(from), Money.toMinor(to), 0L));
+            }
+        }
+    }
+
+    @Test
+    public void matchesNaiveCounting() {
+        Random random = new Random(2025);
+        for (int run = 0; run < 100; run++) {
+            List<Service> services = new ArrayList<>();
+            int size = random.nextInt(300);
+            for (int i = 0; i < size; i++) {
+                // Few distinct prices, so ties are common
+                services.add(service(random.nextInt(50) * 5, CATEGORIES.get(random.nextInt(3))));
+            }
+            FacetIndex facets = FacetIndex.forServices(services, CATEGORIES);
+            int[] counts = new int[CATEGORIES.size()];
+            int[] buckets = new int[10];
+
+            for (int q = 0; q < 20; q++) {
+                long min = Money.toMinor(random.nextInt(260));
+                long max = random.nextBoolean() ? Long.MAX_VALUE : min + Money.toMinor(random.nextInt(120));
+                long selection = random.nextInt(8);
+
+                facets.countValues(min, max, counts);
+                int[] expectedCounts = new int[CATEGORIES.size()];
+                int expectedMatching = 0;
+                int[] expectedBuckets = new int[buckets.length];
+                for (Service service : services) {
+                    long price = Money.toMinor(service.getPrice());
+                    int value = CATEGORIES.indexOf(service.getCategory());
+                    boolean selected = selection == 0L || (selection & (1L << value)) != 0L;
+                    if (price >= min && price <= max) {
+                        expectedCounts[value]++;
+                        if (selected) expectedMatching++;
+                    }
+                    if (selected) expectedBuckets[(int) Math.min(buckets.length - 1, price / Money.toMinor(25))]++;
+                }
+                assertArrayEquals(expectedCounts, counts);
+                assertEquals(expectedMatching, facets.countMatching(min, max, selection));
+                facets.histogram(selection, 0L, Money.toMinor(25), buckets);
+                assertArrayEquals(expectedBuckets, buckets);
+            }
+        }
+    }
+}
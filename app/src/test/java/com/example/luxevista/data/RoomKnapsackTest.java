@@ -0,0 +1,103 @@
+package com.example.luxevista.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link RoomKnapsack#solve}.
+ */
+public class RoomKnapsackTest {
+
+    @Test
+    public void picksCheapestCombination() {
+        // Double sleeps 2 for 100, family sleeps 4 for 150, suite sleeps 6 for 260
+        int[] sleeps = {2, 4, 6};
+        long[] cost = {100, 150, 260};
+        int[] available = {5, 5, 5};
+
+        assertArrayEquals(new int[] {0, 2, 0}, RoomKnapsack.solve(8, sleeps, cost, available));
+        assertArrayEquals(new int[] {1, 0, 0}, RoomKnapsack.solve(1, sleeps, cost, available));
+        assertArrayEquals(new int[] {0, 1, 0}, RoomKnapsack.solve(3, sleeps, cost, available));
+    }
+
+    @Test
+    public void respectsRemainingInventory() {
+        int[] sleeps = {2, 4};
+        long[] cost = {100, 150};
+
+        assertArrayEquals(new int[] {2, 1}, RoomKnapsack.solve(8, sleeps, cost, new int[] {5, 1}));
+        assertArrayEquals(new int[] {4, 0}, RoomKnapsack.solve(8, sleeps, cost, new int[] {4, 0}));
+        assertNull(RoomKnapsack.solve(8, sleeps, cost, new int[] {1, 1}));
+    }
+
+    @Test
+    public void prefersFewerRoomsAtEqualCost() {
+        int[] sleeps = {2, 4};
+        long[] cost = {100, 200};
+        int[] available = {4, 2};
+
+        assertArrayEquals(new int[] {0, 1}, RoomKnapsack.solve(4, sleeps, cost, available));
+    }
+
+    @Test
+    public void ignoresRoomsThatSleepNobody() {
+        assertArrayEquals(new int[] {0, 1}, RoomKnapsack.solve(2, new int[] {0, 2}, new long[] {0, 100}, new int[] {9, 1}));
+    }
+
+    @Test
+    public void emptyAndOversizedParties() {
+        int[] sleeps = {2};
+        long[] cost = {100};
+        int[] available = {100};
+
+        assertArrayEquals(new int[] {0}, RoomKnapsack.solve(0, sleeps, cost, available));
+        assertNull(RoomKnapsack.solve(RoomKnapsack.MAX_GUESTS + 1, sleeps, cost, available));
+    }
+
+    @Test
+    public void matchesExhaustiveSearch() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            int types = 1 + random.nextInt(4);
+            int[] sleeps = new int[types];
+            long[] cost = new long[types];
+            int[] available = new int[types];
+            for (int t = 0; t < types; t++) {
+                sleeps[t] = 1 + random.nextInt(5);
+                cost[t] = 50 + random.nextInt(300);
+                available[t] = random.nextInt(5);
+            }
+            int guests = 1 + random.nextInt(16);
+
+            int[] solved = RoomKnapsack.solve(guests, sleeps, cost, available);
+            long expected = cheapest(guests, sleeps, cost, available, 0, 0);
+            if (expected == Long.MAX_VALUE) {
+                assertNull(solved);
+                continue;
+            }
+            assertNotNull(solved);
+            long total = 0;
+            int beds = 0;
+            for (int t = 0; t < types; t++) {
+                assertTrue(solved[t] <= available[t]);
+                total += cost[t] * solved[t];
+                beds += sleeps[t] * solved[t];
+            }
+            assertTrue(beds >= guests);
+            assertEquals(expected, total);
+        }
+    }
+
+    private static long cheapest(int guests, int[] sleeps, long[] cost, int[] available, int type, int beds) {
+        if (type == sleeps.length) return beds >= guests ? 0 : Long.MAX_VALUE;
+        long best = Long.MAX_VALUE;
+        for (int n = 0; n <= available[type]; n++) {
+            long rest = cheapest(guests, sleeps, cost, available, type + 1, beds + n * sleeps[type]);
+            if (rest != Long.MAX_VALUE) best = Math.min(best, rest + n * cost[type]);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.luxevista.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SearchIndex}.
+ */
+public class SearchIndexTest {
+
+    private static final class Item {
+        final String id;
+        final String name;
+        final String description;
+
+        Item(String id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    private static SearchIndex<Item> index(Item... items) {
+        SearchIndex<Item> index = new SearchIndex<>(new SearchIndex.Schema<Item>() {
+            @Override
+            public String idOf(Item item) {
+                return item.id;
+            }
+
+            @Override
+            public String[] textOf(Item item) {
+                return new String[] {item.name, item.description};
+            }
+        });
+        index.update(Arrays.asList(items));
+        return index;
+    }
+
+    private static List<Item> search(SearchIndex<Item> index, CharSequence query) {
+        List<Item> matches = new ArrayList<>();
+        index.search(query, matches);
+        return matches;
+    }
+
+    private final Item suite = new Item("suite", "Ocean View Suite", "King bed, private balcony");
+    private final Item deluxe = new Item("deluxe", "Deluxe Room", "Garden view with a queen bed");
+    private final Item spa = new Item("spa", "Spa-Deluxe Package", null);
+
+    @Test
+    public void matchesWordPrefixesIgnoringCase() {
+        SearchIndex<Item> index = index(suite, deluxe, spa);
+
+        assertEquals(Arrays.asList(suite), search(index, "oce"));
+        assertEquals(Arrays.asList(suite), search(index, "OCEAN"));
+        assertEquals(Arrays.asList(suite, deluxe), search(index, "view"));
+        assertEquals(Arrays.asList(), search(index, "oceans"));
+    }
+
+    @Test
+    public void matchesOnlyAtWordStarts() {
+        SearchIndex<Item> index = index(suite, deluxe, spa);
+
+        assertEquals(Arrays.asList(), search(index, "iew"));
+        assertEquals(Arrays.asList(), search(index, "luxe"));
+        // Punctuation splits words in both the text and the query
+        assertEquals(Arrays.asList(deluxe, spa), search(index, "deluxe"));
+        assertEquals(Arrays.asList(spa), search(index, "spa-del"));
+    }
+
+    @Test
+    public void everyQueryWordMustMatch() {
+        SearchIndex<Item> index = index(suite, deluxe, spa);
+
+        assertEquals(Arrays.asList(suite), search(index, "view king"));
+        assertEquals(Arrays.asList(deluxe), search(index, "  bed   gar "));
+        assertEquals(Arrays.asList(), search(index, "ocean garden"));
+    }
+
+    @Test
+    public void queriesWithoutWordsMatchEverything() {
+        SearchIndex<Item> index = index(spa, suite, deluxe);
+
+        assertEquals(Arrays.asList(spa, suite, deluxe), search(index, ""));
+        assertEquals(Arrays.asList(spa, suite, deluxe), search(index, " -, "));
+    }
+
+    @Test
+    public void keepsTheOrderOfTheLastUpdate() {
+        SearchIndex<Item> index = index(suite, deluxe, spa);
+        index.update(Arrays.asList(spa, deluxe, suite));
+
+        assertEquals(Arrays.asList(spa, deluxe, suite), search(index, ""));
+        assertEquals(Arrays.asList(deluxe, suite), search(index, "bed"));
+    }
+
+    @Test
+    public void updateReindexesChangedTextAndDropsMissingItems() {
+        SearchIndex<Item> index = index(suite, deluxe, spa);
+        Item renamed = new Item("deluxe", "Harbour Room", "Queen bed");
+        index.update(Arrays.asList(renamed, spa));
+
+        assertEquals(Arrays.asList(), search(index, "ocean"));
+        assertEquals(Arrays.asList(), search(index, "garden"));
+        assertEquals(Arrays.asList(renamed), search(index, "harb"));
+        assertEquals(Arrays.asList(renamed, spa), search(index, ""));
+
+        // A freed slot is reused without its old words
+        Item villa = new Item("villa", "Villa", "Private pool");
+        index.update(Arrays.asList(renamed, spa, villa));
+        assertEquals(Arrays.asList(villa), search(index, "pri"));
+        assertEquals(Arrays.asList(), search(index, "king"));
+    }
+
+    @Test
+    public void itemsWithoutIdOrListedTwiceAreIndexedOnce() {
+        Item anonymous = new Item(null, "Ocean Cabana", null);
+        SearchIndex<Item> index = index(suite, anonymous, suite);
+
+        assertEquals(Arrays.asList(suite), search(index, "ocean"));
+        assertEquals(Arrays.asList(suite), search(index, ""));
+    }
+
+    @Test
+    public void matchesNaiveScanAcrossManyItems() {
+        Random random = new Random(22);
+        String[] words = {"ocean", "oak", "view", "villa", "vista", "suite", "sun", "spa", "deluxe", "deck"};
+        // More than 64 items, so match bitsets span several words
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder name = new StringBuilder();
+            int count = 1 + random.nextInt(3);
+            for (int w = 0; w < count; w++) name.append(words[random.nextInt(words.length)]).append(' ');
+            items.add(new Item("item" + i, name.toString(), null));
+        }
+        SearchIndex<Item> index = index(items.toArray(new Item[0]));
+
+        for (int q = 0; q < 300; q++) {
+            String first = words[random.nextInt(words.length)];
+            String query = first.substring(0, 1 + random.nextInt(first.length()));
+            if (random.nextBoolean()) {
+                String second = words[random.nextInt(words.length)];
+                query += " " + second.substring(0, 1 + random.nextInt(second.length()));
+            }
+            List<Item> expected = new ArrayList<>();
+            for (Item item : items) {
+                if (matchesEveryWord(item.name, query)) expected.add(item);
+            }
+            assertEquals(query, expected, search(index, query.toUpperCase(Locale.ROOT)));
+        }
+    }
+
+    private static boolean matchesEveryWord(String text, String query) {
+        for (String wanted : query.split(" ")) {
+            boolean found = false;
+            for (String word : text.split(" ")) found |= word.startsWith(wanted);
+            if (!found) return false;
+        }
+        return true;
+    }
+}
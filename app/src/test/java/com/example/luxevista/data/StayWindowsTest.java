@@ -0,0 +1,78 @@
+package com.example.luxevista.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link StayWindows#earliestFit}.
+ */
+public class StayWindowsTest {
+
+    private static final int NONE = Integer.MIN_VALUE;
+
+    /** Remaining rooms from {@code from} on; days outside the array have {@code outside}. */
+    private static StayWindows.Nights nights(int from, int outside, int... remaining) {
+        return day -> day >= from && day < from + remaining.length ? remaining[day - from] : outside;
+    }
+
+    @Test
+    public void findsTheFirstRunLongEnough() {
+        StayWindows.Nights remaining = nights(100, 0, 1, 0, 1, 1, 0, 1, 1, 1);
+
+        assertEquals(100, StayWindows.earliestFit(remaining, 100, 10, 1, 1));
+        assertEquals(102, StayWindows.earliestFit(remaining, 100, 10, 2, 1));
+        assertEquals(105, StayWindows.earliestFit(remaining, 100, 10, 3, 1));
+        assertEquals(NONE, StayWindows.earliestFit(remaining, 100, 10, 4, 1));
+    }
+
+    @Test
+    public void needsTheWantedQuantityEveryNight() {
+        StayWindows.Nights remaining = nights(0, 0, 3, 2, 3, 3, 1);
+
+        assertEquals(0, StayWindows.earliestFit(remaining, 0, 5, 2, 2));
+        assertEquals(2, StayWindows.earliestFit(remaining, 0, 5, 2, 3));
+        assertEquals(NONE, StayWindows.earliestFit(remaining, 0, 5, 3, 3));
+    }
+
+    @Test
+    public void windowsMayStartOnTheLastDayOfTheHorizon() {
+        // Only nights 9 and 10 are free; a 2-night stay starting on day 9 ends past the horizon
+        StayWindows.Nights remaining = nights(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1);
+
+        assertEquals(9, StayWindows.earliestFit(remaining, 0, 10, 2, 1));
+        assertEquals(NONE, StayWindows.earliestFit(remaining, 0, 9, 2, 1));
+    }
+
+    @Test
+    public void emptyStaysAndHorizonsFindNothing() {
+        StayWindows.Nights remaining = nights(0, 5);
+
+        assertEquals(NONE, StayWindows.earliestFit(remaining, 0, 10, 0, 1));
+        assertEquals(NONE, StayWindows.earliestFit(remaining, 0, 0, 2, 1));
+        assertEquals(7, StayWindows.earliestFit(remaining, 7, 1, 3, 1));
+    }
+
+    @Test
+    public void matchesCheckingEveryWindow() {
+        Random random = new Random(20);
+        for (int run = 0; run < 1000; run++) {
+            int[] remaining = new int[60];
+            for (int i = 0; i < remaining.length; i++) remaining[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(4);
+            int fromDay = random.nextInt(20);
+            int horizonDays = random.nextInt(30);
+            int stay = 1 + random.nextInt(6);
+            int quantity = 1 + random.nextInt(3);
+
+            int expected = NONE;
+            for (int start = fromDay; start < fromDay + horizonDays && expected == NONE; start++) {
+                boolean fits = true;
+                for (int day = start; day < start + stay; day++) fits &= remaining[day] >= quantity;
+                if (fits) expected = start;
+            }
+            assertEquals(expected, StayWindows.earliestFit(nights(0, 0, remaining), fromDay, horizonDays, stay, quantity));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.luxevista.models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link AvailabilityCalendar}, checked against a linear scan.
+ */
+public class AvailabilityCalendarTest {
+
+    private static final int UNBOOKED = 5;
+
+    @Test
+    public void emptyCalendarHasUnbookedCapacity() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.build(Collections.<String>emptyList(), key -> 0, UNBOOKED);
+
+        assertEquals(UNBOOKED, calendar.remainingOn(DateKeys.epochDay("2026-10-18")));
+        assertEquals(UNBOOKED, calendar.minRemaining(DateKeys.epochDay("2026-10-18"), 3));
+        assertEquals(UNBOOKED, calendar.maxRemaining(DateKeys.epochDay("2026-10-18"), 3));
+        assertEquals(0, calendar.minRemaining(DateKeys.epochDay("2026-10-18"), 0));
+    }
+
+    @Test
+    public void stayOverlappingTheStoredRangeCountsOutsideDaysAsUnbooked() {
+        Map<String, Integer> remaining = new HashMap<>();
+        remaining.put("2026-10-10", 2);
+        remaining.put("2026-10-12", 0);
+        AvailabilityCalendar calendar = AvailabilityCalendar.build(remaining.keySet(), remaining::get, UNBOOKED);
+        int first = DateKeys.epochDay("2026-10-10");
+
+        // The gap day inside the range is unbooked too
+        assertEquals(UNBOOKED, calendar.remainingOn(first + 1));
+        assertEquals(0, calendar.minRemaining(first - 2, 5));
+        assertEquals(2, calendar.minRemaining(first - 2, 3));
+        assertEquals(UNBOOKED, calendar.maxRemaining(first - 2, 3));
+        assertEquals(2, calendar.maxRemaining(first, 1));
+        assertEquals(UNBOOKED, calendar.minRemaining(first + 3, 4));
+    }
+
+    @Test
+    public void malformedKeysAreIgnored() {
+        List<String> keys = Arrays.asList("2026-10-10", "not-a-date", "2026-13-01");
+        AvailabilityCalendar calendar = AvailabilityCalendar.build(keys, key -> 1, UNBOOKED);
+
+        assertEquals(1, calendar.remainingOn(DateKeys.epochDay("2026-10-10")));
+        assertEquals(UNBOOKED, calendar.remainingOn(DateKeys.epochDay("2026-10-11")));
+    }
+
+    @Test
+    public void setGrowsTheRangeInBothDirections() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.build(
+                Collections.singletonList("2026-10-10"), key -> 3, UNBOOKED);
+        int first = DateKeys.epochDay("2026-10-10");
+
+        calendar.set(first + 5, 1);
+        calendar.set(first - 5, 0);
+
+        assertEquals(0, calendar.remainingOn(first - 5));
+        assertEquals(3, calendar.remainingOn(first));
+        assertEquals(1, calendar.remainingOn(first + 5));
+        assertEquals(UNBOOKED, calendar.remainingOn(first + 2));
+        assertEquals(0, calendar.minRemaining(first - 5, 11));
+        assertEquals(1, calendar.minRemaining(first - 4, 10));
+        assertEquals(UNBOOKED, calendar.maxRemaining(first - 5, 11));
+    }
+
+    @Test
+    public void matchesLinearScan() {
+        Random random = new Random(15);
+        int base = DateKeys.epochDay("2026-01-01");
+        for (int run = 0; run < 200; run++) {
+            int[] expected = new int[120];
+            Arrays.fill(expected, UNBOOKED);
+            Map<String, Integer> remaining = new HashMap<>();
+            int stored = random.nextInt(60);
+            int offset = 20 + random.nextInt(20);
+            for (int i = 0; i < stored; i++) {
+                int day = offset + random.nextInt(40);
+                int left = random.nextInt(UNBOOKED + 1);
+                remaining.put(DateKeys.dateKey(base + day), left);
+                expected[day] = left;
+            }
+            AvailabilityCalendar calendar = AvailabilityCalendar.build(
+                    new ArrayList<>(remaining.keySet()), remaining::get, UNBOOKED);
+
+            for (int step = 0; step < 50; step++) {
+                if (random.nextInt(4) == 0) {
+                    int day = random.nextInt(expected.length);
+                    int left = random.nextInt(UNBOOKED + 1);
+                    calendar.set(base + day, left);
+                    expected[day] = left;
+                }
+                int from = random.nextInt(expected.length);
+                int nights = 1 + random.nextInt(expected.length - from);
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                for (int day = from; day < from + nights; day++) {
+                    min = Math.min(min, expected[day]);
+                    max = Math.max(max, expected[day]);
+                }
+                assertEquals(min, calendar.minRemaining(base + from, nights));
+                assertEquals(max, calendar.maxRemaining(base + from, nights));
+                assertEquals(expected[from], calendar.remainingOn(base + from));
+            }
+        }
+    }
+}
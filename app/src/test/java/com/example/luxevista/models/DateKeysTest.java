@@ -0,0 +1,92 @@
+package com.example.luxevista.models;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link DateKeys}, checked against {@link java.time}.
+ */
+public class DateKeysTest {
+
+    @Test
+    public void matchesLocalDateAcrossTheTable() {
+        for (LocalDate date = LocalDate.of(2020, 1, 1); date.getYear() < 2060; date = date.plusDays(1)) {
+            String key = date.toString();
+            int epochDay = (int) date.toEpochDay();
+            assertEquals(key, epochDay, DateKeys.epochDay(key));
+            assertEquals(key, epochDay, DateKeys.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+            assertEquals(key, DateKeys.dateKey(epochDay));
+            // Second read comes from the table
+            assertSame(DateKeys.dateKey(epochDay), DateKeys.dateKey(epochDay));
+        }
+    }
+
+    @Test
+    public void matchesLocalDateOutsideTheTable() {
+        String[] keys = {"1969-12-31", "1970-01-01", "1900-03-01", "2019-12-31", "2060-01-01", "2100-02-28", "2400-02-29"};
+        for (String key : keys) {
+            int epochDay = (int) LocalDate.parse(key).toEpochDay();
+            assertEquals(key, epochDay, DateKeys.epochDay(key));
+            assertEquals(key, DateKeys.dateKey(epochDay));
+        }
+    }
+
+    @Test
+    public void acceptsLeapDaysOnlyInLeapYears() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), DateKeys.epochDay("2024-02-29"));
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), DateKeys.epochDay("2000-02-29"));
+        assertEquals(Integer.MIN_VALUE, DateKeys.epochDay("2026-02-29"));
+        assertEquals(Integer.MIN_VALUE, DateKeys.epochDay("2100-02-29"));
+        assertEquals(LocalDate.of(2024, 3, 1).toEpochDay(), DateKeys.epochDay("2024-02-29") + 1);
+        assertEquals("2024-02-29", DateKeys.dateKey((int) LocalDate.of(2024, 3, 1).toEpochDay() - 1));
+    }
+
+    @Test
+    public void rejectsDaysPastTheEndOfTheMonth() {
+        String[] invalid = {"2026-02-30", "2026-04-31", "2026-06-31", "2026-09-31", "2026-11-31", "2026-01-32",
+                "2026-01-00", "2026-00-10", "2026-13-01"};
+        for (String key : invalid) {
+            assertEquals(key, Integer.MIN_VALUE, DateKeys.epochDay(key));
+        }
+        assertEquals(LocalDate.of(2026, 1, 31).toEpochDay(), DateKeys.epochDay("2026-01-31"));
+        assertEquals(LocalDate.of(2026, 4, 30).toEpochDay(), DateKeys.epochDay("2026-04-30"));
+    }
+
+    @Test
+    public void rejectsMalformedKeys() {
+        String[] malformed = {null, "", "2026-1-01", "2026/10/18", "2026-10-18T", "20a6-10-18", "2026-1a-18", "-026-10-18"};
+        for (String key : malformed) {
+            assertEquals(String.valueOf(key), Integer.MIN_VALUE, DateKeys.epochDay(key));
+        }
+    }
+
+    @Test
+    public void timeKeysRoundTrip() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            String key = LocalTime.ofSecondOfDay(minute * 60L).toString();
+            assertEquals(key, DateKeys.timeKey(minute));
+            assertEquals(key, minute, DateKeys.minuteOfDay(key));
+        }
+        assertEquals(-1, DateKeys.minuteOfDay("24:00"));
+        assertEquals(-1, DateKeys.minuteOfDay("09:60"));
+        assertEquals(-1, DateKeys.minuteOfDay("9:00"));
+    }
+
+    @Test
+    public void epochDayOfAnInstantUsesTheZone() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        TimeZone tokyo = TimeZone.getTimeZone("Asia/Tokyo");
+        long lateEvening = LocalDate.of(2026, 10, 18).atTime(23, 30).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        assertEquals(LocalDate.of(2026, 10, 18).toEpochDay(), DateKeys.epochDay(lateEvening, utc));
+        assertEquals(LocalDate.of(2026, 10, 19).toEpochDay(), DateKeys.epochDay(lateEvening, tokyo));
+        // Before 1970 rounds down, not toward zero
+        assertEquals(-1, DateKeys.epochDay(-1L, utc));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.luxevista.models;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SlotInventory}.
+ */
+public class SlotInventoryTest {
+
+    private static Map<String, Integer> slots(Object... timeAndCapacity) {
+        Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < timeAndCapacity.length; i += 2) {
+            slots.put((String) timeAndCapacity[i], (Integer) timeAndCapacity[i + 1]);
+        }
+        return slots;
+    }
+
+    private static Map<String, Map<String, Integer>> booked(String dateKey, Map<String, Integer> times) {
+        Map<String, Map<String, Integer>> availability = new HashMap<>();
+        availability.put(dateKey, times);
+        return availability;
+    }
+
+    @Test
+    public void timesAreSortedAndNumbered() {
+        SlotInventory inventory = SlotInventory.build(slots("14:00", 2, "09:00", 1, "11:30", 3), null);
+
+        assertEquals(3, inventory.slotCount());
+        assertEquals("09:00", inventory.time(0));
+        assertEquals("14:00", inventory.time(2));
+        assertEquals(1, inventory.slotIndex("11:30"));
+        assertEquals(-1, inventory.slotIndex("10:00"));
+        assertEquals(-1, inventory.slotIndex(null));
+    }
+
+    @Test
+    public void daysOutsideTheStoredRangeHaveFullCapacity() {
+        SlotInventory inventory = SlotInventory.build(slots("09:00", 2, "10:00", 3),
+                booked("2026-10-18", slots("09:00", 2, "10:00", 1)));
+        int day = DateKeys.epochDay("2026-10-18");
+
+        assertEquals(0, inventory.remaining(day, 0));
+        assertEquals(2, inventory.remaining(day, 1));
+        assertEquals(2, inventory.remainingOnDay(day));
+        assertFalse(inventory.isFree(day, 0));
+        assertEquals(1, inventory.freeSlotCount(day));
+
+        for (int outside : new int[] {day - 1, day + 1, Integer.MIN_VALUE}) {
+            assertEquals(2, inventory.remaining(outside, 0));
+            assertEquals(3, inventory.remaining(outside, 1));
+            assertEquals(5, inventory.remainingOnDay(outside));
+            assertEquals(2, inventory.freeSlotCount(outside));
+            assertEquals(0, inventory.nextFreeSlot(outside, 0));
+        }
+    }
+
+    @Test
+    public void unparseableDaysAndUnknownTimesAreIgnored() {
+        Map<String, Map<String, Integer>> availability = booked("2026-10-18", slots("09:00", 1, "23:00", 9));
+        availability.put("someday", slots("09:00", 1));
+        SlotInventory inventory = SlotInventory.build(slots("09:00", 1), availability);
+
+        assertFalse(inventory.isFree(DateKeys.epochDay("2026-10-18"), 0));
+        assertTrue(inventory.isFree(DateKeys.epochDay("2026-10-19"), 0));
+    }
+
+    @Test
+    public void bookingClampsToZeroAndCapacity() {
+        SlotInventory inventory = SlotInventory.build(slots("09:00", 3, "10:00", 0, "11:00", -2),
+                booked("2026-10-18", slots("09:00", 5)));
+        int day = DateKeys.epochDay("2026-10-18");
+
+        // Overbooked data reads as full, not negative
+        assertEquals(0, inventory.remaining(day, 0));
+        inventory.book(day, 0, -1);
+        assertEquals(1, inventory.remaining(day, 0));
+        assertTrue(inventory.isFree(day, 0));
+        inventory.book(day, 0, -10);
+        assertEquals(3, inventory.remaining(day, 0));
+        inventory.book(day, 0, 10);
+        assertEquals(0, inventory.remaining(day, 0));
+        assertFalse(inventory.hasFreeSlot(day));
+
+        // Slots without capacity are never free, even when given back
+        inventory.book(day, 1, -1);
+        inventory.book(day, 2, -1);
+        assertEquals(0, inventory.remaining(day, 1));
+        assertEquals(0, inventory.remaining(day, 2));
+        assertFalse(inventory.isFree(day + 1, 1));
+        assertFalse(inventory.isFree(day + 1, 2));
+    }
+
+    @Test
+    public void masksStayConsistentWithCounts() {
+        Random random = new Random(16);
+        // More than 64 slots, so masks span several words
+        Map<String, Integer> timeSlots = new HashMap<>();
+        for (int minute = 0; minute < 100 * 10; minute += 10) {
+            timeSlots.put(DateKeys.timeKey(minute), random.nextInt(4));
+        }
+        int first = DateKeys.epochDay("2026-10-01");
+        Map<String, Map<String, Integer>> availability = new HashMap<>();
+        availability.put(DateKeys.dateKey(first), new HashMap<>());
+        availability.put(DateKeys.dateKey(first + 9), new HashMap<>());
+        SlotInventory inventory = SlotInventory.build(timeSlots, availability);
+
+        for (int step = 0; step < 5000; step++) {
+            int day = first + random.nextInt(10);
+            int slot = random.nextInt(inventory.slotCount());
+            int before = inventory.remaining(day, slot);
+            int quantity = random.nextInt(7) - 3;
+            inventory.book(day, slot, quantity);
+            int capacity = timeSlots.get(inventory.time(slot));
+            assertEquals(Math.max(0, Math.min(capacity, before - quantity)), inventory.remaining(day, slot));
+        }
+
+        for (int day = first; day < first + 10; day++) {
+            int free = 0;
+            int total = 0;
+            int next = inventory.nextFreeSlot(day, 0);
+            for (int slot = 0; slot < inventory.slotCount(); slot++) {
+                int left = inventory.remaining(day, slot);
+                assertEquals(left > 0, inventory.isFree(day, slot));
+                if (left > 0) {
+                    assertEquals(slot, next);
+                    next = inventory.nextFreeSlot(day, slot + 1);
+                    free++;
+                }
+                total += left;
+            }
+            assertEquals(-1, next);
+            assertEquals(free, inventory.freeSlotCount(day));
+            assertEquals(free > 0, inventory.hasFreeSlot(day));
+            assertEquals(total, inventory.remainingOnDay(day));
+        }
+    }
+}
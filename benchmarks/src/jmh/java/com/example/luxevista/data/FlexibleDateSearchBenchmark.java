@@ -0,0 +1,82 @@
+package com.example.luxevista.data;
+
+import com.example.luxevista.models.AvailabilityCalendar;
+import com.example.luxevista.models.BenchmarkCalendars;
+import com.example.luxevista.models.DateKeys;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-room part of a "find other dates" search, the earliest fitting stay of every room over a
+ * 180-day horizon: {@link StayWindows#earliestFit}'s run counter against re-scanning every night of
+ * every candidate window. The whole search should stay well under 50 ms for hundreds of rooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlexibleDateSearchBenchmark {
+
+    private static final int HORIZON_DAYS = 180;
+    private static final int UNBOOKED = 4;
+
+    @Param({"200", "500"})
+    public int rooms;
+
+    @Param({"3", "7", "14"})
+    public int nights;
+
+    // Share of nights sold out; busy calendars make most rooms scan the whole horizon
+    @Param({"30", "60"})
+    public int soldOutPercent;
+
+    private int fromDay;
+    private AvailabilityCalendar[] calendars;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(20);
+        fromDay = DateKeys.epochDay("2026-10-18");
+        calendars = new AvailabilityCalendar[rooms];
+        for (int r = 0; r < rooms; r++) {
+            int[] remaining = new int[HORIZON_DAYS + nights];
+            for (int i = 0; i < remaining.length; i++) {
+                remaining[i] = random.nextInt(100) < soldOutPercent ? 0 : 1 + random.nextInt(UNBOOKED);
+            }
+            calendars[r] = BenchmarkCalendars.of(fromDay, remaining, UNBOOKED);
+        }
+    }
+
+    @Benchmark
+    public long runCounter() {
+        long sum = 0L;
+        for (AvailabilityCalendar calendar : calendars) {
+            sum += StayWindows.earliestFit(calendar::remainingOn, fromDay, HORIZON_DAYS, nights, 1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long rescanEveryWindow() {
+        long sum = 0L;
+        for (AvailabilityCalendar calendar : calendars) {
+            int found = Integer.MIN_VALUE;
+            for (int start = fromDay; start < fromDay + HORIZON_DAYS && found == Integer.MIN_VALUE; start++) {
+                boolean fits = true;
+                for (int day = start; day < start + nights && fits; day++) fits = calendar.remainingOn(day) >= 1;
+                if (fits) found = start;
+            }
+            sum += found;
+        }
+        return sum;
+    }
+}
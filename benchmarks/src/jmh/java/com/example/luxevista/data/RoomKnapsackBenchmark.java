@@ -0,0 +1,49 @@
+package com.example.luxevista.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RoomKnapsack#solve} for a party at {@link RoomKnapsack#MAX_GUESTS} over a large synthetic
+ * catalog, the worst case the booking flow can ask for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoomKnapsackBenchmark {
+
+    @Param({"500", "2000", "10000"})
+    public int roomTypes;
+
+    private int[] sleeps;
+    private long[] cost;
+    private int[] available;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(21);
+        sleeps = new int[roomTypes];
+        cost = new long[roomTypes];
+        available = new int[roomTypes];
+        for (int type = 0; type < roomTypes; type++) {
+            sleeps[type] = 1 + random.nextInt(6);
+            // A week's stay at 80-1000 per night, in minor units
+            cost[type] = (8_000L + random.nextInt(92_000)) * 7;
+            available[type] = random.nextInt(21);
+        }
+    }
+
+    @Benchmark
+    public int[] solveLargestParty() {
+        return RoomKnapsack.solve(RoomKnapsack.MAX_GUESTS, sleeps, cost, available);
+    }
+}
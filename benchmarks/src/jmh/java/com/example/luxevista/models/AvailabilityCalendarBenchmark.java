@@ -0,0 +1,79 @@
+package com.example.luxevista.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Fewest rooms left over a stay" for every room in a large catalog: {@link AvailabilityCalendar}'s
+ * segment tree against a linear scan over the same remaining counts as a plain array.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AvailabilityCalendarBenchmark {
+
+    private static final int UNBOOKED = 10;
+    // Two years of stored days per room
+    private static final int STORED_DAYS = 730;
+
+    @Param({"1000", "5000"})
+    public int rooms;
+
+    @Param({"30", "90", "365"})
+    public int nights;
+
+    private int firstDay;
+    private AvailabilityCalendar[] calendars;
+    private int[][] remaining;
+    // One stay start per room, inside the stored range
+    private int[] starts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(15);
+        firstDay = DateKeys.epochDay("2026-01-01");
+        List<String> keys = new ArrayList<>();
+        for (int day = 0; day < STORED_DAYS; day++) keys.add(DateKeys.dateKey(firstDay + day));
+
+        calendars = new AvailabilityCalendar[rooms];
+        remaining = new int[rooms][];
+        starts = new int[rooms];
+        for (int r = 0; r < rooms; r++) {
+            int[] days = new int[STORED_DAYS];
+            for (int day = 0; day < STORED_DAYS; day++) days[day] = random.nextInt(UNBOOKED + 1);
+            remaining[r] = days;
+            calendars[r] = AvailabilityCalendar.build(keys, key -> days[DateKeys.epochDay(key) - firstDay], UNBOOKED);
+            starts[r] = random.nextInt(STORED_DAYS - nights + 1);
+        }
+    }
+
+    @Benchmark
+    public long segmentTree() {
+        long sum = 0L;
+        for (int r = 0; r < rooms; r++) sum += calendars[r].minRemaining(firstDay + starts[r], nights);
+        return sum;
+    }
+
+    @Benchmark
+    public long linearScan() {
+        long sum = 0L;
+        for (int r = 0; r < rooms; r++) {
+            int[] days = remaining[r];
+            int min = Integer.MAX_VALUE;
+            for (int day = starts[r], end = starts[r] + nights; day < end; day++) min = Math.min(min, days[day]);
+            sum += min;
+        }
+        return sum;
+    }
+}
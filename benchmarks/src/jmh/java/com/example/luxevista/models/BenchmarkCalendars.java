@@ -0,0 +1,17 @@
+package com.example.luxevista.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Builds {@link AvailabilityCalendar}s for benchmarks outside this package. */
+public final class BenchmarkCalendars {
+
+    private BenchmarkCalendars() {}
+
+    /** A calendar with {@code remaining[i]} rooms left on {@code firstDay + i}. */
+    public static AvailabilityCalendar of(int firstDay, int[] remaining, int unbooked) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < remaining.length; i++) keys.add(DateKeys.dateKey(firstDay + i));
+        return AvailabilityCalendar.build(keys, key -> remaining[DateKeys.epochDay(key) - firstDay], unbooked);
+    }
+}
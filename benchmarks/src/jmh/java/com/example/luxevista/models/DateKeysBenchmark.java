@@ -0,0 +1,80 @@
+package com.example.luxevista.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting and parsing a year of availability keys with {@link DateKeys} against
+ * {@link SimpleDateFormat}, both created per call (as the availability paths used to) and shared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DateKeysBenchmark {
+
+    private static final int KEYS = 365;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private final Date[] instants = new Date[KEYS];
+    private final String[] dateKeys = new String[KEYS];
+    private final SimpleDateFormat sharedDay = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+    private final SimpleDateFormat sharedTime = new SimpleDateFormat("HH:mm", Locale.US);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        long first = DateKeys.epochDay("2026-01-01") * MILLIS_PER_DAY;
+        for (int i = 0; i < KEYS; i++) {
+            // A random minute of each day, so time keys vary too
+            instants[i] = new Date(first + i * MILLIS_PER_DAY + random.nextInt(24 * 60) * 60L * 1000);
+            dateKeys[i] = sharedDay.format(instants[i]);
+        }
+    }
+
+    @Benchmark
+    public void formatDateKeys(Blackhole bh) {
+        for (Date instant : instants) {
+            bh.consume(DateKeys.dateKey(instant));
+            bh.consume(DateKeys.timeKey(instant));
+        }
+    }
+
+    @Benchmark
+    public void formatNewSimpleDateFormat(Blackhole bh) {
+        for (Date instant : instants) {
+            bh.consume(new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(instant));
+            bh.consume(new SimpleDateFormat("HH:mm", Locale.US).format(instant));
+        }
+    }
+
+    @Benchmark
+    public void formatSharedSimpleDateFormat(Blackhole bh) {
+        for (Date instant : instants) {
+            bh.consume(sharedDay.format(instant));
+            bh.consume(sharedTime.format(instant));
+        }
+    }
+
+    @Benchmark
+    public void parseDateKeys(Blackhole bh) {
+        for (String key : dateKeys) bh.consume(DateKeys.epochDay(key));
+    }
+
+    @Benchmark
+    public void parseSharedSimpleDateFormat(Blackhole bh) throws ParseException {
+        for (String key : dateKeys) bh.consume(sharedDay.parse(key));
+    }
+}